@@ -0,0 +1,15 @@
+package net.fisenko.utils.ids;
+
+/**
+ * Provides the interface for Id generators that generate primitive {@code long} Id's. Unlike {@link IdGenerator#next()}, {@link #nextLong()} does not box the generated Id and does
+ * not declare checked exceptions; failures are reported with (typed) unchecked exceptions.
+ */
+public interface LongIdGenerator {
+
+    /**
+     * Creates a new Id
+     *
+     * @return a new Id
+     */
+    long nextLong();
+}
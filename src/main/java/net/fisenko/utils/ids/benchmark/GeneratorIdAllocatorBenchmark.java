@@ -0,0 +1,85 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdAllocator;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdLease;
+import net.fisenko.utils.ids.snowflake.allocator.impl.InMemoryGeneratorIdAllocatorImpl;
+import net.fisenko.utils.ids.snowflake.allocator.impl.SocketGeneratorIdAllocatorImpl;
+import net.fisenko.utils.ids.snowflake.allocator.impl.SocketGeneratorIdAllocatorServer;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency of leasing a generator-id from an {@link InMemoryGeneratorIdAllocatorImpl}, called directly or through a {@link SocketGeneratorIdAllocatorServer} on
+ * the loopback interface. See {@link GeneratorIdFailoverRunner} for how fast a generator-id moves to another generator.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeneratorIdAllocatorBenchmark {
+
+    @Benchmark
+    public GeneratorIdLease acquireRelease(ExecutionPlan executionPlan) {
+        GeneratorIdLease lease = executionPlan.allocator.acquire();
+        executionPlan.allocator.release(lease);
+        return lease;
+    }
+
+    @Benchmark
+    public GeneratorIdLease renew(ExecutionPlan executionPlan) {
+        return executionPlan.allocator.renew(executionPlan.lease);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"inMemory", "socket"})
+        public String allocatorType;
+
+        public GeneratorIdAllocator allocator;
+        public GeneratorIdLease lease;
+        private SocketGeneratorIdAllocatorServer server;
+        private SocketGeneratorIdAllocatorImpl client;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            InMemoryGeneratorIdAllocatorImpl inMemory = new InMemoryGeneratorIdAllocatorImpl(MaskConfig.Default);
+            switch (allocatorType) {
+                case "inMemory":
+                    this.allocator = inMemory;
+                    break;
+                case "socket":
+                    this.server = new SocketGeneratorIdAllocatorServer(inMemory, 0);
+                    this.client = new SocketGeneratorIdAllocatorImpl("localhost", server.getPort(), Duration.ofSeconds(5));
+                    this.allocator = client;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown allocator: " + allocatorType);
+            }
+            this.lease = allocator.acquire();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (server != null) {
+                client.close();
+                server.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdAllocator;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdLease;
+import net.fisenko.utils.ids.snowflake.allocator.LeasedSnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.allocator.impl.InMemoryGeneratorIdAllocatorImpl;
+import net.fisenko.utils.ids.snowflake.allocator.impl.SocketGeneratorIdAllocatorImpl;
+import net.fisenko.utils.ids.snowflake.allocator.impl.SocketGeneratorIdAllocatorServer;
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+import net.fisenko.utils.ids.snowflake.exceptions.LeaseExpiredException;
+
+/**
+ * Measures how fast the only generator-id of a {@link SocketGeneratorIdAllocatorServer} moves from one {@link LeasedSnowflakeIdGeneratorImpl} to another when the first one is
+ * closed (handoff) and when it's cut off from the allocator (failover). For failover it reports when the first generator stopped issuing Id's and when the second one got the
+ * generator-id, both counted from the cut; the first must always stop before the second starts.
+ * <p>
+ * Arguments: the time-to-live of the leases in milliseconds (default 300) and the number of rounds (default 10).
+ * </p>
+ */
+public class GeneratorIdFailoverRunner {
+
+    public static void main(String[] args) throws InterruptedException {
+        Duration ttl = Duration.ofMillis(args.length > 0 ? Long.parseLong(args[0]) : 300);
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long[] handoff = new long[rounds];
+        long[] stopped = new long[rounds];
+        long[] takenOver = new long[rounds];
+        try (SocketGeneratorIdAllocatorServer server = new SocketGeneratorIdAllocatorServer(new InMemoryGeneratorIdAllocatorImpl(1, ttl), 0);
+             SocketGeneratorIdAllocatorImpl clientA = new SocketGeneratorIdAllocatorImpl("localhost", server.getPort());
+             SocketGeneratorIdAllocatorImpl clientB = new SocketGeneratorIdAllocatorImpl("localhost", server.getPort())) {
+            for (int round = 0; round < rounds; round++) {
+                // Handoff: the first generator is closed and releases its generator-id
+                LeasedSnowflakeIdGeneratorImpl first = new LeasedSnowflakeIdGeneratorImpl(clientA, SnowflakeIdGeneratorImpl::new, scheduler);
+                first.nextLong();
+                long start = System.nanoTime();
+                first.close();
+                LeasedSnowflakeIdGeneratorImpl second = new LeasedSnowflakeIdGeneratorImpl(clientB, SnowflakeIdGeneratorImpl::new, scheduler);
+                handoff[round] = System.nanoTime() - start;
+                second.close();
+
+                // Failover: the first generator is cut off from the allocator and its lease expires
+                PartitionedAllocator partitioned = new PartitionedAllocator(clientA);
+                first = new LeasedSnowflakeIdGeneratorImpl(partitioned, SnowflakeIdGeneratorImpl::new, scheduler);
+                start = System.nanoTime();
+                partitioned.cut = true;
+                long stop = 0;
+                second = null;
+                while (second == null) {
+                    if (stop == 0) {
+                        try {
+                            first.nextLong();
+                        } catch (LeaseExpiredException e) {
+                            stop = System.nanoTime();
+                        }
+                    }
+                    try {
+                        second = new LeasedSnowflakeIdGeneratorImpl(clientB, SnowflakeIdGeneratorImpl::new, scheduler);
+                    } catch (GeneratorIdUnavailableException e) {
+                        Thread.sleep(1);
+                    }
+                }
+                long takeover = System.nanoTime();
+                if (stop == 0) {
+                    throw new IllegalStateException("Both generators held the generator-id.");
+                }
+                stopped[round] = stop - start;
+                takenOver[round] = takeover - start;
+                second.close();
+                first.close();
+            }
+        }
+
+        System.out.printf("ttl %d ms, %d rounds%n", ttl.toMillis(), rounds);
+        print("handoff", handoff, 1_000);
+        print("failover: first stopped", stopped, 1_000_000);
+        print("failover: second started", takenOver, 1_000_000);
+    }
+
+    private static void print(String name, long[] nanos, long unit) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        String units = unit == 1_000 ? "us" : "ms";
+        System.out.printf("%-26s min %8.1f %s, median %8.1f %s, max %8.1f %s%n", name, (double) sorted[0] / unit, units,
+                (double) sorted[sorted.length / 2] / unit, units, (double) sorted[sorted.length - 1] / unit, units);
+    }
+
+    /**
+     * Fails every request once it's cut, like a network partition between the generator and the allocator.
+     */
+    private static class PartitionedAllocator implements GeneratorIdAllocator {
+
+        private final GeneratorIdAllocator allocator;
+        private volatile boolean cut;
+
+        PartitionedAllocator(GeneratorIdAllocator allocator) {
+            this.allocator = allocator;
+        }
+
+        @Override
+        public GeneratorIdLease acquire() {
+            check();
+            return allocator.acquire();
+        }
+
+        @Override
+        public GeneratorIdLease renew(GeneratorIdLease lease) {
+            check();
+            return allocator.renew(lease);
+        }
+
+        @Override
+        public void release(GeneratorIdLease lease) {
+            check();
+            allocator.release(lease);
+        }
+
+        private void check() {
+            if (cut) {
+                throw new UncheckedIOException(new IOException("Partitioned"));
+            }
+        }
+    }
+}
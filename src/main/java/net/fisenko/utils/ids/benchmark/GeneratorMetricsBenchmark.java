@@ -0,0 +1,82 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.metrics.impl.NoGeneratorMetricsImpl;
+import net.fisenko.utils.ids.metrics.impl.StripedGeneratorMetricsImpl;
+import net.fisenko.utils.ids.snowflake.LockFreeSnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of counting {@link net.fisenko.utils.ids.metrics.GeneratorMetrics} on {@link SnowflakeIdGenerator#nextLong()}. The mask config reserves 22 bits for the
+ * sequence so the cost per Id is bound by the generator rather than by the clock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GeneratorMetricsBenchmark {
+
+    @Benchmark
+    public long nextLong(ExecutionPlan executionPlan) {
+        return executionPlan.generator.nextLong();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"lock", "lockFree"})
+        public String generatorType;
+
+        @Param({"none", "striped"})
+        public String metrics;
+
+        public SnowflakeIdGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            GeneratorOptions options = GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl());
+            switch (metrics) {
+                case "none":
+                    options = options.withMetrics(new NoGeneratorMetricsImpl());
+                    break;
+                case "striped":
+                    options = options.withMetrics(new StripedGeneratorMetricsImpl());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown metrics: " + metrics);
+            }
+
+            MaskConfig maskConfig = new MaskConfig((byte) 39, (byte) 2, (byte) 22);
+            TimeSource timeSource = new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch);
+            switch (generatorType) {
+                case "lock":
+                    this.generator = new SnowflakeIdGeneratorImpl(0, maskConfig, timeSource, options);
+                    break;
+                case "lockFree":
+                    this.generator = new LockFreeSnowflakeIdGeneratorImpl(0, maskConfig, timeSource, options);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown generator: " + generatorType);
+            }
+        }
+    }
+}
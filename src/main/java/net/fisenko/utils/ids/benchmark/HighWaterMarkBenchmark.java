@@ -0,0 +1,81 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.highWaterMark.impl.MappedHighWaterMarkImpl;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of a {@link MappedHighWaterMarkImpl} on {@link SnowflakeIdGenerator#nextLong()}. The mask config reserves 22 bits for the sequence so the cost per Id
+ * is bound by the generator rather than by the clock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HighWaterMarkBenchmark {
+
+    @Benchmark
+    public long nextLong(ExecutionPlan executionPlan) {
+        return executionPlan.generator.nextLong();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"none", "mapped"})
+        public String highWaterMark;
+
+        public SnowflakeIdGenerator generator;
+        private Path file;
+        private MappedHighWaterMarkImpl mapped;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            GeneratorOptions options = GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl());
+            switch (highWaterMark) {
+                case "none":
+                    break;
+                case "mapped":
+                    this.file = Files.createTempFile("high-water-mark", ".bin");
+                    Files.delete(file);
+                    this.mapped = new MappedHighWaterMarkImpl(file);
+                    options = options.withHighWaterMark(mapped);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown high-water mark: " + highWaterMark);
+            }
+            MaskConfig maskConfig = new MaskConfig((byte) 39, (byte) 2, (byte) 22);
+            this.generator = new SnowflakeIdGeneratorImpl(0, maskConfig, new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch), options);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            if (mapped != null) {
+                mapped.close();
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
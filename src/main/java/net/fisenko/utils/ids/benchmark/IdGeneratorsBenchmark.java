@@ -9,9 +9,11 @@ import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
 import net.fisenko.utils.ids.ulid.Ulid;
 import net.fisenko.utils.ids.ulid.UlidIdGenerator;
 import net.fisenko.utils.ids.ulid.UlidIdGeneratorImpl;
+import net.fisenko.utils.ids.ulid.random.impl.BufferedCryptographicallySecureRandomImpl;
 import net.fisenko.utils.ids.ulid.random.impl.CryptographicallySecureRandomImpl;
 import net.fisenko.utils.ids.ulid.random.impl.MonotonicUlidRandomImpl;
 import net.fisenko.utils.ids.ulid.random.impl.SimpleUlidRandomImpl;
+import net.fisenko.utils.ids.ulid.random.impl.ThreadLocalUlidRandomImpl;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -55,25 +57,39 @@ public class IdGeneratorsBenchmark {
         Ulid ulid = executionPlan.simpleUlidIdGenerator.next();
     }
 
+    @Benchmark
+    public void ulidWithThreadLocalRandom(ExecutionPlan executionPlan) throws Exception {
+        Ulid ulid = executionPlan.threadLocalUlidIdGenerator.next();
+    }
+
     @Benchmark
     public void ulidWithCryptographicallySecureRandom(ExecutionPlan executionPlan) throws Exception {
         Ulid ulid = executionPlan.cryptographicallySecureUlidIdGenerator.next();
     }
 
+    @Benchmark
+    public void ulidWithBufferedCryptographicallySecureRandom(ExecutionPlan executionPlan) throws Exception {
+        Ulid ulid = executionPlan.bufferedCryptographicallySecureUlidIdGenerator.next();
+    }
+
     @State(Scope.Thread)
     public static class ExecutionPlan {
 
         public SnowflakeIdGenerator snowflakeIdGenerator;
         public UlidIdGenerator monotonicUlidIdGenerator;
         public UlidIdGenerator simpleUlidIdGenerator;
+        public UlidIdGenerator threadLocalUlidIdGenerator;
         public UlidIdGenerator cryptographicallySecureUlidIdGenerator;
+        public UlidIdGenerator bufferedCryptographicallySecureUlidIdGenerator;
 
         @Setup(Level.Trial)
         public void setup() {
             this.snowflakeIdGenerator = new SnowflakeIdGeneratorImpl((int) Thread.currentThread().getId());
             this.monotonicUlidIdGenerator = new UlidIdGeneratorImpl(OffsetDateTime.now(ZoneOffset.UTC), new MonotonicUlidRandomImpl());
             this.simpleUlidIdGenerator = new UlidIdGeneratorImpl(OffsetDateTime.now(ZoneOffset.UTC), new SimpleUlidRandomImpl());
+            this.threadLocalUlidIdGenerator = new UlidIdGeneratorImpl(OffsetDateTime.now(ZoneOffset.UTC), new ThreadLocalUlidRandomImpl());
             this.cryptographicallySecureUlidIdGenerator = new UlidIdGeneratorImpl(OffsetDateTime.now(ZoneOffset.UTC), new CryptographicallySecureRandomImpl());
+            this.bufferedCryptographicallySecureUlidIdGenerator = new UlidIdGeneratorImpl(OffsetDateTime.now(ZoneOffset.UTC), new BufferedCryptographicallySecureRandomImpl());
         }
     }
 }
@@ -0,0 +1,94 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.Recording;
+import net.fisenko.utils.ids.jfr.ClockRegressionEvent;
+import net.fisenko.utils.ids.jfr.LockWaitEvent;
+import net.fisenko.utils.ids.jfr.SequenceOverflowEvent;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import net.fisenko.utils.ids.ulid.random.impl.MonotonicUlidRandomImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the JDK Flight Recorder events of the generators: without a recording, with a recording of other events only, and with the generators' events
+ * enabled (at their default thresholds). The mask config reserves 22 bits for the sequence so the cost per Id is bound by the generator rather than by the clock.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JfrEventsBenchmark {
+
+    @Benchmark
+    public long snowflake(ExecutionPlan executionPlan) {
+        return executionPlan.generator.nextLong();
+    }
+
+    @Benchmark
+    public byte[] monotonicUlidRandom(ExecutionPlan executionPlan) {
+        return executionPlan.random.getRandomBytes();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"none", "disabled", "enabled"})
+        public String recording;
+
+        public SnowflakeIdGenerator generator;
+        public MonotonicUlidRandomImpl random;
+        private Recording jfr;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            switch (recording) {
+                case "none":
+                    break;
+                case "disabled":
+                    this.jfr = new Recording();
+                    jfr.enable("jdk.CPULoad");
+                    jfr.start();
+                    break;
+                case "enabled":
+                    this.jfr = new Recording();
+                    jfr.enable(SequenceOverflowEvent.class);
+                    jfr.enable(ClockRegressionEvent.class);
+                    jfr.enable(LockWaitEvent.class);
+                    jfr.start();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown recording: " + recording);
+            }
+
+            GeneratorOptions options = GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl());
+            MaskConfig maskConfig = new MaskConfig((byte) 39, (byte) 2, (byte) 22);
+            this.generator = new SnowflakeIdGeneratorImpl(0, maskConfig, new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch), options);
+            this.random = new MonotonicUlidRandomImpl();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            if (jfr != null) {
+                jfr.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the boxed {@link SnowflakeIdGenerator#next()} with the primitive {@link SnowflakeIdGenerator#nextLong()}. Run {@link #main(String[])} (or pass {@code -prof gc} to JMH)
+ * to see the allocation rate per operation ({@code gc.alloc.rate.norm}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LongIdGeneratorBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LongIdGeneratorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    @Benchmark
+    public Long next(ExecutionPlan executionPlan) {
+        return executionPlan.generator.next();
+    }
+
+    @Benchmark
+    public long nextLong(ExecutionPlan executionPlan) {
+        return executionPlan.generator.nextLong();
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutionPlan {
+
+        public SnowflakeIdGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // 22 bits for the sequence so the benchmark never overflows within a tick
+            this.generator = new SnowflakeIdGeneratorImpl(0, new MaskConfig((byte) 39, (byte) 2, (byte) 22));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException;
+import net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy;
+import net.fisenko.utils.ids.snowflake.overflow.impl.ParkOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinYieldOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.overflow.impl.ThrowOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the latency distribution (including p99) of {@link SnowflakeIdGenerator#nextLong()} for every {@link SequenceOverflowStrategy} while the sequence is permanently
+ * overloaded: four threads share a generator that only has 8 sequence bits (256 Id's per millisecond). For the throwing strategy the caller retries in a loop, like callers had to
+ * before the strategies existed.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@Threads(4)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OverflowStrategyBenchmark {
+
+    @Benchmark
+    public long nextLong(ExecutionPlan executionPlan) {
+        while (true) {
+            try {
+                return executionPlan.generator.nextLong();
+            } catch (SequenceOverflowException e) {
+                // Retry until the next tick
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"throw", "spin", "spinYield", "park"})
+        public String strategy;
+
+        public SnowflakeIdGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            SequenceOverflowStrategy sequenceOverflowStrategy;
+            switch (strategy) {
+                case "throw":
+                    sequenceOverflowStrategy = new ThrowOverflowStrategyImpl();
+                    break;
+                case "spin":
+                    sequenceOverflowStrategy = new SpinWaitOverflowStrategyImpl();
+                    break;
+                case "spinYield":
+                    sequenceOverflowStrategy = new SpinYieldOverflowStrategyImpl();
+                    break;
+                case "park":
+                    sequenceOverflowStrategy = new ParkOverflowStrategyImpl();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown strategy: " + strategy);
+            }
+            this.generator = new SnowflakeIdGeneratorImpl(
+                    0,
+                    new MaskConfig((byte) 41, (byte) 14, (byte) 8),
+                    new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch),
+                    GeneratorOptions.Default.withSequenceOverflowStrategy(sequenceOverflowStrategy));
+        }
+    }
+}
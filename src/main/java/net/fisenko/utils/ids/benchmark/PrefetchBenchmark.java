@@ -0,0 +1,72 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.IdGenerator;
+import net.fisenko.utils.ids.prefetch.PrefetchingIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import net.fisenko.utils.ids.ulid.UlidIdGeneratorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the latency distribution (including the tail) of generating Id's directly with taking them from a {@link PrefetchingIdGenerator}. The Snowflake generator spins until the
+ * next tick when its sequence overflows, so the direct variant includes the overflow waits.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PrefetchBenchmark {
+
+    @Benchmark
+    public Object next(ExecutionPlan executionPlan) throws Exception {
+        return executionPlan.generator.next();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"snowflake", "ulid"})
+        public String type;
+
+        @Param({"direct", "prefetched"})
+        public String mode;
+
+        public IdGenerator<?> generator;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            IdGenerator<?> direct = "snowflake".equals(type)
+                    ? new SnowflakeIdGeneratorImpl(
+                    0,
+                    MaskConfig.Default,
+                    new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch),
+                    GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl()))
+                    : new UlidIdGeneratorImpl();
+            this.generator = "prefetched".equals(mode) ? new PrefetchingIdGenerator<>(direct, 1 << 16).start() : direct;
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (generator instanceof AutoCloseable) {
+                ((AutoCloseable) generator).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package net.fisenko.utils.ids.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks matching the given pattern (by default {@link SnowflakeContentionBenchmark}) with 1, 2, 4, ... threads up to the number of available processors (or the
+ * maximum number of threads given as the second argument), so the results show how the generators scale under contention.
+ */
+public class ScalingBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : SnowflakeContentionBenchmark.class.getSimpleName();
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("'maxThreads' must be positive.");
+        }
+
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Options options = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(String.format("jmh-result-%d-threads.json", threads))
+                    .build();
+            new Runner(options).run();
+
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.IdRange;
+import net.fisenko.utils.ids.snowflake.LockFreeSnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares generating a batch of {@value #BATCH_SIZE} Id's one by one with {@link SnowflakeIdGenerator#nextLong()} against {@link SnowflakeIdGenerator#fill(long[], int, int)} and
+ * {@link SnowflakeIdGenerator#nextRange(int)}. Scores are reported per Id.
+ * <p>
+ * The mask config reserves 22 bits for the sequence so a batch fits into a single tick; with the default 12 bits the cost per Id is bound by the clock (4096 Id's per
+ * millisecond) rather than by the generator.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SnowflakeBatchBenchmark {
+
+    public static final int BATCH_SIZE = 5000;
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] next(ExecutionPlan executionPlan) {
+        long[] ids = executionPlan.ids;
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = executionPlan.generator.nextLong();
+        }
+        return ids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] fill(ExecutionPlan executionPlan) {
+        executionPlan.generator.fill(executionPlan.ids, 0, BATCH_SIZE);
+        return executionPlan.ids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] nextRange(ExecutionPlan executionPlan) {
+        long[] ids = executionPlan.ids;
+        for (int off = 0; off < BATCH_SIZE; ) {
+            IdRange range = executionPlan.generator.nextRange(BATCH_SIZE - off);
+            for (int i = 0; i < range.getCount(); i++) {
+                ids[off++] = range.get(i);
+            }
+        }
+        return ids;
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutionPlan {
+
+        @Param({"lock", "lockFree"})
+        public String implementation;
+
+        public SnowflakeIdGenerator generator;
+        public long[] ids;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            MaskConfig maskConfig = new MaskConfig((byte) 39, (byte) 2, (byte) 22);
+            switch (implementation) {
+                case "lock":
+                    this.generator = new SnowflakeIdGeneratorImpl(0, maskConfig);
+                    break;
+                case "lockFree":
+                    this.generator = new LockFreeSnowflakeIdGeneratorImpl(0, maskConfig);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown implementation: " + implementation);
+            }
+            this.ids = new long[BATCH_SIZE];
+        }
+    }
+}
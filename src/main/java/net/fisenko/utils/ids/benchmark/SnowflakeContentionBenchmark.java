@@ -0,0 +1,75 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.LockFreeSnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.StripedSnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Measures a single {@link SnowflakeIdGenerator} shared by all benchmark threads. Use {@link ScalingBenchmarkRunner} to run it with an increasing number of threads.
+ * <p>
+ * The mask config reserves 22 bits for the sequence so the benchmark measures contention on the generator rather than sequence overflows; an overflow is counted as a failed
+ * operation and returns -1. The striped generator uses one stripe per benchmark thread (up to the 16 generator-id's of the mask config).
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnowflakeContentionBenchmark {
+
+    @Benchmark
+    public long next(ExecutionPlan executionPlan) {
+        try {
+            return executionPlan.generator.nextLong();
+        } catch (SequenceOverflowException e) {
+            return -1;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"lock", "lockFree", "striped"})
+        public String implementation;
+
+        public SnowflakeIdGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setup(BenchmarkParams params) {
+            MaskConfig maskConfig = new MaskConfig((byte) 37, (byte) 4, (byte) 22);
+            switch (implementation) {
+                case "lock":
+                    this.generator = new SnowflakeIdGeneratorImpl(0, maskConfig);
+                    break;
+                case "lockFree":
+                    this.generator = new LockFreeSnowflakeIdGeneratorImpl(0, maskConfig);
+                    break;
+                case "striped":
+                    int stripes = (int) Math.min(params.getThreads(), maskConfig.getMaxGenerators());
+                    this.generator = new StripedSnowflakeIdGeneratorImpl(0, stripes, maskConfig, new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown implementation: " + implementation);
+            }
+        }
+    }
+}
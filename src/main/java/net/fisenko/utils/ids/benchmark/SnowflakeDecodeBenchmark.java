@@ -0,0 +1,93 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.IdInfo;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdDecoder;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares decoding an array of Snowflake Id's with {@link SnowflakeIdGeneratorImpl#fromId(long)}, with the primitive extractors of {@link SnowflakeIdDecoder} and with {@link
+ * SnowflakeIdDecoder#decode(long[], long[], int[], int[])}. Scores are reported per array; run {@link #main(String[])} to include allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnowflakeDecodeBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SnowflakeDecodeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Benchmark
+    public void fromId(ExecutionPlan executionPlan, Blackhole blackhole) {
+        for (long id : executionPlan.ids) {
+            IdInfo info = executionPlan.generator.fromId(id);
+            blackhole.consume(info.getDateTimeOffset().toInstant().toEpochMilli());
+            blackhole.consume(info.getGeneratorId());
+            blackhole.consume(info.getSequenceNumber());
+        }
+    }
+
+    @Benchmark
+    public void extractors(ExecutionPlan executionPlan, Blackhole blackhole) {
+        SnowflakeIdDecoder decoder = executionPlan.decoder;
+        for (long id : executionPlan.ids) {
+            blackhole.consume(decoder.epochMillisOf(id));
+            blackhole.consume(decoder.generatorIdOf(id));
+            blackhole.consume(decoder.sequenceOf(id));
+        }
+    }
+
+    @Benchmark
+    public long[] decode(ExecutionPlan executionPlan) {
+        executionPlan.decoder.decode(executionPlan.ids, executionPlan.millis, executionPlan.generatorIds, executionPlan.sequences);
+        return executionPlan.millis;
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutionPlan {
+
+        @Param({"10000", "1000000"})
+        public int count;
+
+        public SnowflakeIdGeneratorImpl generator;
+        public SnowflakeIdDecoder decoder;
+        public long[] ids;
+        public long[] millis;
+        public int[] generatorIds;
+        public int[] sequences;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            this.generator = new SnowflakeIdGeneratorImpl(0);
+            this.decoder = new SnowflakeIdDecoder(generator);
+            this.ids = new long[count];
+            this.generator.fill(ids, 0, count);
+            this.millis = new long[count];
+            this.generatorIds = new int[count];
+            this.sequences = new int[count];
+        }
+    }
+}
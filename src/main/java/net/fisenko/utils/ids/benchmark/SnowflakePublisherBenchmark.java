@@ -0,0 +1,125 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.async.AsyncSnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.async.AsyncSnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the {@link AsyncSnowflakeIdGenerator#publisher()} with several concurrent subscribers; every benchmark thread subscribes, requests
+ * {@value #IDS_PER_SUBSCRIPTION} Id's {@code request} at a time and waits for the last one. Scores are reported per Id.
+ * <p>
+ * The {@code default} mask config runs out of sequence numbers quickly, so emission regularly continues on the scheduler; the {@code wide} mask config reserves 22 bits for the
+ * sequence and measures the demand handling alone.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@Threads(4)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnowflakePublisherBenchmark {
+
+    public static final int IDS_PER_SUBSCRIPTION = 16384;
+
+    @Benchmark
+    @OperationsPerInvocation(IDS_PER_SUBSCRIPTION)
+    public long subscribe(ExecutionPlan executionPlan) throws InterruptedException {
+        CountingSubscriber subscriber = new CountingSubscriber(executionPlan.request);
+        executionPlan.generator.publisher().subscribe(subscriber);
+        subscriber.done.await();
+        return subscriber.last;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"default", "wide"})
+        public String mask;
+
+        @Param({"1", "64", "1024"})
+        public int request;
+
+        public AsyncSnowflakeIdGenerator generator;
+        private ScheduledExecutorService scheduler;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            MaskConfig maskConfig = "wide".equals(mask) ? new MaskConfig((byte) 39, (byte) 2, (byte) 22) : MaskConfig.Default;
+            SnowflakeIdGenerator snowflake = new SnowflakeIdGeneratorImpl(0, maskConfig, new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch));
+            this.scheduler = Executors.newSingleThreadScheduledExecutor();
+            this.generator = new AsyncSnowflakeIdGeneratorImpl(snowflake, scheduler);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Requests {@value #IDS_PER_SUBSCRIPTION} Id's in chunks and cancels the subscription after the last one.
+     */
+    private static final class CountingSubscriber implements Flow.Subscriber<Long> {
+
+        private final int request;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+        private int received;
+        private long last;
+
+        private CountingSubscriber(int request) {
+            this.request = request;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(request);
+        }
+
+        @Override
+        public void onNext(Long item) {
+            last = item;
+            if (++received == IDS_PER_SUBSCRIPTION) {
+                subscription.cancel();
+                done.countDown();
+            } else if (received % request == 0) {
+                subscription.request(request);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.CachedTimeSourceImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.DefaultTimeSourceImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of a single {@link TimeSource#getTicks()} call. The 1 ms tick takes the constant-divisor fast path of {@link NanoTimeSourceImpl}, the 7 ms tick the generic
+ * one. The {@link CachedTimeSourceImpl} reads the tick count published by its ticker thread on top of a {@link NanoTimeSourceImpl}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimeSourceBenchmark {
+
+    @Benchmark
+    public long getTicks(ExecutionPlan executionPlan) {
+        return executionPlan.timeSource.getTicks();
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutionPlan {
+
+        @Param({"default", "nano", "cached"})
+        public String implementation;
+
+        @Param({"1", "7"})
+        public long tickMillis;
+
+        public TimeSource timeSource;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Duration tickDuration = Duration.ofMillis(tickMillis);
+            switch (implementation) {
+                case "default":
+                    this.timeSource = new DefaultTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch, tickDuration);
+                    break;
+                case "nano":
+                    this.timeSource = new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch, tickDuration);
+                    break;
+                case "cached":
+                    this.timeSource = new CachedTimeSourceImpl(new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch, tickDuration)).start();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown implementation: " + implementation);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (timeSource instanceof AutoCloseable) {
+                ((AutoCloseable) timeSource).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.ulid.Ulid;
+import net.fisenko.utils.ids.ulid.UlidIdGenerator;
+import net.fisenko.utils.ids.ulid.UlidIdGeneratorImpl;
+import net.fisenko.utils.ids.ulid.random.UlidRandom;
+import net.fisenko.utils.ids.ulid.random.impl.BufferedCryptographicallySecureRandomImpl;
+import net.fisenko.utils.ids.ulid.random.impl.LockFreeMonotonicUlidRandomImpl;
+import net.fisenko.utils.ids.ulid.random.impl.MonotonicUlidRandomImpl;
+import net.fisenko.utils.ids.ulid.random.impl.ThreadLocalUlidRandomImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares generating a batch of {@value #BATCH_SIZE} {@link Ulid}'s one by one with {@link UlidIdGenerator#next()} against the batch methods of {@link UlidIdGenerator}. Scores
+ * are reported per {@link Ulid}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UlidBatchBenchmark {
+
+    public static final int BATCH_SIZE = 1000;
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Ulid[] next(ExecutionPlan executionPlan) throws Exception {
+        Ulid[] ulids = executionPlan.ulids;
+        for (int i = 0; i < ulids.length; i++) {
+            ulids[i] = executionPlan.generator.next();
+        }
+        return ulids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Ulid[] fill(ExecutionPlan executionPlan) {
+        executionPlan.generator.fill(executionPlan.ulids, 0, BATCH_SIZE);
+        return executionPlan.ulids;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long[] fillBits(ExecutionPlan executionPlan) {
+        executionPlan.generator.fill(executionPlan.msb, executionPlan.lsb, 0, BATCH_SIZE);
+        return executionPlan.lsb;
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutionPlan {
+
+        @Param({"monotonic", "lockFreeMonotonic", "threadLocal", "bufferedCryptographicallySecure"})
+        public String random;
+
+        public UlidIdGenerator generator;
+        public Ulid[] ulids;
+        public long[] msb;
+        public long[] lsb;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            UlidRandom rng;
+            switch (random) {
+                case "monotonic":
+                    rng = new MonotonicUlidRandomImpl();
+                    break;
+                case "lockFreeMonotonic":
+                    rng = new LockFreeMonotonicUlidRandomImpl();
+                    break;
+                case "threadLocal":
+                    rng = new ThreadLocalUlidRandomImpl();
+                    break;
+                case "bufferedCryptographicallySecure":
+                    rng = new BufferedCryptographicallySecureRandomImpl();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown random: " + random);
+            }
+            this.generator = new UlidIdGeneratorImpl(rng);
+            this.ulids = new Ulid[BATCH_SIZE];
+            this.msb = new long[BATCH_SIZE];
+            this.lsb = new long[BATCH_SIZE];
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.ulid.Ulid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the {@link Ulid} operations that dominate collection workloads: sorting ({@link Ulid#compareTo(Ulid)}) and hashing ({@link Ulid#hashCode()} and
+ * {@link Ulid#equals(Object)}). Run {@link #main(String[])} to include the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UlidCollectionsBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UlidCollectionsBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+
+    @Benchmark
+    public Ulid[] sort(ExecutionPlan executionPlan) {
+        Ulid[] ulids = executionPlan.ulids.clone();
+        Arrays.sort(ulids);
+        return ulids;
+    }
+
+    @Benchmark
+    public int hashMap(ExecutionPlan executionPlan) {
+        Map<Ulid, Ulid> map = new HashMap<>(executionPlan.ulids.length * 2);
+        for (Ulid ulid : executionPlan.ulids) {
+            map.put(ulid, ulid);
+        }
+
+        int found = 0;
+        for (Ulid ulid : executionPlan.lookups) {
+            if (map.containsKey(ulid)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"100000"})
+        public int size;
+
+        public Ulid[] ulids;
+        public Ulid[] lookups;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            // A few thousand Id's per millisecond, like a busy generator, so the comparisons have to look past the time part
+            Random random = new Random(42);
+            byte[] bytes = new byte[16];
+            this.ulids = new Ulid[size];
+            this.lookups = new Ulid[size];
+            for (int i = 0; i < size; i++) {
+                long millis = 1_600_000_000_000L + i / 4096;
+                for (int b = 0; b < 6; b++) {
+                    bytes[b] = (byte) (millis >>> (40 - 8 * b));
+                }
+                byte[] randomness = new byte[10];
+                random.nextBytes(randomness);
+                System.arraycopy(randomness, 0, bytes, 6, 10);
+                ulids[i] = new Ulid(bytes);
+                // Equal but not identical instances, half of them present in the map
+                bytes[15] ^= (byte) (i & 1);
+                lookups[i] = new Ulid(bytes);
+            }
+            shuffle(ulids, random);
+            shuffle(lookups, random);
+        }
+
+        private static void shuffle(Ulid[] ulids, Random random) {
+            for (int i = ulids.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Ulid tmp = ulids[i];
+                ulids[i] = ulids[j];
+                ulids[j] = tmp;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.column.UlidColumn;
+import net.fisenko.utils.ids.ulid.Ulid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares sorting {@link Ulid}'s held as an array of objects with {@link Arrays#sort(Object[])} against sorting a {@link UlidColumn} with its radix sort. The {@link Ulid}'s
+ * are spread over one minute in random order, like {@link Ulid}'s collected from several generators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UlidColumnBenchmark {
+
+    @Benchmark
+    public Ulid[] sortObjects(ExecutionPlan executionPlan) {
+        Arrays.sort(executionPlan.ulids);
+        return executionPlan.ulids;
+    }
+
+    @Benchmark
+    public UlidColumn sortColumn(ExecutionPlan executionPlan) {
+        executionPlan.column.sort();
+        return executionPlan.column;
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutionPlan {
+
+        @Param({"1000000"})
+        public int count;
+
+        public long[] msb;
+        public long[] lsb;
+        public Ulid[] ulids;
+        public UlidColumn column;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Random random = new Random(42);
+            long now = System.currentTimeMillis();
+            this.msb = new long[count];
+            this.lsb = new long[count];
+            for (int i = 0; i < count; i++) {
+                Ulid ulid = Ulid.of(now + random.nextInt(60_000), random.nextLong(), random.nextLong());
+                msb[i] = ulid.getMostSignificantBits();
+                lsb[i] = ulid.getLeastSignificantBits();
+            }
+            this.ulids = new Ulid[count];
+            this.column = new UlidColumn(count);
+        }
+
+        @Setup(Level.Invocation)
+        public void shuffle() {
+            for (int i = 0; i < count; i++) {
+                ulids[i] = new Ulid(msb[i], lsb[i]);
+            }
+            column.clear();
+            column.addAll(msb, lsb, 0, count);
+        }
+    }
+}
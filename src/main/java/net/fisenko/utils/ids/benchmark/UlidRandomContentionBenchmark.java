@@ -0,0 +1,60 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.ulid.Ulid;
+import net.fisenko.utils.ids.ulid.random.UlidRandom;
+import net.fisenko.utils.ids.ulid.random.impl.LockFreeMonotonicUlidRandomImpl;
+import net.fisenko.utils.ids.ulid.random.impl.MonotonicUlidRandomImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a single monotonic {@link UlidRandom} shared by all benchmark threads. Use {@link ScalingBenchmarkRunner} to run it with an increasing number of threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@Threads(4)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UlidRandomContentionBenchmark {
+
+    @Benchmark
+    public Ulid nextUlid(ExecutionPlan executionPlan) {
+        return executionPlan.random.nextUlid(System.currentTimeMillis());
+    }
+
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+
+        @Param({"monotonic", "lockFreeMonotonic"})
+        public String implementation;
+
+        public UlidRandom random;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            switch (implementation) {
+                case "monotonic":
+                    this.random = new MonotonicUlidRandomImpl();
+                    break;
+                case "lockFreeMonotonic":
+                    this.random = new LockFreeMonotonicUlidRandomImpl();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown implementation: " + implementation);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package net.fisenko.utils.ids.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.ulid.Ulid;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Serializes {@code size} {@link Ulid}'s as a JSON array of strings ({@code ["01EWVFT6J83FZ199J5NFEQQ3S3",...]}), the way a log line or a response body would contain them.
+ * Run {@link #main(String[])} to include the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 2, warmups = 1)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UlidSerializationBenchmark {
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UlidSerializationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+
+    @Benchmark
+    public int toStringToStringBuilder(ExecutionPlan executionPlan) {
+        StringBuilder json = executionPlan.json;
+        json.setLength(0);
+        json.append('[');
+        for (Ulid ulid : executionPlan.ulids) {
+            json.append('"').append(ulid.toString()).append('"').append(',');
+        }
+        json.setCharAt(json.length() - 1, ']');
+        return json.length();
+    }
+
+    @Benchmark
+    public int appendToStringBuilder(ExecutionPlan executionPlan) {
+        StringBuilder json = executionPlan.json;
+        json.setLength(0);
+        json.append('[');
+        for (Ulid ulid : executionPlan.ulids) {
+            ulid.appendTo(json.append('"')).append('"').append(',');
+        }
+        json.setCharAt(json.length() - 1, ']');
+        return json.length();
+    }
+
+    @Benchmark
+    public int encodeToAscii(ExecutionPlan executionPlan) {
+        byte[] json = executionPlan.ascii;
+        int off = 0;
+        json[off++] = '[';
+        for (Ulid ulid : executionPlan.ulids) {
+            json[off++] = '"';
+            off = ulid.encodeTo(json, off);
+            json[off++] = '"';
+            json[off++] = ',';
+        }
+        json[off - 1] = ']';
+        return off;
+    }
+
+    @State(Scope.Thread)
+    public static class ExecutionPlan {
+
+        @Param({"1000000"})
+        public int size;
+
+        public Ulid[] ulids;
+        public StringBuilder json;
+        public byte[] ascii;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Random random = new Random(42);
+            this.ulids = new Ulid[size];
+            for (int i = 0; i < size; i++) {
+                ulids[i] = Ulid.of(1_600_000_000_000L + i / 4096, random.nextLong(), random.nextLong());
+            }
+            // Sized up front so the benchmarks measure the encoding rather than growing the output
+            int length = 1 + size * 29;
+            this.json = new StringBuilder(length);
+            this.ascii = new byte[length];
+        }
+    }
+}
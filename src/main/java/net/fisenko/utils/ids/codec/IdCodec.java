@@ -0,0 +1,220 @@
+package net.fisenko.utils.ids.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import net.fisenko.utils.ids.ulid.Ulid;
+
+/**
+ * Writes and reads arrays of Id's to and from heap or direct {@link ByteBuffer}s.
+ * <p>
+ * Id's are always written in big-endian order, whatever the order of the buffer, so the encoded Id's compare byte by byte (unsigned) in the same order as the Id's themselves:
+ * 8 bytes per Snowflake Id (which is never negative) and 16 bytes per {@link Ulid}, the same layout as {@link Ulid#toByteArray()}. All methods are relative: they start at the
+ * position of the buffer and advance it, and leave the order of the buffer as it is. Nothing is allocated per Id, except for the {@link Ulid} objects when reading into a
+ * {@link Ulid} array.
+ * </p>
+ */
+public final class IdCodec {
+
+    /**
+     * The number of bytes of an encoded Snowflake Id.
+     */
+    public static final int LONG_ID_BYTES = Long.BYTES;
+
+    /**
+     * The number of bytes of an encoded {@link Ulid}.
+     */
+    public static final int ULID_BYTES = 2 * Long.BYTES;
+
+    private IdCodec() {
+    }
+
+    /**
+     * Writes {@code len} Snowflake Id's of {@code ids} starting at {@code off} to {@code dst}.
+     *
+     * @param ids the Id's to write.
+     * @param off the position of the first Id in {@code ids}.
+     * @param len the number of Id's to write.
+     * @param dst the buffer to write to.
+     * @throws IllegalArgumentException when {@code ids} or {@code dst} is null.
+     * @throws BufferOverflowException when {@code dst} has less than {@code len * 8} bytes remaining; nothing is written in that case.
+     */
+    public static void writeLongIds(long[] ids, int off, int len, ByteBuffer dst) {
+        if (ids == null) {
+            throw new IllegalArgumentException("'ids' could not be null.");
+        }
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, ids.length);
+        if (dst.remaining() / LONG_ID_BYTES < len) {
+            throw new BufferOverflowException();
+        }
+
+        bigEndian(dst).asLongBuffer().put(ids, off, len);
+        dst.position(dst.position() + len * LONG_ID_BYTES);
+    }
+
+    /**
+     * Reads {@code len} Snowflake Id's from {@code src} into {@code ids} starting at {@code off}.
+     *
+     * @param src the buffer to read from.
+     * @param ids the array to read the Id's into.
+     * @param off the position of the first Id in {@code ids}.
+     * @param len the number of Id's to read.
+     * @throws IllegalArgumentException when {@code src} or {@code ids} is null.
+     * @throws BufferUnderflowException when {@code src} has less than {@code len * 8} bytes remaining; nothing is read in that case.
+     */
+    public static void readLongIds(ByteBuffer src, long[] ids, int off, int len) {
+        if (src == null) {
+            throw new IllegalArgumentException("'src' could not be null.");
+        }
+        if (ids == null) {
+            throw new IllegalArgumentException("'ids' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, ids.length);
+        if (src.remaining() / LONG_ID_BYTES < len) {
+            throw new BufferUnderflowException();
+        }
+
+        bigEndian(src).asLongBuffer().get(ids, off, len);
+        src.position(src.position() + len * LONG_ID_BYTES);
+    }
+
+    /**
+     * Writes {@code len} {@link Ulid}'s of {@code ulids} starting at {@code off} to {@code dst}.
+     *
+     * @param ulids the {@link Ulid}'s to write.
+     * @param off   the position of the first {@link Ulid} in {@code ulids}.
+     * @param len   the number of {@link Ulid}'s to write.
+     * @param dst   the buffer to write to.
+     * @throws IllegalArgumentException when {@code ulids} or {@code dst} is null.
+     * @throws BufferOverflowException when {@code dst} has less than {@code len * 16} bytes remaining; nothing is written in that case.
+     */
+    public static void writeUlids(Ulid[] ulids, int off, int len, ByteBuffer dst) {
+        if (ulids == null) {
+            throw new IllegalArgumentException("'ulids' could not be null.");
+        }
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, ulids.length);
+        if (dst.remaining() / ULID_BYTES < len) {
+            throw new BufferOverflowException();
+        }
+
+        ByteBuffer out = bigEndian(dst);
+        for (int i = off; i < off + len; i++) {
+            out.putLong(ulids[i].getMostSignificantBits());
+            out.putLong(ulids[i].getLeastSignificantBits());
+        }
+        dst.position(out.position());
+    }
+
+    /**
+     * Writes {@code len} {@link Ulid}'s, given by their most and least significant bits, starting at {@code off} to {@code dst}.
+     *
+     * @param msb the most significant bits of the {@link Ulid}'s to write.
+     * @param lsb the least significant bits of the {@link Ulid}'s to write.
+     * @param off the position of the first {@link Ulid} in {@code msb} and {@code lsb}.
+     * @param len the number of {@link Ulid}'s to write.
+     * @param dst the buffer to write to.
+     * @throws IllegalArgumentException when {@code msb}, {@code lsb} or {@code dst} is null.
+     * @throws BufferOverflowException when {@code dst} has less than {@code len * 16} bytes remaining; nothing is written in that case.
+     */
+    public static void writeUlids(long[] msb, long[] lsb, int off, int len, ByteBuffer dst) {
+        if (msb == null) {
+            throw new IllegalArgumentException("'msb' could not be null.");
+        }
+        if (lsb == null) {
+            throw new IllegalArgumentException("'lsb' could not be null.");
+        }
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, msb.length);
+        Objects.checkFromIndexSize(off, len, lsb.length);
+        if (dst.remaining() / ULID_BYTES < len) {
+            throw new BufferOverflowException();
+        }
+
+        ByteBuffer out = bigEndian(dst);
+        for (int i = off; i < off + len; i++) {
+            out.putLong(msb[i]);
+            out.putLong(lsb[i]);
+        }
+        dst.position(out.position());
+    }
+
+    /**
+     * Reads {@code len} {@link Ulid}'s from {@code src} into {@code ulids} starting at {@code off}.
+     *
+     * @param src   the buffer to read from.
+     * @param ulids the array to read the {@link Ulid}'s into.
+     * @param off   the position of the first {@link Ulid} in {@code ulids}.
+     * @param len   the number of {@link Ulid}'s to read.
+     * @throws IllegalArgumentException when {@code src} or {@code ulids} is null.
+     * @throws BufferUnderflowException when {@code src} has less than {@code len * 16} bytes remaining; nothing is read in that case.
+     */
+    public static void readUlids(ByteBuffer src, Ulid[] ulids, int off, int len) {
+        if (src == null) {
+            throw new IllegalArgumentException("'src' could not be null.");
+        }
+        if (ulids == null) {
+            throw new IllegalArgumentException("'ulids' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, ulids.length);
+        if (src.remaining() / ULID_BYTES < len) {
+            throw new BufferUnderflowException();
+        }
+
+        ByteBuffer in = bigEndian(src);
+        for (int i = off; i < off + len; i++) {
+            long msb = in.getLong();
+            ulids[i] = new Ulid(msb, in.getLong());
+        }
+        src.position(in.position());
+    }
+
+    /**
+     * Reads {@code len} {@link Ulid}'s from {@code src} into {@code msb} and {@code lsb} starting at {@code off}, without creating {@link Ulid} objects.
+     *
+     * @param src the buffer to read from.
+     * @param msb the array to read the most significant bits into.
+     * @param lsb the array to read the least significant bits into.
+     * @param off the position of the first {@link Ulid} in {@code msb} and {@code lsb}.
+     * @param len the number of {@link Ulid}'s to read.
+     * @throws IllegalArgumentException when {@code src}, {@code msb} or {@code lsb} is null.
+     * @throws BufferUnderflowException when {@code src} has less than {@code len * 16} bytes remaining; nothing is read in that case.
+     */
+    public static void readUlids(ByteBuffer src, long[] msb, long[] lsb, int off, int len) {
+        if (src == null) {
+            throw new IllegalArgumentException("'src' could not be null.");
+        }
+        if (msb == null) {
+            throw new IllegalArgumentException("'msb' could not be null.");
+        }
+        if (lsb == null) {
+            throw new IllegalArgumentException("'lsb' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, msb.length);
+        Objects.checkFromIndexSize(off, len, lsb.length);
+        if (src.remaining() / ULID_BYTES < len) {
+            throw new BufferUnderflowException();
+        }
+
+        ByteBuffer in = bigEndian(src);
+        for (int i = off; i < off + len; i++) {
+            msb[i] = in.getLong();
+            lsb[i] = in.getLong();
+        }
+        src.position(in.position());
+    }
+
+    // A view of the buffer sharing its content, position and limit, but in big-endian order; the caller's buffer is never changed except for its position
+    private static ByteBuffer bigEndian(ByteBuffer buffer) {
+        return buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    }
+}
@@ -0,0 +1,236 @@
+package net.fisenko.utils.ids.column;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import net.fisenko.utils.ids.codec.IdCodec;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdDecoder;
+
+/**
+ * A growable column of Snowflake Id's stored as a {@code long} array; the counterpart of {@link UlidColumn}.
+ * <p>
+ * {@link #sort()} sorts the column with a radix sort, after which {@link #binarySearch(long)} and {@link #slice(SnowflakeIdDecoder, long, long)} find Id's and time ranges.
+ * The column keeps track of whether it's sorted, so appending Id's in increasing order (e.g. from a single generator) keeps it sorted without sorting. To keep Id's off-heap,
+ * write the column to a direct {@link ByteBuffer} with {@link #writeTo(ByteBuffer)}.
+ * </p>
+ * <p>
+ * A {@link LongIdColumn} is not thread-safe.
+ * </p>
+ */
+public class LongIdColumn {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] ids;
+    private int size;
+    private boolean sorted = true;
+
+    /**
+     * Initializes a new instance of the {@link LongIdColumn} class.
+     */
+    public LongIdColumn() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LongIdColumn} class.
+     *
+     * @param initialCapacity the number of Id's the column holds before it grows.
+     * @throws IllegalArgumentException when {@code initialCapacity} is negative.
+     */
+    public LongIdColumn(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("'initialCapacity' could not be negative.");
+        }
+
+        this.ids = new long[initialCapacity];
+    }
+
+    /**
+     * Reads {@code count} Id's written by {@link #writeTo(ByteBuffer)} or {@link IdCodec#writeLongIds(long[], int, int, ByteBuffer)} from {@code src}.
+     *
+     * @param src   the buffer to read from; its position is advanced.
+     * @param count the number of Id's to read.
+     * @return a new column with the Id's.
+     * @throws BufferUnderflowException when {@code src} has less than {@code count * 8} bytes remaining.
+     */
+    public static LongIdColumn readFrom(ByteBuffer src, int count) {
+        LongIdColumn column = new LongIdColumn(count);
+        IdCodec.readLongIds(src, column.ids, 0, count);
+        column.size = count;
+        column.sorted = column.checkSorted(0);
+        return column;
+    }
+
+    /**
+     * Appends an Id.
+     *
+     * @param id the Id to append.
+     */
+    public void add(long id) {
+        if (size == ids.length) {
+            grow(size + 1);
+        }
+        if (sorted && size > 0 && ids[size - 1] > id) {
+            sorted = false;
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Appends {@code len} Id's, e.g. as filled by {@link net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator#fill(long[], int, int)}.
+     *
+     * @param src the Id's to append.
+     * @param off the position of the first Id to append.
+     * @param len the number of Id's to append.
+     */
+    public void addAll(long[] src, int off, int len) {
+        Objects.checkFromIndexSize(off, len, src.length);
+        if (ids.length - size < len) {
+            grow(size + len);
+        }
+
+        System.arraycopy(src, off, ids, size, len);
+        int from = Math.max(size - 1, 0);
+        size += len;
+        sorted = sorted && checkSorted(from);
+    }
+
+    /**
+     * Gets the number of Id's in the column.
+     *
+     * @return the number of Id's.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets whether the Id's of the column are in increasing order.
+     *
+     * @return true when the column is sorted.
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Gets the Id at a position.
+     *
+     * @param index the position of the Id.
+     * @return the Id.
+     * @throws IndexOutOfBoundsException when {@code index} is negative or not less than {@link #size()}.
+     */
+    public long get(int index) {
+        Objects.checkIndex(index, size);
+        return ids[index];
+    }
+
+    /**
+     * Sorts the Id's in increasing order with a least significant digit radix sort; sorting takes a temporary copy of the column.
+     */
+    public void sort() {
+        if (!sorted) {
+            RadixSort.sort(ids, size);
+            sorted = true;
+        }
+    }
+
+    /**
+     * Searches a sorted column for an Id.
+     *
+     * @param id the Id to search for.
+     * @return the position of the Id, or {@code -(insertion point) - 1} when the column doesn't contain it; like {@link Arrays#binarySearch(long[], long)}.
+     * @throws IllegalStateException when the column is not sorted.
+     */
+    public int binarySearch(long id) {
+        requireSorted();
+
+        return Arrays.binarySearch(ids, 0, size, id);
+    }
+
+    /**
+     * Gets the Id's of a sorted column generated between two points in time (inclusive) as a new column.
+     *
+     * @param decoder         the decoder for the {@link net.fisenko.utils.ids.snowflake.config.MaskConfig} and time source the Id's were generated with.
+     * @param fromEpochMillis the first millisecond since the Unix epoch.
+     * @param toEpochMillis   the last millisecond since the Unix epoch.
+     * @return a sorted column with the Id's between {@link SnowflakeIdDecoder#minIdAt(long)} of {@code fromEpochMillis} and {@link SnowflakeIdDecoder#maxIdAt(long)} of {@code
+     * toEpochMillis}.
+     * @throws IllegalArgumentException when {@code decoder} is null.
+     * @throws IllegalStateException    when the column is not sorted.
+     */
+    public LongIdColumn slice(SnowflakeIdDecoder decoder, long fromEpochMillis, long toEpochMillis) {
+        if (decoder == null) {
+            throw new IllegalArgumentException("'decoder' could not be null.");
+        }
+        requireSorted();
+
+        LongIdColumn slice = new LongIdColumn(0);
+        long first = decoder.minIdAt(fromEpochMillis);
+        long last = decoder.maxIdAt(toEpochMillis);
+        if (first > last) {
+            return slice;
+        }
+
+        int from = lowerBound(first);
+        int to = last == Long.MAX_VALUE ? size : lowerBound(last + 1);
+        slice.ids = Arrays.copyOfRange(ids, from, to);
+        slice.size = to - from;
+        return slice;
+    }
+
+    /**
+     * Writes the Id's to a heap or direct buffer in the layout of {@link IdCodec}: 8 bytes per Id, big-endian.
+     *
+     * @param dst the buffer to write to; its position is advanced.
+     * @throws BufferOverflowException when {@code dst} has less than {@code size() * 8} bytes remaining.
+     */
+    public void writeTo(ByteBuffer dst) {
+        IdCodec.writeLongIds(ids, 0, size, dst);
+    }
+
+    /**
+     * Removes all Id's; the capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    private void grow(int minCapacity) {
+        ids = Arrays.copyOf(ids, Math.max(minCapacity, ids.length + (ids.length >> 1)));
+    }
+
+    private void requireSorted() {
+        if (!sorted) {
+            throw new IllegalStateException("The column is not sorted.");
+        }
+    }
+
+    private boolean checkSorted(int from) {
+        for (int i = from + 1; i < size; i++) {
+            if (ids[i - 1] > ids[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The first position whose Id is not less than the key
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,173 @@
+package net.fisenko.utils.ids.column;
+
+/**
+ * Least significant digit radix sort of signed 64 bit and unsigned 128 bit keys, one byte per pass.
+ * <p>
+ * The histograms of all passes are counted in a single read of the keys up front, and passes in which every key has the same byte are skipped; for time-ordered Id's this
+ * skips the high bytes of the timestamp, which rarely differ within a column.
+ * </p>
+ */
+final class RadixSort {
+
+    private static final int RADIX = 256;
+
+    /**
+     * Below this size an insertion sort is cheaper than clearing and scanning the histograms.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    private RadixSort() {
+    }
+
+    /**
+     * Sorts the first {@code size} keys as signed 64 bit numbers, like {@link java.util.Arrays#sort(long[])}.
+     *
+     * @param keys the keys to sort.
+     * @param size the number of keys to sort.
+     */
+    static void sort(long[] keys, int size) {
+        if (size < INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, size);
+            return;
+        }
+
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for (int i = 0; i < size; i++) {
+            // Flipping the sign bit orders negative keys before positive ones
+            long key = keys[i] ^ Long.MIN_VALUE;
+            for (int b = 0; b < Long.BYTES; b++) {
+                counts[b][(int) (key >>> (b << 3)) & 0xFF]++;
+            }
+        }
+
+        long[] src = keys;
+        long[] dst = new long[size];
+        for (int b = 0; b < Long.BYTES; b++) {
+            int[] offsets = counts[b];
+            if (!toOffsets(offsets, size)) {
+                continue;
+            }
+
+            int shift = b << 3;
+            for (int i = 0; i < size; i++) {
+                long key = src[i];
+                dst[offsets[(int) ((key ^ Long.MIN_VALUE) >>> shift) & 0xFF]++] = key;
+            }
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+        }
+
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, size);
+        }
+    }
+
+    /**
+     * Sorts the first {@code size} keys, given by their most and least significant bits, as unsigned 128 bit numbers.
+     *
+     * @param msb  the most significant bits of the keys to sort.
+     * @param lsb  the least significant bits of the keys to sort.
+     * @param size the number of keys to sort.
+     */
+    static void sort(long[] msb, long[] lsb, int size) {
+        if (size < INSERTION_SORT_THRESHOLD) {
+            insertionSort(msb, lsb, size);
+            return;
+        }
+
+        // Passes 0..7 sort by the bytes of lsb, passes 8..15 by the bytes of msb
+        int[][] counts = new int[2 * Long.BYTES][RADIX];
+        for (int i = 0; i < size; i++) {
+            long hi = msb[i];
+            long lo = lsb[i];
+            for (int b = 0; b < Long.BYTES; b++) {
+                counts[b][(int) (lo >>> (b << 3)) & 0xFF]++;
+                counts[Long.BYTES + b][(int) (hi >>> (b << 3)) & 0xFF]++;
+            }
+        }
+
+        long[] srcHi = msb;
+        long[] srcLo = lsb;
+        long[] dstHi = new long[size];
+        long[] dstLo = new long[size];
+        for (int pass = 0; pass < 2 * Long.BYTES; pass++) {
+            int[] offsets = counts[pass];
+            if (!toOffsets(offsets, size)) {
+                continue;
+            }
+
+            long[] digits = pass < Long.BYTES ? srcLo : srcHi;
+            int shift = (pass % Long.BYTES) << 3;
+            for (int i = 0; i < size; i++) {
+                int position = offsets[(int) (digits[i] >>> shift) & 0xFF]++;
+                dstHi[position] = srcHi[i];
+                dstLo[position] = srcLo[i];
+            }
+            long[] swap = srcHi;
+            srcHi = dstHi;
+            dstHi = swap;
+            swap = srcLo;
+            srcLo = dstLo;
+            dstLo = swap;
+        }
+
+        if (srcHi != msb) {
+            System.arraycopy(srcHi, 0, msb, 0, size);
+            System.arraycopy(srcLo, 0, lsb, 0, size);
+        }
+    }
+
+    /**
+     * Turns the histogram of a pass into the position of the first key of every digit.
+     *
+     * @return false when all keys have the same digit, so the pass can be skipped.
+     */
+    private static boolean toOffsets(int[] counts, int size) {
+        int total = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int count = counts[digit];
+            if (count == size) {
+                return false;
+            }
+            counts[digit] = total;
+            total += count;
+        }
+        return true;
+    }
+
+    private static void insertionSort(long[] keys, int size) {
+        for (int i = 1; i < size; i++) {
+            long key = keys[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            keys[j + 1] = key;
+        }
+    }
+
+    private static void insertionSort(long[] msb, long[] lsb, int size) {
+        for (int i = 1; i < size; i++) {
+            long hi = msb[i];
+            long lo = lsb[i];
+            int j = i - 1;
+            while (j >= 0 && compare(msb[j], lsb[j], hi, lo) > 0) {
+                msb[j + 1] = msb[j];
+                lsb[j + 1] = lsb[j];
+                j--;
+            }
+            msb[j + 1] = hi;
+            lsb[j + 1] = lo;
+        }
+    }
+
+    /**
+     * Compares two unsigned 128 bit numbers.
+     */
+    static int compare(long msb1, long lsb1, long msb2, long lsb2) {
+        int result = Long.compareUnsigned(msb1, msb2);
+        return result != 0 ? result : Long.compareUnsigned(lsb1, lsb2);
+    }
+}
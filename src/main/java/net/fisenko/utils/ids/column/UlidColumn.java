@@ -0,0 +1,328 @@
+package net.fisenko.utils.ids.column;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+import net.fisenko.utils.ids.codec.IdCodec;
+import net.fisenko.utils.ids.ulid.Ulid;
+
+/**
+ * A growable column of {@link Ulid}'s stored as two parallel {@code long} arrays of most and least significant bits, i.e. 16 bytes per {@link Ulid} instead of a reference
+ * to a {@link Ulid} object.
+ * <p>
+ * {@link #sort()} sorts the column with a radix sort, after which {@link #binarySearch(long, long)} and {@link #slice(long, long)} find {@link Ulid}'s and time ranges. The
+ * column keeps track of whether it's sorted, so appending {@link Ulid}'s in increasing order (e.g. from a monotonic generator) keeps it sorted without sorting. To keep
+ * {@link Ulid}'s off-heap, write the column to a direct {@link ByteBuffer} with {@link #writeTo(ByteBuffer)}.
+ * </p>
+ * <p>
+ * A {@link UlidColumn} is not thread-safe.
+ * </p>
+ */
+public class UlidColumn {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private long[] msb;
+    private long[] lsb;
+    private int size;
+    private boolean sorted = true;
+
+    /**
+     * Initializes a new instance of the {@link UlidColumn} class.
+     */
+    public UlidColumn() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Initializes a new instance of the {@link UlidColumn} class.
+     *
+     * @param initialCapacity the number of {@link Ulid}'s the column holds before it grows.
+     * @throws IllegalArgumentException when {@code initialCapacity} is negative.
+     */
+    public UlidColumn(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("'initialCapacity' could not be negative.");
+        }
+
+        this.msb = new long[initialCapacity];
+        this.lsb = new long[initialCapacity];
+    }
+
+    /**
+     * Reads {@code count} {@link Ulid}'s written by {@link #writeTo(ByteBuffer)} or {@link IdCodec#writeUlids(long[], long[], int, int, ByteBuffer)} from {@code src}.
+     *
+     * @param src   the buffer to read from; its position is advanced.
+     * @param count the number of {@link Ulid}'s to read.
+     * @return a new column with the {@link Ulid}'s.
+     * @throws BufferUnderflowException when {@code src} has less than {@code count * 16} bytes remaining.
+     */
+    public static UlidColumn readFrom(ByteBuffer src, int count) {
+        UlidColumn column = new UlidColumn(count);
+        IdCodec.readUlids(src, column.msb, column.lsb, 0, count);
+        column.size = count;
+        column.sorted = column.checkSorted(0);
+        return column;
+    }
+
+    /**
+     * Appends a {@link Ulid}.
+     *
+     * @param ulid the {@link Ulid} to append.
+     * @throws IllegalArgumentException when {@code ulid} is null.
+     */
+    public void add(Ulid ulid) {
+        if (ulid == null) {
+            throw new IllegalArgumentException("'ulid' could not be null.");
+        }
+
+        add(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * Appends a {@link Ulid} given by its most and least significant bits.
+     *
+     * @param mostSignificantBits  the most significant bits of the {@link Ulid}.
+     * @param leastSignificantBits the least significant bits of the {@link Ulid}.
+     */
+    public void add(long mostSignificantBits, long leastSignificantBits) {
+        if (size == msb.length) {
+            grow(size + 1);
+        }
+        if (sorted && size > 0 && RadixSort.compare(msb[size - 1], lsb[size - 1], mostSignificantBits, leastSignificantBits) > 0) {
+            sorted = false;
+        }
+        msb[size] = mostSignificantBits;
+        lsb[size] = leastSignificantBits;
+        size++;
+    }
+
+    /**
+     * Appends {@code len} {@link Ulid}'s given by their most and least significant bits, e.g. as filled by {@link net.fisenko.utils.ids.ulid.UlidIdGenerator#fill(long[],
+     * long[], int, int)}.
+     *
+     * @param mostSignificantBits  the most significant bits of the {@link Ulid}'s.
+     * @param leastSignificantBits the least significant bits of the {@link Ulid}'s.
+     * @param off                  the position of the first {@link Ulid} to append.
+     * @param len                  the number of {@link Ulid}'s to append.
+     */
+    public void addAll(long[] mostSignificantBits, long[] leastSignificantBits, int off, int len) {
+        Objects.checkFromIndexSize(off, len, mostSignificantBits.length);
+        Objects.checkFromIndexSize(off, len, leastSignificantBits.length);
+        if (msb.length - size < len) {
+            grow(size + len);
+        }
+
+        System.arraycopy(mostSignificantBits, off, msb, size, len);
+        System.arraycopy(leastSignificantBits, off, lsb, size, len);
+        int from = Math.max(size - 1, 0);
+        size += len;
+        sorted = sorted && checkSorted(from);
+    }
+
+    /**
+     * Gets the number of {@link Ulid}'s in the column.
+     *
+     * @return the number of {@link Ulid}'s.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets whether the {@link Ulid}'s of the column are in increasing order.
+     *
+     * @return true when the column is sorted.
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Gets the {@link Ulid} at a position; this creates a {@link Ulid} object, use {@link #getMostSignificantBits(int)} and {@link #getLeastSignificantBits(int)} to avoid it.
+     *
+     * @param index the position of the {@link Ulid}.
+     * @return the {@link Ulid}.
+     * @throws IndexOutOfBoundsException when {@code index} is negative or not less than {@link #size()}.
+     */
+    public Ulid get(int index) {
+        Objects.checkIndex(index, size);
+        return new Ulid(msb[index], lsb[index]);
+    }
+
+    /**
+     * Gets the most significant bits of the {@link Ulid} at a position.
+     *
+     * @param index the position of the {@link Ulid}.
+     * @return the most significant bits.
+     * @throws IndexOutOfBoundsException when {@code index} is negative or not less than {@link #size()}.
+     */
+    public long getMostSignificantBits(int index) {
+        Objects.checkIndex(index, size);
+        return msb[index];
+    }
+
+    /**
+     * Gets the least significant bits of the {@link Ulid} at a position.
+     *
+     * @param index the position of the {@link Ulid}.
+     * @return the least significant bits.
+     * @throws IndexOutOfBoundsException when {@code index} is negative or not less than {@link #size()}.
+     */
+    public long getLeastSignificantBits(int index) {
+        Objects.checkIndex(index, size);
+        return lsb[index];
+    }
+
+    /**
+     * Gets the time part of the {@link Ulid} at a position.
+     *
+     * @param index the position of the {@link Ulid}.
+     * @return milliseconds since the Unix epoch.
+     * @throws IndexOutOfBoundsException when {@code index} is negative or not less than {@link #size()}.
+     */
+    public long getEpochMillis(int index) {
+        return getMostSignificantBits(index) >>> 16;
+    }
+
+    /**
+     * Sorts the {@link Ulid}'s in increasing order with a least significant digit radix sort; sorting takes a temporary copy of the column.
+     */
+    public void sort() {
+        if (!sorted) {
+            RadixSort.sort(msb, lsb, size);
+            sorted = true;
+        }
+    }
+
+    /**
+     * Searches a sorted column for a {@link Ulid}.
+     *
+     * @param ulid the {@link Ulid} to search for.
+     * @return the position of the {@link Ulid}, or {@code -(insertion point) - 1} when the column doesn't contain it; like {@link Arrays#binarySearch(long[], long)}.
+     * @throws IllegalArgumentException when {@code ulid} is null.
+     * @throws IllegalStateException    when the column is not sorted.
+     */
+    public int binarySearch(Ulid ulid) {
+        if (ulid == null) {
+            throw new IllegalArgumentException("'ulid' could not be null.");
+        }
+
+        return binarySearch(ulid.getMostSignificantBits(), ulid.getLeastSignificantBits());
+    }
+
+    /**
+     * Searches a sorted column for a {@link Ulid} given by its most and least significant bits.
+     *
+     * @param mostSignificantBits  the most significant bits of the {@link Ulid}.
+     * @param leastSignificantBits the least significant bits of the {@link Ulid}.
+     * @return the position of the {@link Ulid}, or {@code -(insertion point) - 1} when the column doesn't contain it; like {@link Arrays#binarySearch(long[], long)}.
+     * @throws IllegalStateException when the column is not sorted.
+     */
+    public int binarySearch(long mostSignificantBits, long leastSignificantBits) {
+        requireSorted();
+
+        int index = lowerBound(mostSignificantBits, leastSignificantBits);
+        if (index < size && msb[index] == mostSignificantBits && lsb[index] == leastSignificantBits) {
+            return index;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * Gets the {@link Ulid}'s of a sorted column generated between two points in time (inclusive) as a new column.
+     *
+     * @param fromEpochMillis the first millisecond since the Unix epoch.
+     * @param toEpochMillis   the last millisecond since the Unix epoch.
+     * @return a sorted column with the {@link Ulid}'s between {@link Ulid#minAt(long)} of {@code fromEpochMillis} and {@link Ulid#maxAt(long)} of {@code toEpochMillis}.
+     * @throws IllegalStateException when the column is not sorted.
+     */
+    public UlidColumn slice(long fromEpochMillis, long toEpochMillis) {
+        requireSorted();
+
+        UlidColumn slice = new UlidColumn(0);
+        if (fromEpochMillis > toEpochMillis || toEpochMillis < 0 || fromEpochMillis > Ulid.MAX_EPOCH_MILLIS) {
+            return slice;
+        }
+
+        Ulid first = Ulid.minAt(Math.max(fromEpochMillis, 0));
+        Ulid last = Ulid.maxAt(Math.min(toEpochMillis, Ulid.MAX_EPOCH_MILLIS));
+        int from = lowerBound(first.getMostSignificantBits(), first.getLeastSignificantBits());
+        int to = upperBound(last.getMostSignificantBits(), last.getLeastSignificantBits());
+        slice.msb = Arrays.copyOfRange(msb, from, to);
+        slice.lsb = Arrays.copyOfRange(lsb, from, to);
+        slice.size = to - from;
+        return slice;
+    }
+
+    /**
+     * Writes the {@link Ulid}'s to a heap or direct buffer in the layout of {@link IdCodec}: 16 bytes per {@link Ulid}, big-endian.
+     *
+     * @param dst the buffer to write to; its position is advanced.
+     * @throws BufferOverflowException when {@code dst} has less than {@code size() * 16} bytes remaining.
+     */
+    public void writeTo(ByteBuffer dst) {
+        IdCodec.writeUlids(msb, lsb, 0, size, dst);
+    }
+
+    /**
+     * Removes all {@link Ulid}'s; the capacity is kept.
+     */
+    public void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    private void grow(int minCapacity) {
+        int capacity = Math.max(minCapacity, msb.length + (msb.length >> 1));
+        msb = Arrays.copyOf(msb, capacity);
+        lsb = Arrays.copyOf(lsb, capacity);
+    }
+
+    private void requireSorted() {
+        if (!sorted) {
+            throw new IllegalStateException("The column is not sorted.");
+        }
+    }
+
+    private boolean checkSorted(int from) {
+        for (int i = from + 1; i < size; i++) {
+            if (RadixSort.compare(msb[i - 1], lsb[i - 1], msb[i], lsb[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The first position whose Ulid is not less than the key
+    private int lowerBound(long keyMsb, long keyLsb) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (RadixSort.compare(msb[middle], lsb[middle], keyMsb, keyLsb) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // The first position whose Ulid is greater than the key
+    private int upperBound(long keyMsb, long keyLsb) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (RadixSort.compare(msb[middle], lsb[middle], keyMsb, keyLsb) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
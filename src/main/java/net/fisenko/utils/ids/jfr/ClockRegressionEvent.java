@@ -0,0 +1,31 @@
+package net.fisenko.utils.ids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Recorded when a generator reads a clock that moved backwards. A Snowflake generator throws an {@link net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException};
+ * a monotonic ULID random keeps incrementing the last value. The event is instant.
+ */
+@Name("net.fisenko.utils.ids.ClockRegression")
+@Label("Clock Regression")
+@Description("A generator read a clock that moved backwards")
+@Category("ID Generators")
+@Enabled(false)
+public class ClockRegressionEvent extends jdk.jfr.Event {
+
+    @Label("Generator Id")
+    @Description("The generator-id of a Snowflake generator, -1 for ULID's")
+    public int generatorId;
+
+    @Label("Tick")
+    @Description("The tick read from the clock; milliseconds since the Unix epoch for ULID's")
+    public long tick;
+
+    @Label("Last Tick")
+    @Description("The tick of the last Id generated; milliseconds since the Unix epoch for ULID's")
+    public long lastTick;
+}
@@ -0,0 +1,48 @@
+package net.fisenko.utils.ids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Recorded when a thread waited for the lock of a generator for longer than the threshold (by default 1 ms). The duration is the time from asking for the lock until holding
+ * it.
+ */
+@Name("net.fisenko.utils.ids.LockWait")
+@Label("Generator Lock Wait")
+@Description("A thread waited for the lock of a generator")
+@Category("ID Generators")
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public class LockWaitEvent extends jdk.jfr.Event {
+
+    private static final EventType TYPE = EventType.getEventType(LockWaitEvent.class);
+
+    @Label("Generator Id")
+    @Description("The generator-id of a Snowflake generator, -1 for ULID's")
+    public int generatorId;
+
+    @Label("Tick")
+    @Description("The tick read once the lock was held; milliseconds since the Unix epoch for ULID's")
+    public long tick;
+
+    /**
+     * Starts timing a lock wait. Generators take a lock on every call, so no event is allocated while no recording has the event enabled.
+     *
+     * @return the started event, or null when the event is disabled.
+     */
+    public static LockWaitEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        LockWaitEvent event = new LockWaitEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,46 @@
+package net.fisenko.utils.ids.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Recorded when a generator runs out of sequence numbers. For a Snowflake generator the duration is the time spent waiting for the next tick; for a monotonic ULID random,
+ * whose random part can't be extended, the event is instant.
+ */
+@Name("net.fisenko.utils.ids.SequenceOverflow")
+@Label("Sequence Overflow")
+@Description("A generator ran out of sequence numbers for the current tick")
+@Category("ID Generators")
+@Enabled(false)
+@StackTrace(false)
+public class SequenceOverflowEvent extends jdk.jfr.Event {
+
+    private static final EventType TYPE = EventType.getEventType(SequenceOverflowEvent.class);
+
+    @Label("Generator Id")
+    @Description("The generator-id of a Snowflake generator, -1 for ULID's")
+    public int generatorId;
+
+    @Label("Tick")
+    @Description("The exhausted tick; milliseconds since the Unix epoch for ULID's")
+    public long tick;
+
+    /**
+     * Starts timing a wait for the next tick. Every overflow of a busy generator waits, so no event is allocated while no recording has the event enabled.
+     *
+     * @return the started event, or null when the event is disabled.
+     */
+    public static SequenceOverflowEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        SequenceOverflowEvent event = new SequenceOverflowEvent();
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,44 @@
+package net.fisenko.utils.ids.metrics;
+
+/**
+ * Provides the interface for counters of what a generator is doing. Generators call the {@code record...} methods on their hot path, so implementations must be cheap and
+ * thread-safe; {@link #snapshot()} reads the counters.
+ */
+public interface GeneratorMetrics {
+
+    /**
+     * Counts Id's handed out.
+     *
+     * @param count the number of Id's.
+     */
+    void recordIssued(int count);
+
+    /**
+     * Counts a request that found the sequence of the current tick exhausted.
+     */
+    void recordSequenceOverflow();
+
+    /**
+     * Counts a request rejected because the clock moved backwards.
+     */
+    void recordClockRegression();
+
+    /**
+     * Adds time spent waiting for the next tick after the sequence overflowed.
+     *
+     * @param nanos the time waited, in nanoseconds.
+     */
+    void recordTickWait(long nanos);
+
+    /**
+     * Counts a retry after another thread changed the generator's state first, e.g. a failed compare-and-set, or a wait for a lock another thread holds.
+     */
+    void recordContention();
+
+    /**
+     * Reads the counters.
+     *
+     * @return Returns the current values of the counters.
+     */
+    GeneratorMetricsSnapshot snapshot();
+}
@@ -0,0 +1,43 @@
+package net.fisenko.utils.ids.metrics;
+
+/**
+ * Exposes the counters of a {@link GeneratorMetrics} through JMX, e.g. to JConsole or a JMX exporter. The values are read on every call, so each attribute is current but
+ * the attributes are not read at the same instant; use {@link GeneratorMetrics#snapshot()} to read them together.
+ */
+public interface GeneratorMetricsMXBean {
+
+    /**
+     * Gets the number of Id's handed out.
+     *
+     * @return Returns the number of Id's.
+     */
+    long getIssued();
+
+    /**
+     * Gets the number of requests that found the sequence of the current tick exhausted.
+     *
+     * @return Returns the number of overflows.
+     */
+    long getSequenceOverflows();
+
+    /**
+     * Gets the number of requests rejected because the clock moved backwards.
+     *
+     * @return Returns the number of rejections.
+     */
+    long getClockRegressions();
+
+    /**
+     * Gets the time spent waiting for the next tick after the sequence overflowed.
+     *
+     * @return Returns the time in nanoseconds.
+     */
+    long getTickWaitNanos();
+
+    /**
+     * Gets the number of retries after another thread changed the generator's state first.
+     *
+     * @return Returns the number of retries.
+     */
+    long getContentionRetries();
+}
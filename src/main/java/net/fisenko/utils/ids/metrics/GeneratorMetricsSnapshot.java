@@ -0,0 +1,107 @@
+package net.fisenko.utils.ids.metrics;
+
+/**
+ * Holds the values of the counters of a {@link GeneratorMetrics} at one point in time. The counters only grow, so the difference of two snapshots ({@link #minus}) gives the
+ * activity between them.
+ */
+public final class GeneratorMetricsSnapshot {
+
+    /**
+     * Gets a snapshot with all counters at zero.
+     */
+    public static final GeneratorMetricsSnapshot EMPTY = new GeneratorMetricsSnapshot(0, 0, 0, 0, 0);
+
+    private final long issued;
+    private final long sequenceOverflows;
+    private final long clockRegressions;
+    private final long tickWaitNanos;
+    private final long contentionRetries;
+
+    /**
+     * Initializes a new instance of the {@link GeneratorMetricsSnapshot} class.
+     *
+     * @param issued            the number of Id's handed out.
+     * @param sequenceOverflows the number of requests that found the sequence of the current tick exhausted.
+     * @param clockRegressions  the number of requests rejected because the clock moved backwards.
+     * @param tickWaitNanos     the time spent waiting for the next tick, in nanoseconds.
+     * @param contentionRetries the number of retries after another thread changed the generator's state first.
+     */
+    public GeneratorMetricsSnapshot(long issued, long sequenceOverflows, long clockRegressions, long tickWaitNanos, long contentionRetries) {
+        this.issued = issued;
+        this.sequenceOverflows = sequenceOverflows;
+        this.clockRegressions = clockRegressions;
+        this.tickWaitNanos = tickWaitNanos;
+        this.contentionRetries = contentionRetries;
+    }
+
+    /**
+     * Gets the number of Id's handed out.
+     *
+     * @return Returns the number of Id's.
+     */
+    public long getIssued() {
+        return issued;
+    }
+
+    /**
+     * Gets the number of requests that found the sequence of the current tick exhausted.
+     *
+     * @return Returns the number of overflows.
+     */
+    public long getSequenceOverflows() {
+        return sequenceOverflows;
+    }
+
+    /**
+     * Gets the number of requests rejected because the clock moved backwards.
+     *
+     * @return Returns the number of rejections.
+     */
+    public long getClockRegressions() {
+        return clockRegressions;
+    }
+
+    /**
+     * Gets the time spent waiting for the next tick after the sequence overflowed.
+     *
+     * @return Returns the time in nanoseconds.
+     */
+    public long getTickWaitNanos() {
+        return tickWaitNanos;
+    }
+
+    /**
+     * Gets the number of retries after another thread changed the generator's state first.
+     *
+     * @return Returns the number of retries.
+     */
+    public long getContentionRetries() {
+        return contentionRetries;
+    }
+
+    /**
+     * Subtracts an earlier snapshot of the same {@link GeneratorMetrics}.
+     *
+     * @param earlier the earlier snapshot.
+     * @return Returns the activity between the two snapshots.
+     * @throws IllegalArgumentException Thrown when {@code earlier} is null.
+     */
+    public GeneratorMetricsSnapshot minus(GeneratorMetricsSnapshot earlier) {
+        if (earlier == null) {
+            throw new IllegalArgumentException("'earlier' could not be null.");
+        }
+
+        return new GeneratorMetricsSnapshot(
+                issued - earlier.issued,
+                sequenceOverflows - earlier.sequenceOverflows,
+                clockRegressions - earlier.clockRegressions,
+                tickWaitNanos - earlier.tickWaitNanos,
+                contentionRetries - earlier.contentionRetries);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GeneratorMetricsSnapshot{issued=%d, sequenceOverflows=%d, clockRegressions=%d, tickWaitNanos=%d, contentionRetries=%d}",
+                issued, sequenceOverflows, clockRegressions, tickWaitNanos, contentionRetries);
+    }
+}
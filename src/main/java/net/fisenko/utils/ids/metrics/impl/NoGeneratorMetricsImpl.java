@@ -0,0 +1,35 @@
+package net.fisenko.utils.ids.metrics.impl;
+
+import net.fisenko.utils.ids.metrics.GeneratorMetrics;
+import net.fisenko.utils.ids.metrics.GeneratorMetricsSnapshot;
+
+/**
+ * {@link GeneratorMetrics} that doesn't count anything; the default of generators. The calls compile away once they're inlined.
+ */
+public class NoGeneratorMetricsImpl implements GeneratorMetrics {
+
+    @Override
+    public void recordIssued(int count) {
+    }
+
+    @Override
+    public void recordSequenceOverflow() {
+    }
+
+    @Override
+    public void recordClockRegression() {
+    }
+
+    @Override
+    public void recordTickWait(long nanos) {
+    }
+
+    @Override
+    public void recordContention() {
+    }
+
+    @Override
+    public GeneratorMetricsSnapshot snapshot() {
+        return GeneratorMetricsSnapshot.EMPTY;
+    }
+}
@@ -0,0 +1,189 @@
+package net.fisenko.utils.ids.metrics.impl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import net.fisenko.utils.ids.metrics.GeneratorMetrics;
+import net.fisenko.utils.ids.metrics.GeneratorMetricsMXBean;
+import net.fisenko.utils.ids.metrics.GeneratorMetricsSnapshot;
+
+/**
+ * {@link GeneratorMetrics} backed by {@link LongAdder}'s. A {@link LongAdder} adds to a single cell until threads collide on it and only then spreads over more cells, so
+ * counting doesn't become a point of contention of its own; reading sums the cells.
+ * <p>
+ * Issued Id's are counted on every call, where even the uncontended compare-and-set of a {@link LongAdder} shows. They're counted in cells owned by a single thread instead,
+ * found by the thread's id, so counting is a plain store. A thread whose cell is taken by another live thread counts in a {@link LongAdder}; the cell of a thread that has ended
+ * is taken over by the next thread that maps to it.
+ * </p>
+ * <p>
+ * {@link #register(String)} exposes the counters as a {@link GeneratorMetricsMXBean} on the platform MBean server.
+ * </p>
+ */
+public class StripedGeneratorMetricsImpl implements GeneratorMetrics, GeneratorMetricsMXBean {
+
+    /**
+     * The JMX domain the counters are registered under.
+     */
+    public static final String DOMAIN = "net.fisenko.utils.ids";
+
+    // The number of cells for issued Id's: a power of two, with at least four per processor so that few threads map to the same cell
+    private static final int ISSUED_CELLS = Math.max(Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 8, 16);
+
+    private final AtomicReferenceArray<IssuedCell> issuedCells = new AtomicReferenceArray<>(ISSUED_CELLS);
+    // Id's of threads without a cell
+    private final LongAdder issued = new LongAdder();
+    private final LongAdder sequenceOverflows = new LongAdder();
+    private final LongAdder clockRegressions = new LongAdder();
+    private final LongAdder tickWaitNanos = new LongAdder();
+    private final LongAdder contentionRetries = new LongAdder();
+    private ObjectName objectName;
+
+    @Override
+    public void recordIssued(int count) {
+        Thread thread = Thread.currentThread();
+        int index = (int) thread.getId() & (ISSUED_CELLS - 1);
+        IssuedCell cell = issuedCells.get(index);
+        if (cell != null && cell.owner.get() == thread) {
+            // Only the owner writes the cell; readers only need to see the count eventually
+            cell.lazySet(cell.get() + count);
+            return;
+        }
+
+        if (cell == null || isEnded(cell.owner.get())) {
+            // The ended owner no longer writes its cell, so its count moves into the new cell in the same step and readers never see it missing
+            IssuedCell mine = new IssuedCell(thread, cell == null ? count : cell.get() + count);
+            if (issuedCells.compareAndSet(index, cell, mine)) {
+                return;
+            }
+        }
+        issued.add(count);
+    }
+
+    @Override
+    public void recordSequenceOverflow() {
+        sequenceOverflows.increment();
+    }
+
+    @Override
+    public void recordClockRegression() {
+        clockRegressions.increment();
+    }
+
+    @Override
+    public void recordTickWait(long nanos) {
+        tickWaitNanos.add(nanos);
+    }
+
+    @Override
+    public void recordContention() {
+        contentionRetries.increment();
+    }
+
+    @Override
+    public GeneratorMetricsSnapshot snapshot() {
+        return new GeneratorMetricsSnapshot(getIssued(), sequenceOverflows.sum(), clockRegressions.sum(), tickWaitNanos.sum(), contentionRetries.sum());
+    }
+
+    @Override
+    public long getIssued() {
+        long sum = issued.sum();
+        for (int i = 0; i < ISSUED_CELLS; i++) {
+            IssuedCell cell = issuedCells.get(i);
+            if (cell != null) {
+                sum += cell.get();
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public long getSequenceOverflows() {
+        return sequenceOverflows.sum();
+    }
+
+    @Override
+    public long getClockRegressions() {
+        return clockRegressions.sum();
+    }
+
+    @Override
+    public long getTickWaitNanos() {
+        return tickWaitNanos.sum();
+    }
+
+    @Override
+    public long getContentionRetries() {
+        return contentionRetries.sum();
+    }
+
+    /**
+     * Registers the counters on the platform MBean server as {@code net.fisenko.utils.ids:type=Generator,name=<name>}.
+     *
+     * @param name the name of the generator, unique within the JVM.
+     * @return Returns the name the counters are registered under.
+     * @throws IllegalArgumentException Thrown when {@code name} is null, or is not a valid {@link ObjectName} value.
+     * @throws IllegalStateException    Thrown when the counters are registered already, or the name is taken.
+     */
+    public synchronized ObjectName register(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("'name' could not be null.");
+        }
+
+        if (objectName != null) {
+            throw new IllegalStateException("The metrics are registered as " + objectName + " already.");
+        }
+
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=Generator,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            this.objectName = objectName;
+            return objectName;
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException("'name' is not a valid object name.", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("The metrics could not be registered.", e);
+        }
+    }
+
+    /**
+     * Removes the counters from the platform MBean server; does nothing when they aren't registered.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.unregisterMBean(objectName);
+        } catch (JMException e) {
+            // Unregistered by someone else
+        }
+        objectName = null;
+    }
+
+    private static boolean isEnded(Thread owner) {
+        return owner == null || !owner.isAlive();
+    }
+
+    /**
+     * The number of Id's issued by a single thread. The owner is only weakly referenced, so an ended thread isn't kept reachable until its cell is taken over.
+     */
+    private static final class IssuedCell extends AtomicLong {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient WeakReference<Thread> owner;
+
+        private IssuedCell(Thread owner, long count) {
+            super(count);
+            this.owner = new WeakReference<>(owner);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package net.fisenko.utils.ids.prefetch;
+
+import java.util.concurrent.locks.LockSupport;
+import net.fisenko.utils.ids.IdGenerator;
+
+/**
+ * Decorates an {@link IdGenerator} with a background producer thread that keeps a bounded ring buffer of Id's topped up, so {@link #next()} usually just takes an Id from the
+ * buffer and never pays for clock reads, locks or sequence overflows.
+ * <p>
+ * The producer fills the buffer up to the high watermark and then sleeps until consumers have drained it down to the low watermark. When the buffer is empty (or the producer isn't
+ * running) {@link #next()} falls back to the decorated generator. Id's taken from the buffer were generated earlier than Id's generated directly, so Id's returned by consecutive
+ * calls are unique but not necessarily increasing. The decorated generator must be thread-safe.
+ * </p>
+ *
+ * @param <T> the type for the generated Id's.
+ */
+public class PrefetchingIdGenerator<T> implements IdGenerator<T>, AutoCloseable {
+
+    // Maximum time the producer sleeps before it checks the buffer again, in case a wake-up got lost
+    private static final long MAX_PARK_NANOS = 1_000_000;
+    // Time the producer backs off after the decorated generator failed, e.g. because of a sequence overflow
+    private static final long BACKOFF_NANOS = 50_000;
+    private final IdGenerator<T> generator;
+    private final SpmcRingBuffer<T> buffer;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private volatile boolean running;
+    private volatile boolean sleeping;
+    private Thread producer;
+
+    /**
+     * Initializes a new instance of the {@link PrefetchingIdGenerator} class that refills the buffer when it is down to a quarter of its capacity.
+     *
+     * @param generator the {@link IdGenerator} to prefetch Id's from.
+     * @param capacity  the number of Id's the buffer can hold; rounded up to a power of two.
+     * @throws IllegalArgumentException Thrown when {@code generator} is null or {@code capacity} is not positive.
+     */
+    public PrefetchingIdGenerator(IdGenerator<T> generator, int capacity) {
+        this(generator, capacity, capacity / 4, capacity);
+    }
+
+    /**
+     * Initializes a new instance of the {@link PrefetchingIdGenerator} class.
+     *
+     * @param generator     the {@link IdGenerator} to prefetch Id's from.
+     * @param capacity      the number of Id's the buffer can hold; rounded up to a power of two.
+     * @param lowWatermark  the number of buffered Id's at (or below) which the producer starts refilling the buffer.
+     * @param highWatermark the number of buffered Id's at which the producer stops refilling the buffer.
+     * @throws IllegalArgumentException Thrown when {@code generator} is null, {@code capacity} is not positive or not {@code 0 <= lowWatermark < highWatermark <= capacity}.
+     */
+    public PrefetchingIdGenerator(IdGenerator<T> generator, int capacity, int lowWatermark, int highWatermark) {
+        if (generator == null) {
+            throw new IllegalArgumentException("'generator' could not be null.");
+        }
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("'capacity' must be between 1 and 2^30.");
+        }
+        if (lowWatermark < 0 || lowWatermark >= highWatermark || highWatermark > capacity) {
+            throw new IllegalArgumentException("Watermarks must satisfy 0 <= lowWatermark < highWatermark <= capacity.");
+        }
+
+        this.generator = generator;
+        this.buffer = new SpmcRingBuffer<>(capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+    }
+
+    /**
+     * Starts the producer thread.
+     *
+     * @return Returns this generator.
+     * @throws IllegalStateException Thrown when the producer has already been started.
+     */
+    public synchronized PrefetchingIdGenerator<T> start() {
+        if (producer != null) {
+            throw new IllegalStateException("The producer has already been started.");
+        }
+
+        running = true;
+        producer = new Thread(this::produce, "id-prefetcher");
+        producer.setDaemon(true);
+        producer.start();
+        return this;
+    }
+
+    /**
+     * Stops the producer thread; Id's left in the buffer are still handed out before falling back to the decorated generator.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (producer != null) {
+            LockSupport.unpark(producer);
+        }
+    }
+
+    /**
+     * Takes an Id from the buffer, or creates one with the decorated generator when the buffer is empty.
+     *
+     * @return a new Id
+     * @throws Exception Thrown when the buffer is empty and the decorated generator fails.
+     */
+    @Override
+    public T next() throws Exception {
+        T id = buffer.poll();
+        if (id == null) {
+            wakeProducer();
+            return generator.next();
+        }
+        if (sleeping && buffer.size() <= lowWatermark) {
+            wakeProducer();
+        }
+        return id;
+    }
+
+    /**
+     * Gets the number of Id's currently in the buffer.
+     *
+     * @return Returns the number of Id's.
+     */
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    private void wakeProducer() {
+        Thread thread = producer;
+        if (sleeping && thread != null) {
+            sleeping = false;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void produce() {
+        while (running) {
+            // Sleep until the buffer is drained down to the low watermark, not merely below the high one
+            if (buffer.size() > lowWatermark) {
+                sleeping = true;
+                // Check again after announcing that we sleep so a consumer draining the buffer in between doesn't go unnoticed
+                if (buffer.size() > lowWatermark) {
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                }
+                sleeping = false;
+                continue;
+            }
+
+            while (running && buffer.size() < highWatermark) {
+                T id;
+                try {
+                    id = generator.next();
+                } catch (Exception e) {
+                    LockSupport.parkNanos(this, BACKOFF_NANOS);
+                    break;
+                }
+                buffer.offer(id);
+            }
+        }
+    }
+}
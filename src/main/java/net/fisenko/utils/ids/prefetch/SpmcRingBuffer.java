@@ -0,0 +1,89 @@
+package net.fisenko.utils.ids.prefetch;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded, preallocated, lock-free ring buffer for a single producer and multiple consumers.
+ * <p>
+ * The producer writes a slot and then publishes it by moving the tail; consumers read the slot at the head and claim it by moving the head with compare-and-set. The producer never
+ * writes a slot before every consumer has moved past it, so a consumer that reads a slot and wins the compare-and-set always gets the value that was published in it.
+ * </p>
+ *
+ * @param <T> the type of the elements.
+ */
+final class SpmcRingBuffer<T> {
+
+    // Distance between the head and the tail, in longs (128 bytes), so they don't share a cache line
+    private static final int PADDING = 16;
+    private static final int HEAD = PADDING;
+    private static final int TAIL = 2 * PADDING;
+    private final Object[] slots;
+    private final int mask;
+    private final AtomicLongArray cursors = new AtomicLongArray(3 * PADDING);
+
+    /**
+     * Initializes a new instance of the {@link SpmcRingBuffer} class.
+     *
+     * @param capacity the capacity of the buffer; must be a power of two.
+     */
+    SpmcRingBuffer(int capacity) {
+        this.slots = new Object[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Gets the capacity of the buffer.
+     *
+     * @return Returns the capacity.
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Gets the number of elements in the buffer; the value is a snapshot and may be stale by the time it is used.
+     *
+     * @return Returns the number of elements.
+     */
+    int size() {
+        long head = cursors.get(HEAD);
+        long tail = cursors.get(TAIL);
+        return (int) Math.max(0, tail - head);
+    }
+
+    /**
+     * Adds an element to the buffer; must only be called by the producer.
+     *
+     * @param value the element to add.
+     * @return Returns false when the buffer is full.
+     */
+    boolean offer(T value) {
+        long tail = cursors.get(TAIL);
+        if (tail - cursors.get(HEAD) >= slots.length) {
+            return false;
+        }
+        slots[(int) (tail & mask)] = value;
+        // Publish the slot
+        cursors.lazySet(TAIL, tail + 1);
+        return true;
+    }
+
+    /**
+     * Removes the oldest element of the buffer.
+     *
+     * @return Returns the element, or null when the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        while (true) {
+            long head = cursors.get(HEAD);
+            if (head >= cursors.get(TAIL)) {
+                return null;
+            }
+            Object value = slots[(int) (head & mask)];
+            if (cursors.compareAndSet(HEAD, head, head + 1)) {
+                return (T) value;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.fisenko.utils.ids.snowflake;
+
+/**
+ * Holds a contiguous range of Id's reserved by a {@link SnowflakeIdGenerator} within a single tick.
+ */
+public final class IdRange {
+
+    private final long first;
+    private final int count;
+
+    /**
+     * Initializes a new instance of the {@link IdRange} class.
+     *
+     * @param first the first Id of the range.
+     * @param count the number of Id's in the range.
+     * @throws IllegalArgumentException Thrown when {@code count} is not positive.
+     */
+    public IdRange(long first, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("'count' must be positive.");
+        }
+        this.first = first;
+        this.count = count;
+    }
+
+    /**
+     * Gets the first Id of the range.
+     *
+     * @return Returns the first Id.
+     */
+    public long getFirst() {
+        return first;
+    }
+
+    /**
+     * Gets the last Id of the range (inclusive).
+     *
+     * @return Returns the last Id.
+     */
+    public long getLast() {
+        return first + count - 1;
+    }
+
+    /**
+     * Gets the number of Id's in the range.
+     *
+     * @return Returns the number of Id's.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the Id at the specified position of the range.
+     *
+     * @param index the zero-based position of the Id.
+     * @return Returns the Id.
+     * @throws IndexOutOfBoundsException Thrown when {@code index} is outside of the range.
+     */
+    public long get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException(String.format("Index %d is out of range [0, %d).", index, count));
+        }
+        return first + index;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(first) + count;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof IdRange) {
+            IdRange other = (IdRange) obj;
+            return first == other.first && count == other.count;
+        }
+
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%d..%d]", first, getLast());
+    }
+}
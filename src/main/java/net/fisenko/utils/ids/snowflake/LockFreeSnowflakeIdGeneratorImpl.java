@@ -0,0 +1,131 @@
+package net.fisenko.utils.ids.snowflake;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+
+/**
+ * Generates Id's inspired by Twitter's (late) Snowflake project without taking a lock.
+ * <p>
+ * The last "timeslot" and the last sequence number are packed into a single state word ({@code timestamp << sequenceBits | sequence}) which is advanced with compare-and-set;
+ * callers that lose the race simply retry. The generated Id's have exactly the same layout as the ones created by {@link SnowflakeIdGeneratorImpl} and the same checks for clocks
+ * running backwards and sequence overflows apply.
+ * </p>
+ */
+public class LockFreeSnowflakeIdGeneratorImpl extends SnowflakeIdGeneratorBase {
+
+    // Packed "timeslot" and sequence of the last generated Id, -1 when no Id has been generated yet
+    private final State state = new State();
+
+    /**
+     * Initializes a new instance of the {@link LockFreeSnowflakeIdGeneratorImpl} class, 2015-01-01 0:00:00Z is used as default epoch and the {@link
+     * MaskConfig#Default} value is used for the {@link MaskConfig}. The {@link NanoTimeSourceImpl} is used to retrieve timestamp information.
+     *
+     * @param generatorId The Id of the generator.
+     * @throws IllegalArgumentException Thrown when either maskConfig, or timeSource is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks are >31
+     *                                  bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    public LockFreeSnowflakeIdGeneratorImpl(int generatorId) {
+        this(generatorId, DefaultEpoch);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LockFreeSnowflakeIdGeneratorImpl} class. The {@link MaskConfig#Default} value is used for the {@link
+     * MaskConfig}. The {@link NanoTimeSourceImpl} is used to retrieve timestamp information.
+     *
+     * @param generatorId The Id of the generator.
+     * @param epoch       The Epoch of the generator.
+     * @throws IllegalArgumentException Thrown when either maskConfig, or timeSource is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks are >31
+     *                                  bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    public LockFreeSnowflakeIdGeneratorImpl(int generatorId, OffsetDateTime epoch) {
+        this(generatorId, epoch, MaskConfig.Default);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LockFreeSnowflakeIdGeneratorImpl} class. The {@link NanoTimeSourceImpl} is used to retrieve timestamp
+     * information.
+     *
+     * @param generatorId The Id of the generator.
+     * @param maskConfig  The {@link MaskConfig} of the generator.
+     * @throws IllegalArgumentException Thrown when either maskConfig, or timeSource is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks are >31
+     *                                  bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    public LockFreeSnowflakeIdGeneratorImpl(int generatorId, MaskConfig maskConfig) {
+        this(generatorId, maskConfig, new NanoTimeSourceImpl(DefaultEpoch));
+    }
+
+    /**
+     * Initializes a new instance of the {@link LockFreeSnowflakeIdGeneratorImpl} class. The {@link NanoTimeSourceImpl} is used to retrieve timestamp
+     * information.
+     *
+     * @param generatorId The Id of the generator.
+     * @param epoch       The epoch of the generator.
+     * @param maskConfig  The {@link MaskConfig} of the generator.
+     * @throws IllegalArgumentException Thrown when either maskConfig, or timeSource is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks are >31
+     *                                  bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    public LockFreeSnowflakeIdGeneratorImpl(int generatorId, OffsetDateTime epoch, MaskConfig maskConfig) {
+        this(generatorId, maskConfig, new NanoTimeSourceImpl(epoch));
+    }
+
+    /**
+     * Initializes a new instance of the {@link LockFreeSnowflakeIdGeneratorImpl} class.
+     *
+     * @param generatorId The Id of the generator.
+     * @param timeSource  The time-source to use when acquiring time data.
+     * @throws IllegalArgumentException Thrown when either maskConfig, or timeSource is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks are >31
+     *                                  bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    public LockFreeSnowflakeIdGeneratorImpl(int generatorId, TimeSource timeSource) {
+        this(generatorId, MaskConfig.Default, timeSource);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LockFreeSnowflakeIdGeneratorImpl} class.
+     *
+     * @param generatorId The Id of the generator.
+     * @param maskConfig  The {@link MaskConfig} of the generator.
+     * @param timeSource  The time-source to use when acquiring time data.
+     * @throws IllegalArgumentException Thrown when either maskConfig, or timeSource is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks are >31
+     *                                  bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    public LockFreeSnowflakeIdGeneratorImpl(int generatorId, MaskConfig maskConfig, TimeSource timeSource) {
+        this(generatorId, maskConfig, timeSource, GeneratorOptions.Default);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LockFreeSnowflakeIdGeneratorImpl} class.
+     *
+     * @param generatorId The Id of the generator.
+     * @param maskConfig  The {@link MaskConfig} of the generator.
+     * @param timeSource  The time-source to use when acquiring time data.
+     * @param options     The {@link GeneratorOptions} of the generator.
+     * @throws IllegalArgumentException Thrown when either maskConfig, timeSource or options is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks
+     *                                  are >31 bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    public LockFreeSnowflakeIdGeneratorImpl(int generatorId, MaskConfig maskConfig, TimeSource timeSource, GeneratorOptions options) {
+        super(generatorId, maskConfig, timeSource, options);
+    }
+
+    @Override
+    protected long claim(int count) throws InvalidSystemClockException {
+        return claim(state, count);
+    }
+
+    /**
+     * The state word, in an {@link AtomicLong}.
+     */
+    private static final class State extends AtomicLong implements PackedState {
+
+        private static final long serialVersionUID = 1L;
+
+        private State() {
+            super(-1);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package net.fisenko.utils.ids.snowflake;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import net.fisenko.utils.ids.utils.Time;
+
+/**
+ * Decodes Snowflake Id's into their parts without allocating. The decoder is bound to the {@link MaskConfig} and the {@link TimeSource} (epoch and tick duration) the Id's were
+ * generated with; decoding Id's of a different configuration gives meaningless results.
+ * <p>
+ * {@link #decode(long[], long[], int[], int[])} decodes arrays of Id's into columns of parts, splitting large arrays over the {@link ForkJoinPool#commonPool()}.
+ * </p>
+ * <p>
+ * Since Id's are ordered by time, {@link #minIdAt(long)} and {@link #maxIdAt(long)} turn a time window into a range of Id's, e.g. for a primary-key range scan instead of a
+ * lookup through a timestamp index.
+ * </p>
+ */
+public class SnowflakeIdDecoder {
+
+    /**
+     * The number of Id's from which on {@link #decode(long[], long[], int[], int[])} decodes in parallel, and the size of the chunks it decodes sequentially.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final long NANOS_PER_MILLI = 1_000_000;
+
+    private final long MASK_SEQUENCE;
+    private final long MASK_TIME;
+    private final long MASK_GENERATOR;
+    private final int SHIFT_TIME;
+    private final int SHIFT_GENERATOR;
+    private final long epochMillis;
+    private final long tickNanos;
+    // The tick duration in whole milliseconds, or 0 when ticks are not a whole number of milliseconds
+    private final long tickMillis;
+
+    /**
+     * Initializes a new instance of the {@link SnowflakeIdDecoder} class for the Id's of the specified generator.
+     *
+     * @param generator the generator that generated the Id's.
+     * @throws IllegalArgumentException Thrown when generator is null.
+     */
+    public SnowflakeIdDecoder(SnowflakeIdGenerator generator) {
+        this(requireGenerator(generator).getMaskConfig(), generator.getTimeSource());
+    }
+
+    /**
+     * Initializes a new instance of the {@link SnowflakeIdDecoder} class.
+     *
+     * @param maskConfig the {@link MaskConfig} the Id's were generated with.
+     * @param timeSource the {@link TimeSource} the Id's were generated with.
+     * @throws IllegalArgumentException Thrown when either maskConfig or timeSource is null.
+     */
+    public SnowflakeIdDecoder(MaskConfig maskConfig, TimeSource timeSource) {
+        if (maskConfig == null) {
+            throw new IllegalArgumentException("'maskConfig' could not be null.");
+        }
+
+        if (timeSource == null) {
+            throw new IllegalArgumentException("'timeSource' could not be null.");
+        }
+
+        MASK_TIME = (1L << maskConfig.getTimestampBits()) - 1;
+        MASK_GENERATOR = (1L << maskConfig.getGeneratorIdBits()) - 1;
+        MASK_SEQUENCE = (1L << maskConfig.getSequenceBits()) - 1;
+        SHIFT_TIME = maskConfig.getGeneratorIdBits() + maskConfig.getSequenceBits();
+        SHIFT_GENERATOR = maskConfig.getSequenceBits();
+
+        this.epochMillis = timeSource.getEpoch().toInstant().toEpochMilli();
+        this.tickNanos = timeSource.getTickDuration().toNanos();
+        this.tickMillis = tickNanos % NANOS_PER_MILLI == 0 ? tickNanos / NANOS_PER_MILLI : 0;
+    }
+
+    private static SnowflakeIdGenerator requireGenerator(SnowflakeIdGenerator generator) {
+        if (generator == null) {
+            throw new IllegalArgumentException("'generator' could not be null.");
+        }
+        return generator;
+    }
+
+    /**
+     * Gets the number of ticks since the epoch of an Id.
+     *
+     * @param id the Id to decode.
+     * @return Returns the timestamp part of the Id.
+     */
+    public long ticksOf(long id) {
+        return (id >>> SHIFT_TIME) & MASK_TIME;
+    }
+
+    /**
+     * Gets the time an Id was generated at as the number of milliseconds since the Unix epoch; ticks shorter than a millisecond are rounded down.
+     *
+     * @param id the Id to decode.
+     * @return Returns milliseconds since the Unix epoch.
+     */
+    public long epochMillisOf(long id) {
+        long ticks = ticksOf(id);
+        return epochMillis + (tickMillis != 0 ? ticks * tickMillis : ticks * tickNanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * Gets the Id of the generator that generated an Id.
+     *
+     * @param id the Id to decode.
+     * @return Returns the generator id part of the Id.
+     */
+    public int generatorIdOf(long id) {
+        return (int) ((id >>> SHIFT_GENERATOR) & MASK_GENERATOR);
+    }
+
+    /**
+     * Gets the sequence number of an Id.
+     *
+     * @param id the Id to decode.
+     * @return Returns the sequence part of the Id.
+     */
+    public int sequenceOf(long id) {
+        return (int) (id & MASK_SEQUENCE);
+    }
+
+    /**
+     * Gets the hour an Id was generated in as the number of whole hours since the Unix epoch; see {@link Time#hourBucket(long)}.
+     *
+     * @param id the Id to decode.
+     * @return Returns the hour bucket of the Id.
+     */
+    public long hourBucketOf(long id) {
+        return Time.hourBucket(epochMillisOf(id));
+    }
+
+    /**
+     * Gets the day an Id was generated on as the number of whole days since the Unix epoch; see {@link Time#dayBucket(long)}.
+     *
+     * @param id the Id to decode.
+     * @return Returns the day bucket of the Id.
+     */
+    public long dayBucketOf(long id) {
+        return Time.dayBucket(epochMillisOf(id));
+    }
+
+    /**
+     * Gets the lowest possible Id of the tick that contains a point in time: the first sequence number of generator 0. The Id's between {@code minIdAt(from)} and {@code
+     * maxIdAt(to)} (inclusive) are all Id's generated between {@code from} and {@code to}; since bounds are rounded to whole ticks the range may include Id's of up to one tick
+     * before {@code from} and after {@code to}.
+     *
+     * @param epochMillis milliseconds since the Unix epoch.
+     * @return Returns the lowest Id of the tick; 0 when {@code epochMillis} is before the epoch and {@link Long#MAX_VALUE} when it's past the last tick the timestamp can hold.
+     */
+    public long minIdAt(long epochMillis) {
+        long ticks = ticksAt(epochMillis, 0);
+        if (ticks > MASK_TIME) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(ticks, 0) << SHIFT_TIME;
+    }
+
+    /**
+     * Gets the highest possible Id of the tick that contains a point in time: the last sequence number of the last generator; see {@link #minIdAt(long)}.
+     *
+     * @param epochMillis milliseconds since the Unix epoch.
+     * @return Returns the highest Id of the tick; -1 (below every Id) when {@code epochMillis} is before the epoch and the highest Id of the last tick when it's past the last
+     * tick the timestamp can hold.
+     */
+    public long maxIdAt(long epochMillis) {
+        // The whole millisecond, in case ticks are shorter
+        long ticks = ticksAt(epochMillis, NANOS_PER_MILLI - 1);
+        if (ticks < 0) {
+            return -1;
+        }
+        return (Math.min(ticks, MASK_TIME) << SHIFT_TIME) | ((1L << SHIFT_TIME) - 1);
+    }
+
+    private long ticksAt(long epochMillis, long nanoOfMilli) {
+        long delta = epochMillis - this.epochMillis;
+        // Points in time this far from the epoch wrap around when subtracted
+        if (((epochMillis ^ this.epochMillis) & (epochMillis ^ delta)) < 0) {
+            return epochMillis < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        if (tickMillis != 0) {
+            return Math.floorDiv(delta, tickMillis);
+        }
+        // Sub-millisecond ticks overflow the timestamp long before the nanoseconds overflow a long
+        if (Math.abs(delta) > Long.MAX_VALUE / NANOS_PER_MILLI - 1) {
+            return delta < 0 ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+        return Math.floorDiv(delta * NANOS_PER_MILLI + nanoOfMilli, tickNanos);
+    }
+
+    /**
+     * Decodes the Id's into columns of their parts: element {@code i} of every output array receives the corresponding part of {@code ids[i]}. Any of the output arrays may be
+     * null to skip that part. Arrays of at least {@value #PARALLEL_THRESHOLD} Id's are decoded in parallel on the {@link ForkJoinPool#commonPool()}.
+     *
+     * @param ids       the Id's to decode.
+     * @param millisOut receives the time of every Id as milliseconds since the Unix epoch; see {@link #epochMillisOf(long)}.
+     * @param genOut    receives the generator id of every Id.
+     * @param seqOut    receives the sequence number of every Id.
+     * @throws IllegalArgumentException Thrown when ids is null or an output array is shorter than ids.
+     */
+    public void decode(long[] ids, long[] millisOut, int[] genOut, int[] seqOut) {
+        if (ids == null) {
+            throw new IllegalArgumentException("'ids' could not be null.");
+        }
+
+        if ((millisOut != null && millisOut.length < ids.length)
+                || (genOut != null && genOut.length < ids.length)
+                || (seqOut != null && seqOut.length < ids.length)) {
+            throw new IllegalArgumentException("Output arrays must be at least as long as 'ids'.");
+        }
+
+        if (ids.length < PARALLEL_THRESHOLD) {
+            decode(ids, millisOut, genOut, seqOut, 0, ids.length);
+        } else {
+            ForkJoinPool.commonPool().invoke(new DecodeTask(ids, millisOut, genOut, seqOut, 0, ids.length));
+        }
+    }
+
+    private void decode(long[] ids, long[] millisOut, int[] genOut, int[] seqOut, int from, int to) {
+        // One pass per column keeps every loop trivial for the JIT to unroll and vectorize
+        if (millisOut != null) {
+            for (int i = from; i < to; i++) {
+                millisOut[i] = epochMillisOf(ids[i]);
+            }
+        }
+        if (genOut != null) {
+            for (int i = from; i < to; i++) {
+                genOut[i] = generatorIdOf(ids[i]);
+            }
+        }
+        if (seqOut != null) {
+            for (int i = from; i < to; i++) {
+                seqOut[i] = sequenceOf(ids[i]);
+            }
+        }
+    }
+
+    /**
+     * Decodes a range of Id's, splitting it in halves until the halves are smaller than {@link #PARALLEL_THRESHOLD}.
+     */
+    private final class DecodeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long[] ids;
+        private final long[] millisOut;
+        private final int[] genOut;
+        private final int[] seqOut;
+        private final int from;
+        private final int to;
+
+        private DecodeTask(long[] ids, long[] millisOut, int[] genOut, int[] seqOut, int from, int to) {
+            this.ids = ids;
+            this.millisOut = millisOut;
+            this.genOut = genOut;
+            this.seqOut = seqOut;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from < PARALLEL_THRESHOLD) {
+                decode(ids, millisOut, genOut, seqOut, from, to);
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new DecodeTask(ids, millisOut, genOut, seqOut, from, middle),
+                    new DecodeTask(ids, millisOut, genOut, seqOut, middle, to));
+        }
+    }
+}
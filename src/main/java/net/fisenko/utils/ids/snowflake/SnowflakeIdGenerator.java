@@ -2,13 +2,36 @@ package net.fisenko.utils.ids.snowflake;
 
 import java.time.OffsetDateTime;
 import net.fisenko.utils.ids.IdGenerator;
+import net.fisenko.utils.ids.LongIdGenerator;
 import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException;
 import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
 
 /**
  * Provides the interface for Snowflake Id generator
  */
-public interface SnowflakeIdGenerator extends IdGenerator<Long> {
+public interface SnowflakeIdGenerator extends IdGenerator<Long>, LongIdGenerator {
+
+    /**
+     * Creates a new Id. Prefer {@link #nextLong()} which doesn't box the Id.
+     *
+     * @return a new Id
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws SequenceOverflowException   Thrown when sequence overflows.
+     */
+    @Override
+    Long next();
+
+    /**
+     * Creates a new Id.
+     *
+     * @return a new Id
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws SequenceOverflowException   Thrown when sequence overflows.
+     */
+    @Override
+    long nextLong();
 
     /**
      * Returns the {@link TimeSource} for the {@link SnowflakeIdGenerator}.
@@ -30,4 +53,35 @@ public interface SnowflakeIdGenerator extends IdGenerator<Long> {
      * @return mask config.
      */
     MaskConfig getMaskConfig();
+
+    /**
+     * Reserves up to {@code maxCount} contiguous Id's from the current tick at once. Fewer Id's are returned when the current tick has fewer sequence numbers left.
+     *
+     * @param maxCount the maximum number of Id's to reserve.
+     * @return the reserved range of Id's.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws SequenceOverflowException   Thrown when no sequence numbers are left in the current tick.
+     */
+    IdRange nextRange(int maxCount) throws InvalidSystemClockException, SequenceOverflowException;
+
+    /**
+     * Reserves up to {@code maxCount} contiguous Id's from the current tick at once without ever waiting. Fewer Id's are returned when the current tick has fewer sequence numbers
+     * left, and no Id's at all when the tick is exhausted.
+     *
+     * @param maxCount the maximum number of Id's to reserve.
+     * @return the reserved range of Id's, or {@code null} when no sequence numbers are left in the current tick.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     */
+    IdRange tryNextRange(int maxCount) throws InvalidSystemClockException;
+
+    /**
+     * Fills {@code len} elements of {@code dst} starting at {@code off} with new Id's. As many Id's as the current tick allows are reserved at once; when the tick runs out of
+     * sequence numbers the generator waits for the next tick and continues from there.
+     *
+     * @param dst the array to fill.
+     * @param off the position of the first Id in {@code dst}.
+     * @param len the number of Id's to generate.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     */
+    void fill(long[] dst, int off, int len) throws InvalidSystemClockException;
 }
@@ -0,0 +1,463 @@
+package net.fisenko.utils.ids.snowflake;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+import net.fisenko.utils.ids.jfr.ClockRegressionEvent;
+import net.fisenko.utils.ids.jfr.SequenceOverflowEvent;
+import net.fisenko.utils.ids.metrics.GeneratorMetrics;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException;
+import net.fisenko.utils.ids.snowflake.highWaterMark.HighWaterMark;
+import net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+
+/**
+ * Provides a baseclass for {@link SnowflakeIdGenerator}s; validates the configuration and pre-calculates the masks and shifts used to build Id's.
+ */
+public abstract class SnowflakeIdGeneratorBase implements SnowflakeIdGenerator {
+
+    // Returns the default epoch.
+    public static final OffsetDateTime DefaultEpoch = OffsetDateTime.of(LocalDateTime.of(2010, 1, 1, 0, 0, 0), ZoneOffset.UTC);
+    protected final long generatorId;
+    protected final long MASK_SEQUENCE;
+    protected final long MASK_TIME;
+    protected final long MASK_GENERATOR;
+    protected final int SHIFT_TIME;
+    protected final int SHIFT_GENERATOR;
+    // Counts the generator's activity; implementations report contention through it
+    protected final GeneratorMetrics metrics;
+    private final MaskConfig maskConfig;
+    private final TimeSource timeSource;
+    private final GeneratorOptions options;
+    private final HighWaterMark highWaterMark;
+    // The first tick after the restored high-water mark; ticks are never read lower than this
+    private final long resumeTicks;
+
+    /**
+     * Initializes a new instance of the {@link SnowflakeIdGeneratorBase} class.
+     *
+     * @param generatorId The Id of the generator.
+     * @param maskConfig  The {@link MaskConfig} of the generator.
+     * @param timeSource  The time-source to use when acquiring time data.
+     * @param options     The {@link GeneratorOptions} of the generator.
+     * @throws IllegalArgumentException Thrown when either maskConfig, timeSource or options is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks
+     *                                  are >31 bit, GeneratorId exceeds maximum value or epoch in future.
+     */
+    protected SnowflakeIdGeneratorBase(int generatorId, MaskConfig maskConfig, TimeSource timeSource, GeneratorOptions options) {
+        if (maskConfig == null) {
+            throw new IllegalArgumentException("'maskConfig' could not be null.");
+        }
+
+        if (timeSource == null) {
+            throw new IllegalArgumentException("'timeSource' could not be null.");
+        }
+
+        if (options == null) {
+            throw new IllegalArgumentException("'options' could not be null.");
+        }
+
+        if (maskConfig.getTotalBits() != 63) {
+            throw new IllegalArgumentException("Number of bits used to generate Id's is not equal to 63");
+        }
+
+        if (maskConfig.getGeneratorIdBits() > 31) {
+            throw new IllegalArgumentException("GeneratorId cannot have more than 31 bits");
+        }
+
+        if (maskConfig.getSequenceBits() > 31) {
+            throw new IllegalArgumentException("Sequence cannot have more than 31 bits");
+        }
+
+        // Pre-calculate some values
+        MASK_TIME = getMask(maskConfig.getTimestampBits());
+        MASK_GENERATOR = getMask(maskConfig.getGeneratorIdBits());
+        MASK_SEQUENCE = getMask(maskConfig.getSequenceBits());
+
+        if (generatorId < 0 || generatorId > MASK_GENERATOR) {
+            throw new IllegalArgumentException(String.format("GeneratorId must be between 0 and %d (inclusive).", MASK_GENERATOR));
+        }
+
+        SHIFT_TIME = maskConfig.getGeneratorIdBits() + maskConfig.getSequenceBits();
+        SHIFT_GENERATOR = maskConfig.getSequenceBits();
+
+        // Store instance specific values
+        this.maskConfig = maskConfig;
+        this.timeSource = timeSource;
+        this.options = options;
+        this.generatorId = generatorId;
+        this.highWaterMark = options.getHighWaterMark();
+        this.metrics = options.getMetrics();
+        long mark = highWaterMark.get();
+        this.resumeTicks = mark < 0 ? Long.MIN_VALUE : mark + 1;
+    }
+
+    /**
+     * Gets the Id of the generator.
+     *
+     * @return Returns id/
+     */
+    public int getId() {
+        return (int) generatorId;
+    }
+
+    /**
+     * Creates a new Id.
+     *
+     * @return Returns an Id based on the {@link SnowflakeIdGenerator}'s epoch, generatorid and sequence.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws SequenceOverflowException   Thrown when sequence overflows.
+     */
+    @Override
+    public Long next() {
+        return createIdImpl();
+    }
+
+    /**
+     * Creates a new Id without boxing it.
+     *
+     * @return Returns an Id based on the {@link SnowflakeIdGenerator}'s epoch, generatorid and sequence.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws SequenceOverflowException   Thrown when sequence overflows.
+     */
+    @Override
+    public long nextLong() {
+        return createIdImpl();
+    }
+
+    @Override
+    public IdRange nextRange(int maxCount) throws InvalidSystemClockException, SequenceOverflowException {
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("'maxCount' must be positive.");
+        }
+
+        long first = claimOrAwait(maxCount);
+        return new IdRange(first, getClaimedCount(first, maxCount));
+    }
+
+    @Override
+    public IdRange tryNextRange(int maxCount) throws InvalidSystemClockException {
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("'maxCount' must be positive.");
+        }
+
+        long first = claimAndMark(maxCount);
+        return first < 0 ? null : new IdRange(first, getClaimedCount(first, maxCount));
+    }
+
+    @Override
+    public void fill(long[] dst, int off, int len) throws InvalidSystemClockException {
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, dst.length);
+
+        while (len > 0) {
+            long first = claimAndMark(len);
+            if (first < 0) {
+                // The tick has run out of sequence numbers; wait for the next one and claim again. A batch always completes, so spin when the strategy gives up.
+                awaitOverflow(~first, true);
+                continue;
+            }
+
+            int count = getClaimedCount(first, len);
+            for (int i = 0; i < count; i++) {
+                dst[off + i] = first + i;
+            }
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Gets the {@link TimeSource} for the {@link SnowflakeIdGenerator}.
+     *
+     * @return Returns time source.
+     */
+    public TimeSource getTimeSource() {
+        return timeSource;
+    }
+
+    /**
+     * Gets the epoch for the {@link SnowflakeIdGenerator}.
+     *
+     * @return Returns offset.
+     */
+    public OffsetDateTime getEpoch() {
+        return getTimeSource().getEpoch();
+    }
+
+    /**
+     * Gets the {@link MaskConfig} for the {@link SnowflakeIdGenerator}.
+     *
+     * @return Returns mask config.
+     */
+    public MaskConfig getMaskConfig() {
+        return maskConfig;
+    }
+
+    /**
+     * Gets the {@link GeneratorOptions} for the {@link SnowflakeIdGenerator}.
+     *
+     * @return Returns the options.
+     */
+    public GeneratorOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * Returns information about an Id such as the sequence number, generator id and date/time the Id was generated based on the current mask config of the generator. IMPORTANT:
+     * note that this method relies on the mask config and timesource; if the id was generated with a different mask config and/or timesource than the current one the 'decoded' ID
+     * will NOT contain correct information.
+     *
+     * @param id The Id to extract information from.
+     * @return Returns an {@link IdInfo} that contains information about the 'decoded' Id.
+     */
+    public IdInfo fromId(long id) {
+        // Deconstruct Id by unshifting the bits into the proper parts
+        return new IdInfo(
+                (int) (id & MASK_SEQUENCE),
+                (int) ((id >> SHIFT_GENERATOR) & MASK_GENERATOR),
+                timeSource.getEpoch().plus(timeSource.getTickDuration().multipliedBy((id >> SHIFT_TIME) & MASK_TIME))
+        );
+    }
+
+    /**
+     * Gets a bitmask masking out the desired number of bits; a bitmask of 2 returns 000...000011, a bitmask of 5 returns 000...011111.
+     *
+     * @param bits The number of bits to mask.
+     * @return Returns the desired bitmask.
+     */
+    private long getMask(byte bits) {
+        return (1L << bits) - 1;
+    }
+
+    /**
+     * Creates a new Id.
+     *
+     * @return Returns an Id based on the {@link SnowflakeIdGenerator}'s epoch, generatorId and sequence.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws SequenceOverflowException   Thrown when sequence overflows.
+     */
+    protected long createIdImpl() throws InvalidSystemClockException, SequenceOverflowException {
+        return claimOrAwait(1);
+    }
+
+    /**
+     * Reserves up to {@code count} sequence numbers; when the current tick is exhausted the {@link SequenceOverflowStrategy} decides whether to wait for the next tick or to give up.
+     *
+     * @param count the maximum number of sequence numbers to reserve; must be positive.
+     * @return Returns the first reserved Id.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws SequenceOverflowException   Thrown when sequence overflows and the strategy gives up waiting.
+     */
+    private long claimOrAwait(int count) throws InvalidSystemClockException, SequenceOverflowException {
+        while (true) {
+            long first = claimAndMark(count);
+            if (first >= 0) {
+                return first;
+            }
+            if (!awaitOverflow(~first, false)) {
+                throw new SequenceOverflowException("Sequence overflow. Refusing to generate id for rest of tick");
+            }
+        }
+    }
+
+    /**
+     * Reserves up to {@code count} sequence numbers like {@link #claim(int)}, raises the {@link HighWaterMark} to their tick before they're handed out and counts the outcome in
+     * the {@link GeneratorMetrics}.
+     *
+     * @param count the maximum number of sequence numbers to reserve; must be positive.
+     * @return Returns the first reserved Id, or the bitwise complement ({@code ~timestamp}) of the current timestamp when the tick has no sequence numbers left.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     */
+    private long claimAndMark(int count) throws InvalidSystemClockException {
+        long first;
+        try {
+            first = claim(count);
+        } catch (InvalidSystemClockException e) {
+            metrics.recordClockRegression();
+            throw e;
+        }
+
+        if (first >= 0) {
+            highWaterMark.advance(first >>> SHIFT_TIME);
+            metrics.recordIssued(getClaimedCount(first, count));
+        } else {
+            metrics.recordSequenceOverflow();
+        }
+        return first;
+    }
+
+    /**
+     * Reserves up to {@code count} sequence numbers of the current tick in a single step. The number of reserved Id's is {@code min(count, sequences left in the tick)} and can be
+     * calculated with {@link #getClaimedCount(long, int)}.
+     *
+     * @param count the maximum number of sequence numbers to reserve; must be positive.
+     * @return Returns the first reserved Id, or the bitwise complement ({@code ~timestamp}) of the current timestamp when the tick has no sequence numbers left.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     */
+    protected abstract long claim(int count) throws InvalidSystemClockException;
+
+    /**
+     * Reserves up to {@code count} sequence numbers of the current tick like {@link #claim(int)}, for lock-free generators that pack the last "timeslot" and the last sequence
+     * number into a single state word ({@code timestamp << sequenceBits | sequence}) and advance it with compare-and-set; callers that lose the race simply retry.
+     *
+     * @param state the state word; -1 when no Id has been generated yet.
+     * @param count the maximum number of sequence numbers to reserve; must be positive.
+     * @return Returns the first reserved Id, or the bitwise complement ({@code ~timestamp}) of the current timestamp when the tick has no sequence numbers left.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     */
+    protected long claim(PackedState state, int count) throws InvalidSystemClockException {
+        while (true) {
+            // Read the state before the clock so a concurrent update of the state can never look like a clock going backwards
+            long current = state.get();
+            long ticks = getTicks();
+            long timestamp = ticks & MASK_TIME;
+            long lastGen = current < 0 ? -1 : current >>> SHIFT_GENERATOR;
+
+            if (timestamp < lastGen || ticks < 0) {
+                throw clockMovedBackwards(ticks, lastGen);
+            }
+
+            long first;
+            // If we're in the same "timeslot" as previous time we generated an Id, continue after the last sequence number
+            if (timestamp == lastGen) {
+                first = (current & MASK_SEQUENCE) + 1;
+                if (first > MASK_SEQUENCE) {
+                    return ~timestamp;
+                }
+            } else { // If we're in a new(er) "timeslot", so we can reset the sequence and store the new(er) "timeslot"
+                first = 0;
+            }
+            long last = first + Math.min(count, MASK_SEQUENCE + 1 - first) - 1;
+
+            if (state.compareAndSet(current, (timestamp << SHIFT_GENERATOR) | last)) {
+                return buildId(timestamp, first);
+            }
+            metrics.recordContention();
+        }
+    }
+
+    /**
+     * Gets the number of Id's reserved by a {@link #claim(int)} call.
+     *
+     * @param first the first Id returned by {@link #claim(int)}.
+     * @param count the number of Id's requested from {@link #claim(int)}.
+     * @return Returns the number of reserved Id's.
+     */
+    protected int getClaimedCount(long first, int count) {
+        return (int) Math.min(count, MASK_SEQUENCE + 1 - (first & MASK_SEQUENCE));
+    }
+
+    /**
+     * Builds an Id by shifting all bits into their place.
+     *
+     * @param timestamp the timestamp of the Id.
+     * @param sequence  the sequence number of the Id.
+     * @return Returns the Id.
+     */
+    protected long buildId(long timestamp, long sequence) {
+        return (timestamp << SHIFT_TIME)
+                + (generatorId << SHIFT_GENERATOR)
+                + sequence;
+    }
+
+    /**
+     * Waits for the tick after an exhausted one, idling between two reads of the clock as the {@link SequenceOverflowStrategy} decides, and records the wait in the
+     * {@link GeneratorMetrics} and as a {@link SequenceOverflowEvent}.
+     *
+     * @param timestamp the exhausted timestamp.
+     * @param spin      whether to spin for the next tick when the strategy gives up.
+     * @return Returns whether the next tick has been reached.
+     * @throws InvalidSystemClockException Thrown when the clock moves backwards while waiting, since it may not return to the timestamp for a long time.
+     */
+    private boolean awaitOverflow(long timestamp, boolean spin) throws InvalidSystemClockException {
+        SequenceOverflowEvent event = SequenceOverflowEvent.beginIfEnabled();
+        SequenceOverflowStrategy strategy = options.getSequenceOverflowStrategy();
+        long started = System.nanoTime();
+        boolean idling = true;
+        long ticks;
+        for (int iteration = 0; ((ticks = getTicks()) & MASK_TIME) <= timestamp; iteration++) {
+            if ((ticks & MASK_TIME) < timestamp || ticks < 0) {
+                metrics.recordClockRegression();
+                throw clockMovedBackwards(ticks, timestamp);
+            }
+            if (idling && !strategy.idle(iteration, System.nanoTime() - started)) {
+                if (!spin) {
+                    break;
+                }
+                idling = false;
+            }
+            if (!idling) {
+                Thread.onSpinWait();
+            }
+        }
+        boolean waited = (ticks & MASK_TIME) > timestamp;
+        metrics.recordTickWait(System.nanoTime() - started);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.generatorId = (int) generatorId;
+                event.tick = timestamp;
+                event.commit();
+            }
+        }
+        return waited;
+    }
+
+    /**
+     * Creates the exception for a clock that moved backwards or wrapped around and records a {@link ClockRegressionEvent}.
+     *
+     * @param ticks   the ticks read from the {@link TimeSource}.
+     * @param lastGen the timestamp of the last Id generated.
+     * @return Returns the exception to throw.
+     */
+    protected InvalidSystemClockException clockMovedBackwards(long ticks, long lastGen) {
+        long timestamp = ticks & MASK_TIME;
+        ClockRegressionEvent event = new ClockRegressionEvent();
+        if (event.shouldCommit()) {
+            event.generatorId = (int) generatorId;
+            event.tick = timestamp;
+            event.lastTick = lastGen;
+            event.commit();
+        }
+        return new InvalidSystemClockException(String.format("Clock moved backwards or wrapped around. Refusing to generate id for %d ticks", lastGen - timestamp));
+    }
+
+    /**
+     * Gets the number of ticks since the {@link TimeSource}'s epoch, but never less than the tick after the {@link HighWaterMark} the generator was created with.
+     *
+     * @return Returns the number of ticks since the {@link TimeSource}'s epoch.
+     */
+    protected long getTicks() {
+        long ticks = timeSource.getTicks();
+        // After a restart the clock may be behind the high-water mark; continue right after the mark instead
+        return ticks < resumeTicks ? resumeTicks : ticks;
+    }
+
+    /**
+     * The state word of a lock-free generator; see {@link #claim(PackedState, int)}.
+     */
+    protected interface PackedState {
+
+        /**
+         * Reads the state word.
+         *
+         * @return Returns the packed "timeslot" and sequence of the last generated Id, or -1 when no Id has been generated yet.
+         */
+        long get();
+
+        /**
+         * Sets the state word to {@code newValue} if it still holds {@code expectedValue}.
+         *
+         * @param expectedValue the state word read before.
+         * @param newValue      the new state word.
+         * @return Returns false when another thread changed the state word first.
+         */
+        boolean compareAndSet(long expectedValue, long newValue);
+    }
+}
@@ -0,0 +1,146 @@
+package net.fisenko.utils.ids.snowflake;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+
+/**
+ * Generates Id's inspired by Twitter's (late) Snowflake project using several generator-id's at once.
+ * <p>
+ * A single generator can issue at most {@link MaskConfig#getMaxSequenceIds()} Id's per tick. This generator owns the consecutive generator-id's {@code firstGeneratorId ..
+ * firstGeneratorId + stripes - 1} and runs one lock-free sub-generator (stripe) per generator-id; a thread always uses the stripe selected by its thread id, so threads of a pool
+ * are spread evenly over the stripes. Every stripe has its own sequence, so the throughput grows with the number of stripes, and Id's stay globally unique as long as no other
+ * generator uses any of the generator-id's of this generator.
+ * </p>
+ * <p>
+ * The state of every stripe is padded to its own 128 bytes to avoid false sharing between stripes. Id's created by the same thread are increasing; Id's created by different
+ * threads are only ordered by their timestamp.
+ * </p>
+ */
+public class StripedSnowflakeIdGeneratorImpl extends SnowflakeIdGeneratorBase {
+
+    // Distance between the state words of two stripes, in longs (128 bytes)
+    private static final int PADDING = 16;
+    private final int stripes;
+    // Packed "timeslot" and sequence of the last generated Id per stripe, -1 when the stripe hasn't generated an Id yet
+    private final StripeState[] states;
+
+    /**
+     * Initializes a new instance of the {@link StripedSnowflakeIdGeneratorImpl} class with one stripe per available processor, limited to the number of generators of the {@link
+     * MaskConfig#Default}. The {@link NanoTimeSourceImpl} is used to retrieve timestamp information.
+     *
+     * @param firstGeneratorId The Id of the first generator.
+     * @throws IllegalArgumentException Thrown when {@code firstGeneratorId} is not a valid generator-id of the {@link MaskConfig#Default}.
+     */
+    public StripedSnowflakeIdGeneratorImpl(int firstGeneratorId) {
+        this(firstGeneratorId, getDefaultStripes(firstGeneratorId));
+    }
+
+    /**
+     * Initializes a new instance of the {@link StripedSnowflakeIdGeneratorImpl} class. The {@link MaskConfig#Default} value is used for the {@link MaskConfig} and the {@link
+     * NanoTimeSourceImpl} is used to retrieve timestamp information.
+     *
+     * @param firstGeneratorId The Id of the first generator.
+     * @param stripes          The number of stripes (and generator-id's) to use.
+     * @throws IllegalArgumentException Thrown when {@code stripes} is not positive or the generator-id's of the stripes exceed the maximum value.
+     */
+    public StripedSnowflakeIdGeneratorImpl(int firstGeneratorId, int stripes) {
+        this(firstGeneratorId, stripes, MaskConfig.Default, new NanoTimeSourceImpl(DefaultEpoch));
+    }
+
+    /**
+     * Initializes a new instance of the {@link StripedSnowflakeIdGeneratorImpl} class.
+     *
+     * @param firstGeneratorId The Id of the first generator.
+     * @param stripes          The number of stripes (and generator-id's) to use.
+     * @param maskConfig       The {@link MaskConfig} of the generator.
+     * @param timeSource       The time-source to use when acquiring time data.
+     * @throws IllegalArgumentException Thrown when either maskConfig, or timeSource is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks are >31
+     *                                  bit, {@code stripes} is not positive or the generator-id's of the stripes exceed the maximum value.
+     */
+    public StripedSnowflakeIdGeneratorImpl(int firstGeneratorId, int stripes, MaskConfig maskConfig, TimeSource timeSource) {
+        this(firstGeneratorId, stripes, maskConfig, timeSource, GeneratorOptions.Default);
+    }
+
+    /**
+     * Initializes a new instance of the {@link StripedSnowflakeIdGeneratorImpl} class.
+     *
+     * @param firstGeneratorId The Id of the first generator.
+     * @param stripes          The number of stripes (and generator-id's) to use.
+     * @param maskConfig       The {@link MaskConfig} of the generator.
+     * @param timeSource       The time-source to use when acquiring time data.
+     * @param options          The {@link GeneratorOptions} of the generator.
+     * @throws IllegalArgumentException Thrown when either maskConfig, timeSource or options is null, or maskConfig defines a non-63 bit bitmask, or GeneratorId or Sequence masks
+     *                                  are >31 bit, {@code stripes} is not positive or the generator-id's of the stripes exceed the maximum value.
+     */
+    public StripedSnowflakeIdGeneratorImpl(int firstGeneratorId, int stripes, MaskConfig maskConfig, TimeSource timeSource, GeneratorOptions options) {
+        super(firstGeneratorId, maskConfig, timeSource, options);
+
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("'stripes' must be positive.");
+        }
+        if (firstGeneratorId + (long) stripes - 1 > MASK_GENERATOR) {
+            throw new IllegalArgumentException(String.format("GeneratorId's of all stripes must be between 0 and %d (inclusive).", MASK_GENERATOR));
+        }
+
+        this.stripes = stripes;
+        AtomicLongArray words = new AtomicLongArray((stripes + 1) * PADDING);
+        this.states = new StripeState[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            // Skip the first PADDING longs so the first stripe doesn't share a cache line with the array header
+            states[stripe] = new StripeState(words, (stripe + 1) * PADDING);
+            words.set(states[stripe].index, -1);
+        }
+    }
+
+    /**
+     * Gets the number of stripes; stripe {@code i} uses generator-id {@code getId() + i}.
+     *
+     * @return Returns the number of stripes.
+     */
+    public int getStripes() {
+        return stripes;
+    }
+
+    @Override
+    protected long claim(int count) throws InvalidSystemClockException {
+        int stripe = (int) (Thread.currentThread().getId() % stripes);
+        long first = claim(states[stripe], count);
+        return first < 0 ? first : first + ((long) stripe << SHIFT_GENERATOR);
+    }
+
+    private static int getDefaultStripes(int firstGeneratorId) {
+        long maxGenerators = MaskConfig.Default.getMaxGenerators();
+        if (firstGeneratorId < 0 || firstGeneratorId >= maxGenerators) {
+            throw new IllegalArgumentException(String.format("GeneratorId must be between 0 and %d (inclusive).", maxGenerators - 1));
+        }
+        return (int) Math.min(Runtime.getRuntime().availableProcessors(), maxGenerators - firstGeneratorId);
+    }
+
+    /**
+     * The state word of a stripe in the padded array of all state words.
+     */
+    private static final class StripeState implements PackedState {
+
+        private final AtomicLongArray words;
+        private final int index;
+
+        private StripeState(AtomicLongArray words, int index) {
+            this.words = words;
+            this.index = index;
+        }
+
+        @Override
+        public long get() {
+            return words.get(index);
+        }
+
+        @Override
+        public boolean compareAndSet(long expectedValue, long newValue) {
+            return words.compareAndSet(index, expectedValue, newValue);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package net.fisenko.utils.ids.snowflake.allocator;
+
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+
+/**
+ * Provides the interface for services that hand out generator-id's to generators across a cluster as leases, so generators can come and go without configuring their
+ * generator-id's.
+ * <p>
+ * A holder must renew its lease before the time-to-live runs out and must stop generating Id's once it can't; {@link LeasedSnowflakeIdGeneratorImpl} does both. Implementations
+ * may throw unchecked exceptions (e.g. {@link java.io.UncheckedIOException}) when the allocator can't be reached; holders retry until their lease expires.
+ * </p>
+ */
+public interface GeneratorIdAllocator {
+
+    /**
+     * Leases a free generator-id with a new fencing epoch.
+     *
+     * @return Returns the lease.
+     * @throws GeneratorIdUnavailableException Thrown when every generator-id is leased.
+     */
+    GeneratorIdLease acquire() throws GeneratorIdUnavailableException;
+
+    /**
+     * Extends a lease by its time-to-live.
+     *
+     * @param lease the lease to extend.
+     * @return Returns the extended lease with the same generator-id and epoch, or null when the lease was released or taken over by another holder after it expired.
+     */
+    GeneratorIdLease renew(GeneratorIdLease lease);
+
+    /**
+     * Releases a lease so its generator-id can be leased again right away; does nothing when the lease is no longer held.
+     *
+     * @param lease the lease to release.
+     */
+    void release(GeneratorIdLease lease);
+}
@@ -0,0 +1,72 @@
+package net.fisenko.utils.ids.snowflake.allocator;
+
+import java.time.Duration;
+
+/**
+ * Holds a generator-id leased from a {@link GeneratorIdAllocator}. Instances are immutable; renewing a lease returns a new instance.
+ * <p>
+ * The fencing epoch is unique to every acquisition and grows with every acquisition, so storage that records the epoch of the last write per generator-id can reject writes of
+ * a holder whose lease has been taken over. The time-to-live is relative: a holder counts it from the moment it sent the request that returned the lease, so the clocks of
+ * holder and allocator don't need to agree.
+ * </p>
+ */
+public final class GeneratorIdLease {
+
+    private final int generatorId;
+    private final long epoch;
+    private final Duration ttl;
+
+    /**
+     * Initializes a new instance of the {@link GeneratorIdLease} class.
+     *
+     * @param generatorId the leased generator-id.
+     * @param epoch       the fencing epoch of the acquisition.
+     * @param ttl         the time after which the lease expires unless it's renewed.
+     * @throws IllegalArgumentException Thrown when {@code generatorId} is negative or {@code ttl} is null or not positive.
+     */
+    public GeneratorIdLease(int generatorId, long epoch, Duration ttl) {
+        if (generatorId < 0) {
+            throw new IllegalArgumentException("'generatorId' could not be negative.");
+        }
+
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("'ttl' must be positive.");
+        }
+
+        this.generatorId = generatorId;
+        this.epoch = epoch;
+        this.ttl = ttl;
+    }
+
+    /**
+     * Gets the leased generator-id.
+     *
+     * @return Returns the generator-id.
+     */
+    public int getGeneratorId() {
+        return generatorId;
+    }
+
+    /**
+     * Gets the fencing epoch of the acquisition; renewing the lease keeps it.
+     *
+     * @return Returns the epoch.
+     */
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Gets the time after which the lease expires unless it's renewed.
+     *
+     * @return Returns the time-to-live.
+     */
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GeneratorIdLease{generatorId=%d, epoch=%d, ttl=%s}", generatorId, epoch, ttl);
+    }
+}
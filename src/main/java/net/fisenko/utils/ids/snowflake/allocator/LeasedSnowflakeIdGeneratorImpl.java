@@ -0,0 +1,256 @@
+package net.fisenko.utils.ids.snowflake.allocator;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import net.fisenko.utils.ids.snowflake.IdRange;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.exceptions.LeaseExpiredException;
+import net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+
+/**
+ * {@link SnowflakeIdGenerator} whose generator-id is leased from a {@link GeneratorIdAllocator}, e.g. for pods that come and go.
+ * <p>
+ * The lease is renewed on the {@link ScheduledExecutorService} at a third of its time-to-live, and sooner while renewals fail. The generator keeps its own deadline: the time
+ * the request that acquired or last renewed the lease was sent, plus the time-to-live, and the first tick of the {@link TimeSource} that may end after it. Every call checks
+ * the deadline before it takes Id's, and checks the tick of the Id's it took before it returns them, so the generator never hands out Id's in a tick the next holder of the
+ * generator-id may use: not when the allocator can't be reached, not when the process was paused in the middle of a call, and not when a call waits for the clock. After
+ * the deadline, and after the allocator answers that the lease was lost, every call throws a {@link LeaseExpiredException}; the generator doesn't acquire a new
+ * generator-id, create a new {@link LeasedSnowflakeIdGeneratorImpl} instead.
+ * </p>
+ */
+public class LeasedSnowflakeIdGeneratorImpl implements SnowflakeIdGenerator, AutoCloseable {
+
+    private final GeneratorIdAllocator allocator;
+    private final SnowflakeIdGenerator generator;
+    private final ScheduledExecutorService scheduler;
+    private final long renewIntervalNanos;
+    private final long tickNanos;
+    private final int shiftTime;
+    private final int fillChunk;
+    private volatile GeneratorIdLease lease;
+    private volatile long deadlineNanos;
+    // Id's in this tick or later may collide with Id's of the next holder
+    private volatile long deadlineTicks;
+    private volatile boolean lost;
+    private ScheduledFuture<?> renewal;
+
+    /**
+     * Initializes a new instance of the {@link LeasedSnowflakeIdGeneratorImpl} class. Leases a generator-id and creates the generator for it.
+     *
+     * @param allocator the {@link GeneratorIdAllocator} to lease the generator-id from.
+     * @param factory   creates the generator for the leased generator-id, e.g. {@code id -> new SnowflakeIdGeneratorImpl(id)}.
+     * @param scheduler the executor to renew the lease on.
+     * @throws IllegalArgumentException        Thrown when either allocator, factory or scheduler is null.
+     * @throws GeneratorIdUnavailableException Thrown when every generator-id is leased.
+     */
+    public LeasedSnowflakeIdGeneratorImpl(GeneratorIdAllocator allocator, IntFunction<SnowflakeIdGenerator> factory, ScheduledExecutorService scheduler) {
+        if (allocator == null) {
+            throw new IllegalArgumentException("'allocator' could not be null.");
+        }
+
+        if (factory == null) {
+            throw new IllegalArgumentException("'factory' could not be null.");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("'scheduler' could not be null.");
+        }
+
+        this.allocator = allocator;
+        this.scheduler = scheduler;
+
+        long requested = System.nanoTime();
+        GeneratorIdLease lease = allocator.acquire();
+        try {
+            this.generator = factory.apply(lease.getGeneratorId());
+        } catch (RuntimeException e) {
+            allocator.release(lease);
+            throw e;
+        }
+        MaskConfig maskConfig = generator.getMaskConfig();
+        this.tickNanos = generator.getTimeSource().getTickDuration().toNanos();
+        this.shiftTime = maskConfig.getGeneratorIdBits() + maskConfig.getSequenceBits();
+        this.fillChunk = (int) Math.min(maskConfig.getMaxSequenceIds(), Integer.MAX_VALUE);
+        this.lease = lease;
+        extend(requested, lease);
+        this.renewIntervalNanos = Math.max(lease.getTtl().toNanos() / 3, 1);
+        synchronized (this) {
+            this.renewal = scheduler.schedule(this::renew, renewIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Long next() {
+        return nextLong();
+    }
+
+    @Override
+    public long nextLong() {
+        check();
+        return checkIssued(generator.nextLong());
+    }
+
+    @Override
+    public IdRange nextRange(int maxCount) throws InvalidSystemClockException, SequenceOverflowException {
+        check();
+        IdRange range = generator.nextRange(maxCount);
+        checkIssued(range.getFirst());
+        return range;
+    }
+
+    @Override
+    public IdRange tryNextRange(int maxCount) throws InvalidSystemClockException {
+        check();
+        IdRange range = generator.tryNextRange(maxCount);
+        if (range != null) {
+            checkIssued(range.getFirst());
+        }
+        return range;
+    }
+
+    /**
+     * Fills {@code len} elements of {@code dst} starting at {@code off} with new Id's, a tick's worth of sequence numbers at a time; the lease is checked before and after every
+     * chunk.
+     *
+     * @param dst the array to fill.
+     * @param off the position of the first Id in {@code dst}.
+     * @param len the number of Id's to generate.
+     * @throws InvalidSystemClockException Thrown when clock going backwards is detected.
+     * @throws LeaseExpiredException       Thrown when the lease expired before the batch was complete; the content of {@code dst} from {@code off} is then undefined.
+     */
+    @Override
+    public void fill(long[] dst, int off, int len) throws InvalidSystemClockException {
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, dst.length);
+
+        while (len > 0) {
+            int count = Math.min(len, fillChunk);
+            check();
+            generator.fill(dst, off, count);
+            // Id's are increasing, so the last one has the latest tick
+            checkIssued(dst[off + count - 1]);
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public TimeSource getTimeSource() {
+        return generator.getTimeSource();
+    }
+
+    @Override
+    public OffsetDateTime getEpoch() {
+        return generator.getEpoch();
+    }
+
+    @Override
+    public MaskConfig getMaskConfig() {
+        return generator.getMaskConfig();
+    }
+
+    /**
+     * Gets the current lease; its epoch fences writes of this generator against writes of a later holder of the same generator-id.
+     *
+     * @return Returns the lease.
+     */
+    public GeneratorIdLease getLease() {
+        return lease;
+    }
+
+    /**
+     * Gets whether the generator holds its lease and issues Id's.
+     *
+     * @return Returns true while the lease is held.
+     */
+    public boolean isValid() {
+        return !lost && System.nanoTime() - deadlineNanos < 0;
+    }
+
+    /**
+     * Stops renewing the lease and releases it, so the generator-id can be leased again right away; the generator stops issuing Id's.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (lost) {
+                return;
+            }
+            lost = true;
+            renewal.cancel(false);
+        }
+        try {
+            allocator.release(lease);
+        } catch (RuntimeException e) {
+            // The lease expires at the allocator
+        }
+    }
+
+    private void check() {
+        if (lost || System.nanoTime() - deadlineNanos >= 0) {
+            throw expired();
+        }
+    }
+
+    // The tick of an Id is taken inside the generator; a pause or a wait for the clock may have moved it past the deadline
+    private long checkIssued(long id) {
+        if (id >>> shiftTime >= deadlineTicks || lost) {
+            throw expired();
+        }
+        return id;
+    }
+
+    private LeaseExpiredException expired() {
+        return new LeaseExpiredException(String.format("The lease on generator-id %d expired.", lease.getGeneratorId()));
+    }
+
+    /**
+     * Moves the deadline to the time-to-live of the lease after the request for it was sent. The tick deadline is the first tick that may end after that time; the current
+     * tick may have started up to a tick earlier, so it's counted from the start of the current tick and rounded down.
+     */
+    private void extend(long requested, GeneratorIdLease lease) {
+        long deadline = requested + lease.getTtl().toNanos();
+        long ticks = generator.getTimeSource().getTicks();
+        long remaining = deadline - System.nanoTime();
+        this.deadlineTicks = remaining <= 0 ? ticks : ticks + remaining / tickNanos;
+        this.deadlineNanos = deadline;
+    }
+
+    private void renew() {
+        long requested = System.nanoTime();
+        long delay = renewIntervalNanos;
+        try {
+            GeneratorIdLease renewed = allocator.renew(lease);
+            if (renewed == null || renewed.getGeneratorId() != lease.getGeneratorId() || renewed.getEpoch() != lease.getEpoch()) {
+                lost = true;
+                return;
+            }
+            lease = renewed;
+            extend(requested, renewed);
+        } catch (RuntimeException e) {
+            // Retry sooner while the lease lasts; the deadline stops the generator if it doesn't
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                lost = true;
+                return;
+            }
+            delay = Math.max(Math.min(delay, remaining) / 4, 1);
+        }
+
+        synchronized (this) {
+            if (!lost) {
+                renewal = scheduler.schedule(this::renew, delay, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
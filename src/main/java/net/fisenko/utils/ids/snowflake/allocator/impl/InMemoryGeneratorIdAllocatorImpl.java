@@ -0,0 +1,130 @@
+package net.fisenko.utils.ids.snowflake.allocator.impl;
+
+import java.time.Duration;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdAllocator;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdLease;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+
+/**
+ * Reference {@link GeneratorIdAllocator} that keeps the leases in memory. It serves the generators of one process directly, or the generators of a cluster when it's shared
+ * through a {@link SocketGeneratorIdAllocatorServer}; it is meant for tests and load tests, since the leases are lost when the process exits.
+ * <p>
+ * Expiry is measured with {@link System#nanoTime()}, so it's not affected by changes of the wall clock. Leases are handed out round-robin, which keeps a released generator-id
+ * unused for as long as possible.
+ * </p>
+ */
+public class InMemoryGeneratorIdAllocatorImpl implements GeneratorIdAllocator {
+
+    /**
+     * Default time-to-live of a lease.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(10);
+
+    private final int generatorIds;
+    private final Duration ttl;
+    private final long ttlNanos;
+    // The epoch of the current lease of every generator-id, 0 when it has never been leased
+    private final long[] epochs;
+    private final long[] expiries;
+    private final boolean[] held;
+    private long nextEpoch = 1;
+    private int next;
+
+    /**
+     * Initializes a new instance of the {@link InMemoryGeneratorIdAllocatorImpl} class with every generator-id of {@code maskConfig} and leases that expire after
+     * {@link #DEFAULT_TTL}.
+     *
+     * @param maskConfig the {@link MaskConfig} of the generators.
+     * @throws IllegalArgumentException Thrown when {@code maskConfig} is null.
+     */
+    public InMemoryGeneratorIdAllocatorImpl(MaskConfig maskConfig) {
+        this(requireMaskConfig(maskConfig), DEFAULT_TTL);
+    }
+
+    /**
+     * Initializes a new instance of the {@link InMemoryGeneratorIdAllocatorImpl} class.
+     *
+     * @param generatorIds the number of generator-id's to hand out, starting from 0.
+     * @param ttl          the time after which a lease that isn't renewed expires.
+     * @throws IllegalArgumentException Thrown when {@code generatorIds} is not positive, or {@code ttl} is null or not positive.
+     */
+    public InMemoryGeneratorIdAllocatorImpl(int generatorIds, Duration ttl) {
+        if (generatorIds < 1) {
+            throw new IllegalArgumentException("'generatorIds' must be positive.");
+        }
+
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("'ttl' must be positive.");
+        }
+
+        this.generatorIds = generatorIds;
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+        this.epochs = new long[generatorIds];
+        this.expiries = new long[generatorIds];
+        this.held = new boolean[generatorIds];
+    }
+
+    @Override
+    public synchronized GeneratorIdLease acquire() throws GeneratorIdUnavailableException {
+        long now = System.nanoTime();
+        for (int i = 0; i < generatorIds; i++) {
+            int generatorId = (next + i) % generatorIds;
+            if (!held[generatorId] || now - expiries[generatorId] >= 0) {
+                held[generatorId] = true;
+                epochs[generatorId] = nextEpoch++;
+                expiries[generatorId] = now + ttlNanos;
+                next = generatorId + 1;
+                return new GeneratorIdLease(generatorId, epochs[generatorId], ttl);
+            }
+        }
+        throw new GeneratorIdUnavailableException(String.format("All %d generator-id's are leased.", generatorIds));
+    }
+
+    @Override
+    public synchronized GeneratorIdLease renew(GeneratorIdLease lease) {
+        if (lease == null) {
+            throw new IllegalArgumentException("'lease' could not be null.");
+        }
+
+        long now = System.nanoTime();
+        int generatorId = lease.getGeneratorId();
+        if (!holds(generatorId, lease.getEpoch()) || now - expiries[generatorId] >= 0) {
+            return null;
+        }
+        expiries[generatorId] = now + ttlNanos;
+        return new GeneratorIdLease(generatorId, lease.getEpoch(), ttl);
+    }
+
+    @Override
+    public synchronized void release(GeneratorIdLease lease) {
+        if (lease == null) {
+            throw new IllegalArgumentException("'lease' could not be null.");
+        }
+
+        if (holds(lease.getGeneratorId(), lease.getEpoch())) {
+            held[lease.getGeneratorId()] = false;
+        }
+    }
+
+    /**
+     * Gets the number of generator-id's the allocator hands out.
+     *
+     * @return Returns the number of generator-id's.
+     */
+    public int getGeneratorIds() {
+        return generatorIds;
+    }
+
+    private boolean holds(int generatorId, long epoch) {
+        return generatorId < generatorIds && held[generatorId] && epochs[generatorId] == epoch;
+    }
+
+    private static int requireMaskConfig(MaskConfig maskConfig) {
+        if (maskConfig == null) {
+            throw new IllegalArgumentException("'maskConfig' could not be null.");
+        }
+        return (int) Math.min(maskConfig.getMaxGenerators(), Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,184 @@
+package net.fisenko.utils.ids.snowflake.allocator.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.time.Duration;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdAllocator;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdLease;
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+
+/**
+ * {@link GeneratorIdAllocator} client of a {@link SocketGeneratorIdAllocatorServer}.
+ * <p>
+ * Requests are sent one at a time over a single connection, which is opened on first use and opened again on the next request after it failed. A request that can't be
+ * completed within the timeout throws an {@link UncheckedIOException}; whether the server applied it is unknown, which is safe for renewals (the lease is renewed again) and
+ * leaves an acquired generator-id unused until its lease expires.
+ * </p>
+ */
+public class SocketGeneratorIdAllocatorImpl implements GeneratorIdAllocator, AutoCloseable {
+
+    /**
+     * Default timeout of connecting and of every request.
+     */
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(1);
+
+    private final InetSocketAddress address;
+    private final int timeoutMillis;
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private boolean closed;
+
+    /**
+     * Initializes a new instance of the {@link SocketGeneratorIdAllocatorImpl} class with the {@link #DEFAULT_TIMEOUT}.
+     *
+     * @param host the host of the server.
+     * @param port the port of the server.
+     * @throws IllegalArgumentException Thrown when {@code host} is null.
+     */
+    public SocketGeneratorIdAllocatorImpl(String host, int port) {
+        this(host, port, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Initializes a new instance of the {@link SocketGeneratorIdAllocatorImpl} class. No connection is opened until the first request.
+     *
+     * @param host    the host of the server.
+     * @param port    the port of the server.
+     * @param timeout the timeout of connecting and of every request.
+     * @throws IllegalArgumentException Thrown when {@code host} or {@code timeout} is null, or {@code timeout} is not between 1 millisecond and {@link Integer#MAX_VALUE}
+     *                                  milliseconds.
+     */
+    public SocketGeneratorIdAllocatorImpl(String host, int port, Duration timeout) {
+        if (host == null) {
+            throw new IllegalArgumentException("'host' could not be null.");
+        }
+
+        if (timeout == null || timeout.toMillis() < 1 || timeout.toMillis() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("'timeout' must be between 1 and " + Integer.MAX_VALUE + " milliseconds.");
+        }
+
+        this.address = InetSocketAddress.createUnresolved(host, port);
+        this.timeoutMillis = (int) timeout.toMillis();
+    }
+
+    @Override
+    public synchronized GeneratorIdLease acquire() throws GeneratorIdUnavailableException {
+        try {
+            DataOutputStream out = connect();
+            out.writeByte(SocketProtocol.ACQUIRE);
+            out.flush();
+            return readLease();
+        } catch (IOException e) {
+            throw disconnect(e);
+        }
+    }
+
+    @Override
+    public synchronized GeneratorIdLease renew(GeneratorIdLease lease) {
+        if (lease == null) {
+            throw new IllegalArgumentException("'lease' could not be null.");
+        }
+
+        try {
+            send(SocketProtocol.RENEW, lease);
+            return readLease();
+        } catch (IOException e) {
+            throw disconnect(e);
+        }
+    }
+
+    @Override
+    public synchronized void release(GeneratorIdLease lease) {
+        if (lease == null) {
+            throw new IllegalArgumentException("'lease' could not be null.");
+        }
+
+        try {
+            send(SocketProtocol.RELEASE, lease);
+            readStatus();
+        } catch (IOException e) {
+            throw disconnect(e);
+        }
+    }
+
+    /**
+     * Closes the connection; later requests throw an {@link IllegalStateException}.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        disconnect(null);
+    }
+
+    private void send(byte operation, GeneratorIdLease lease) throws IOException {
+        DataOutputStream out = connect();
+        out.writeByte(operation);
+        out.writeInt(lease.getGeneratorId());
+        out.writeLong(lease.getEpoch());
+        out.flush();
+    }
+
+    private GeneratorIdLease readLease() throws IOException {
+        return readStatus() == SocketProtocol.OK ? SocketProtocol.readLease(in) : null;
+    }
+
+    // Returns OK or LOST; UNAVAILABLE and FAILED are thrown
+    private byte readStatus() throws IOException {
+        byte status = in.readByte();
+        switch (status) {
+            case SocketProtocol.OK:
+            case SocketProtocol.LOST:
+                return status;
+            case SocketProtocol.UNAVAILABLE:
+                throw new GeneratorIdUnavailableException(in.readUTF());
+            case SocketProtocol.FAILED:
+                throw new IllegalStateException("The allocator failed: " + in.readUTF());
+            default:
+                throw new IOException("Unknown status: " + status);
+        }
+    }
+
+    private DataOutputStream connect() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("The allocator client is closed.");
+        }
+
+        if (socket == null) {
+            Socket socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.setSoTimeout(timeoutMillis);
+                socket.connect(new InetSocketAddress(address.getHostString(), address.getPort()), timeoutMillis);
+                this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            this.socket = socket;
+        }
+        return out;
+    }
+
+    // A failed request may leave a partial response on the connection, so it's dropped
+    private UncheckedIOException disconnect(IOException cause) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing to do
+            }
+            socket = null;
+            in = null;
+            out = null;
+        }
+        return cause == null ? null : new UncheckedIOException(cause);
+    }
+}
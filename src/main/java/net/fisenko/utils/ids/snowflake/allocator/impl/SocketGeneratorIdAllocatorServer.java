@@ -0,0 +1,164 @@
+package net.fisenko.utils.ids.snowflake.allocator.impl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdAllocator;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdLease;
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+
+/**
+ * Serves a {@link GeneratorIdAllocator} to {@link SocketGeneratorIdAllocatorImpl} clients over TCP on the loopback interface, so several processes can share an
+ * {@link InMemoryGeneratorIdAllocatorImpl} and the whole allocation path, network round trips included, can be load-tested on one machine.
+ * <p>
+ * Every connection is served by its own daemon thread. Closing the server closes all connections; clients see an {@link UncheckedIOException} and their leases expire.
+ * </p>
+ */
+public class SocketGeneratorIdAllocatorServer implements AutoCloseable {
+
+    private final GeneratorIdAllocator allocator;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Initializes a new instance of the {@link SocketGeneratorIdAllocatorServer} class and starts accepting connections.
+     *
+     * @param allocator the {@link GeneratorIdAllocator} to serve.
+     * @param port      the port to listen on, or 0 for any free port (see {@link #getPort()}).
+     * @throws IllegalArgumentException Thrown when {@code allocator} is null.
+     * @throws UncheckedIOException     Thrown when the port can't be bound.
+     */
+    public SocketGeneratorIdAllocatorServer(GeneratorIdAllocator allocator, int port) {
+        if (allocator == null) {
+            throw new IllegalArgumentException("'allocator' could not be null.");
+        }
+
+        this.allocator = allocator;
+        try {
+            this.serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Thread acceptor = new Thread(this::accept, "generator-id-allocator-server");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return Returns the port.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     */
+    @Override
+    public void close() {
+        closeQuietly(serverSocket);
+        for (Socket connection : connections) {
+            closeQuietly(connection);
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true);
+                connections.add(connection);
+                Thread handler = new Thread(() -> serve(connection), "generator-id-allocator-connection");
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // The server socket was closed
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try (connection) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(connection.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+            while (true) {
+                byte operation;
+                try {
+                    operation = in.readByte();
+                } catch (EOFException e) {
+                    return;
+                }
+                handle(operation, in, out);
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The client went away or the server was closed
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    private void handle(byte operation, DataInputStream in, DataOutputStream out) throws IOException {
+        GeneratorIdLease request = null;
+        if (operation == SocketProtocol.RENEW || operation == SocketProtocol.RELEASE) {
+            int generatorId = in.readInt();
+            long epoch = in.readLong();
+            // The time-to-live of the request is ignored by the allocator
+            request = new GeneratorIdLease(generatorId, epoch, Duration.ofMillis(1));
+        }
+
+        try {
+            switch (operation) {
+                case SocketProtocol.ACQUIRE:
+                    GeneratorIdLease acquired = allocator.acquire();
+                    out.writeByte(SocketProtocol.OK);
+                    SocketProtocol.writeLease(out, acquired);
+                    break;
+                case SocketProtocol.RENEW:
+                    GeneratorIdLease renewed = allocator.renew(request);
+                    if (renewed == null) {
+                        out.writeByte(SocketProtocol.LOST);
+                    } else {
+                        out.writeByte(SocketProtocol.OK);
+                        SocketProtocol.writeLease(out, renewed);
+                    }
+                    break;
+                case SocketProtocol.RELEASE:
+                    allocator.release(request);
+                    out.writeByte(SocketProtocol.OK);
+                    break;
+                default:
+                    throw new IOException("Unknown operation: " + operation);
+            }
+        } catch (GeneratorIdUnavailableException e) {
+            out.writeByte(SocketProtocol.UNAVAILABLE);
+            out.writeUTF(String.valueOf(e.getMessage()));
+        } catch (RuntimeException e) {
+            out.writeByte(SocketProtocol.FAILED);
+            out.writeUTF(String.valueOf(e.getMessage()));
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            // Nothing to do
+        }
+    }
+}
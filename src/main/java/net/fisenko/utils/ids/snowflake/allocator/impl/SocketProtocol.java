@@ -0,0 +1,43 @@
+package net.fisenko.utils.ids.snowflake.allocator.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import net.fisenko.utils.ids.snowflake.allocator.GeneratorIdLease;
+
+/**
+ * The wire format shared by {@link SocketGeneratorIdAllocatorServer} and {@link SocketGeneratorIdAllocatorImpl}.
+ * <p>
+ * A request is an operation byte, followed by the generator-id ({@code int}) and epoch ({@code long}) of the lease for {@link #RENEW} and {@link #RELEASE}. A response is a
+ * status byte, followed by the generator-id, epoch and time-to-live in milliseconds ({@code long}) of the lease for {@link #OK} answers to {@link #ACQUIRE} and {@link #RENEW},
+ * or by a message for {@link #UNAVAILABLE} and {@link #FAILED}. All numbers are big-endian.
+ * </p>
+ */
+final class SocketProtocol {
+
+    static final byte ACQUIRE = 1;
+    static final byte RENEW = 2;
+    static final byte RELEASE = 3;
+
+    static final byte OK = 0;
+    static final byte UNAVAILABLE = 1;
+    static final byte LOST = 2;
+    static final byte FAILED = 3;
+
+    private SocketProtocol() {
+    }
+
+    static void writeLease(DataOutputStream out, GeneratorIdLease lease) throws IOException {
+        out.writeInt(lease.getGeneratorId());
+        out.writeLong(lease.getEpoch());
+        out.writeLong(lease.getTtl().toMillis());
+    }
+
+    static GeneratorIdLease readLease(DataInputStream in) throws IOException {
+        int generatorId = in.readInt();
+        long epoch = in.readLong();
+        long ttlMillis = in.readLong();
+        return new GeneratorIdLease(generatorId, epoch, Duration.ofMillis(ttlMillis));
+    }
+}
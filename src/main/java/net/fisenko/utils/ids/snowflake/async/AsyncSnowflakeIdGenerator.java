@@ -0,0 +1,27 @@
+package net.fisenko.utils.ids.snowflake.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Provides the interface for a non-blocking Snowflake Id generator. None of the methods block or spin the calling thread; when the current tick runs out of sequence numbers the
+ * remaining work is scheduled for the next tick instead.
+ */
+public interface AsyncSnowflakeIdGenerator {
+
+    /**
+     * Creates a batch of new Id's asynchronously. The Id's are in ascending order.
+     *
+     * @param count the number of Id's to create.
+     * @return a future that completes with the Id's, or exceptionally when the generator fails (e.g. when clock going backwards is detected).
+     */
+    CompletableFuture<long[]> nextBatchAsync(int count);
+
+    /**
+     * Returns a publisher that emits new Id's as they are requested by its subscribers. Every subscriber receives its own, unbounded stream of Id's; all streams are drawn from
+     * the same generator so no Id is emitted twice.
+     *
+     * @return publisher of Id's.
+     */
+    Flow.Publisher<Long> publisher();
+}
@@ -0,0 +1,101 @@
+package net.fisenko.utils.ids.snowflake.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.IdRange;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+
+/**
+ * Non-blocking {@link AsyncSnowflakeIdGenerator} on top of a {@link SnowflakeIdGenerator}. Id's are reserved with {@link SnowflakeIdGenerator#tryNextRange(int)} on the calling
+ * thread; when the tick is exhausted the rest of the work continues on the {@link ScheduledExecutorService} one tick later, so the generator's
+ * {@link net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy} is never involved.
+ */
+public class AsyncSnowflakeIdGeneratorImpl implements AsyncSnowflakeIdGenerator {
+
+    private final SnowflakeIdGenerator generator;
+    private final ScheduledExecutorService scheduler;
+    private final long retryDelayNanos;
+
+    /**
+     * Initializes a new instance of the {@link AsyncSnowflakeIdGeneratorImpl} class.
+     *
+     * @param generator the {@link SnowflakeIdGenerator} to take Id's from.
+     * @param scheduler the executor to continue on when the current tick is exhausted.
+     * @throws IllegalArgumentException Thrown when either generator or scheduler is null.
+     */
+    public AsyncSnowflakeIdGeneratorImpl(SnowflakeIdGenerator generator, ScheduledExecutorService scheduler) {
+        if (generator == null) {
+            throw new IllegalArgumentException("'generator' could not be null.");
+        }
+
+        if (scheduler == null) {
+            throw new IllegalArgumentException("'scheduler' could not be null.");
+        }
+
+        this.generator = generator;
+        this.scheduler = scheduler;
+        this.retryDelayNanos = generator.getTimeSource().getTickDuration().toNanos();
+    }
+
+    @Override
+    public CompletableFuture<long[]> nextBatchAsync(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("'count' could not be negative.");
+        }
+
+        CompletableFuture<long[]> future = new CompletableFuture<>();
+        fill(new long[count], 0, future);
+        return future;
+    }
+
+    @Override
+    public Flow.Publisher<Long> publisher() {
+        return subscriber -> {
+            if (subscriber == null) {
+                throw new NullPointerException("'subscriber' could not be null.");
+            }
+
+            IdSubscription subscription = new IdSubscription(generator, subscriber, scheduler, retryDelayNanos);
+            subscriber.onSubscribe(subscription);
+        };
+    }
+
+    /**
+     * Fills the rest of {@code ids} starting at {@code off}, continuing on the scheduler when the current tick is exhausted.
+     *
+     * @param ids    the batch to fill.
+     * @param off    the position of the next Id in {@code ids}.
+     * @param future the future to complete once the batch is filled.
+     */
+    private void fill(long[] ids, int off, CompletableFuture<long[]> future) {
+        try {
+            while (off < ids.length) {
+                IdRange range = generator.tryNextRange(ids.length - off);
+                if (range == null) {
+                    int next = off;
+                    schedule(() -> fill(ids, next, future));
+                    return;
+                }
+
+                long first = range.getFirst();
+                for (int i = 0; i < range.getCount(); i++) {
+                    ids[off++] = first + i;
+                }
+            }
+            future.complete(ids);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Runs the task on the scheduler once the current tick is over.
+     *
+     * @param task the task to run.
+     */
+    private void schedule(Runnable task) {
+        scheduler.schedule(task, retryDelayNanos, TimeUnit.NANOSECONDS);
+    }
+}
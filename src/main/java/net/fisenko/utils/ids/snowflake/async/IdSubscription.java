@@ -0,0 +1,130 @@
+package net.fisenko.utils.ids.snowflake.async;
+
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import net.fisenko.utils.ids.snowflake.IdRange;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+
+/**
+ * Subscription of a single subscriber to the Id publisher of {@link AsyncSnowflakeIdGeneratorImpl}.
+ * <p>
+ * Id's are emitted only as far as the subscriber has requested them. Emission is serialized with a work-in-progress counter: whichever thread increments it from zero drains
+ * the outstanding demand, other threads (and re-entrant calls from {@code onNext}) only record that there is more work. When the tick is exhausted the drain loop stops and a
+ * retry is scheduled for the next tick. Errors are recorded and delivered by the drain loop as well, so {@code onError} never overlaps {@code onNext}.
+ * </p>
+ */
+final class IdSubscription implements Flow.Subscription {
+
+    // The maximum number of Id's reserved from the generator at once; keeps a large demand from monopolizing a tick.
+    private static final int MAX_RANGE = 1024;
+
+    private final SnowflakeIdGenerator generator;
+    private final Flow.Subscriber<? super Long> subscriber;
+    private final ScheduledExecutorService scheduler;
+    private final long retryDelayNanos;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    // Set once, by cancel() or by delivering an error; nothing is signalled after it
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+    private volatile boolean waiting;
+
+    IdSubscription(SnowflakeIdGenerator generator, Flow.Subscriber<? super Long> subscriber, ScheduledExecutorService scheduler, long retryDelayNanos) {
+        this.generator = generator;
+        this.subscriber = subscriber;
+        this.scheduler = scheduler;
+        this.retryDelayNanos = retryDelayNanos;
+    }
+
+    @Override
+    public void request(long n) {
+        if (cancelled.get()) {
+            return;
+        }
+
+        if (n <= 0) {
+            error.compareAndSet(null, new IllegalArgumentException("'n' must be positive."));
+            drain();
+            return;
+        }
+
+        requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            if (error.get() == null && !waiting) {
+                emit();
+            }
+            Throwable e = error.get();
+            if (e != null && cancelled.compareAndSet(false, true)) {
+                subscriber.onError(e);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Emits Id's until the outstanding demand is met, the subscription is cancelled, an error is pending or the tick is exhausted.
+     */
+    private void emit() {
+        long r = requested.get();
+        long emitted = 0;
+
+        while (emitted != r && !isDone()) {
+            IdRange range;
+            try {
+                range = generator.tryNextRange((int) Math.min(r - emitted, MAX_RANGE));
+            } catch (RuntimeException e) {
+                error.compareAndSet(null, e);
+                break;
+            }
+
+            if (range == null) {
+                waiting = true;
+                try {
+                    scheduler.schedule(this::retry, retryDelayNanos, TimeUnit.NANOSECONDS);
+                } catch (RuntimeException e) {
+                    error.compareAndSet(null, e);
+                }
+                break;
+            }
+
+            // Id's left over from a range after cancellation or an error are simply skipped
+            long first = range.getFirst();
+            for (int i = 0; i < range.getCount() && !isDone(); i++) {
+                subscriber.onNext(first + i);
+            }
+            emitted += range.getCount();
+        }
+
+        if (emitted != 0 && r != Long.MAX_VALUE) {
+            requested.addAndGet(-emitted);
+        }
+    }
+
+    private boolean isDone() {
+        return cancelled.get() || error.get() != null;
+    }
+
+    private void retry() {
+        waiting = false;
+        drain();
+    }
+}
@@ -0,0 +1,128 @@
+package net.fisenko.utils.ids.snowflake.config;
+
+import net.fisenko.utils.ids.metrics.GeneratorMetrics;
+import net.fisenko.utils.ids.metrics.impl.NoGeneratorMetricsImpl;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.highWaterMark.HighWaterMark;
+import net.fisenko.utils.ids.snowflake.highWaterMark.impl.NoHighWaterMarkImpl;
+import net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy;
+import net.fisenko.utils.ids.snowflake.overflow.impl.ThrowOverflowStrategyImpl;
+
+/**
+ * Holds the optional settings of a {@link SnowflakeIdGenerator}. Instances are immutable; the {@code with...} methods return a copy with the given setting changed.
+ */
+public final class GeneratorOptions {
+
+    /**
+     * Gets the default {@link GeneratorOptions} which throw a {@link net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException} when the sequence overflows, don't
+     * keep a {@link HighWaterMark} and don't count {@link GeneratorMetrics}.
+     */
+    public static final GeneratorOptions Default = new GeneratorOptions(new ThrowOverflowStrategyImpl());
+    private final SequenceOverflowStrategy sequenceOverflowStrategy;
+    private final HighWaterMark highWaterMark;
+    private final GeneratorMetrics metrics;
+
+    /**
+     * Initializes a new instance of the {@link GeneratorOptions} class.
+     *
+     * @param sequenceOverflowStrategy the {@link SequenceOverflowStrategy} to use when the sequence of a tick is exhausted.
+     * @throws IllegalArgumentException Thrown when {@code sequenceOverflowStrategy} is null.
+     */
+    public GeneratorOptions(SequenceOverflowStrategy sequenceOverflowStrategy) {
+        this(sequenceOverflowStrategy, new NoHighWaterMarkImpl());
+    }
+
+    /**
+     * Initializes a new instance of the {@link GeneratorOptions} class.
+     *
+     * @param sequenceOverflowStrategy the {@link SequenceOverflowStrategy} to use when the sequence of a tick is exhausted.
+     * @param highWaterMark            the {@link HighWaterMark} that records the highest tick issued, so a restarted generator resumes after it.
+     * @throws IllegalArgumentException Thrown when {@code sequenceOverflowStrategy} or {@code highWaterMark} is null.
+     */
+    public GeneratorOptions(SequenceOverflowStrategy sequenceOverflowStrategy, HighWaterMark highWaterMark) {
+        this(sequenceOverflowStrategy, highWaterMark, new NoGeneratorMetricsImpl());
+    }
+
+    /**
+     * Initializes a new instance of the {@link GeneratorOptions} class.
+     *
+     * @param sequenceOverflowStrategy the {@link SequenceOverflowStrategy} to use when the sequence of a tick is exhausted.
+     * @param highWaterMark            the {@link HighWaterMark} that records the highest tick issued, so a restarted generator resumes after it.
+     * @param metrics                  the {@link GeneratorMetrics} the generator counts its activity in.
+     * @throws IllegalArgumentException Thrown when {@code sequenceOverflowStrategy}, {@code highWaterMark} or {@code metrics} is null.
+     */
+    public GeneratorOptions(SequenceOverflowStrategy sequenceOverflowStrategy, HighWaterMark highWaterMark, GeneratorMetrics metrics) {
+        if (sequenceOverflowStrategy == null) {
+            throw new IllegalArgumentException("'sequenceOverflowStrategy' could not be null.");
+        }
+        if (highWaterMark == null) {
+            throw new IllegalArgumentException("'highWaterMark' could not be null.");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("'metrics' could not be null.");
+        }
+        this.sequenceOverflowStrategy = sequenceOverflowStrategy;
+        this.highWaterMark = highWaterMark;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the {@link SequenceOverflowStrategy} to use when the sequence of a tick is exhausted.
+     *
+     * @return Returns the strategy.
+     */
+    public SequenceOverflowStrategy getSequenceOverflowStrategy() {
+        return sequenceOverflowStrategy;
+    }
+
+    /**
+     * Gets the {@link HighWaterMark} that records the highest tick issued.
+     *
+     * @return Returns the high-water mark.
+     */
+    public HighWaterMark getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Gets the {@link GeneratorMetrics} the generator counts its activity in.
+     *
+     * @return Returns the metrics.
+     */
+    public GeneratorMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns a copy of these options with the given {@link SequenceOverflowStrategy}.
+     *
+     * @param sequenceOverflowStrategy the {@link SequenceOverflowStrategy} to use when the sequence of a tick is exhausted.
+     * @return Returns the new options.
+     * @throws IllegalArgumentException Thrown when {@code sequenceOverflowStrategy} is null.
+     */
+    public GeneratorOptions withSequenceOverflowStrategy(SequenceOverflowStrategy sequenceOverflowStrategy) {
+        return new GeneratorOptions(sequenceOverflowStrategy, highWaterMark, metrics);
+    }
+
+    /**
+     * Returns a copy of these options with the given {@link HighWaterMark}.
+     *
+     * @param highWaterMark the {@link HighWaterMark} that records the highest tick issued.
+     * @return Returns the new options.
+     * @throws IllegalArgumentException Thrown when {@code highWaterMark} is null.
+     */
+    public GeneratorOptions withHighWaterMark(HighWaterMark highWaterMark) {
+        return new GeneratorOptions(sequenceOverflowStrategy, highWaterMark, metrics);
+    }
+
+    /**
+     * Returns a copy of these options with the given {@link GeneratorMetrics}.
+     *
+     * @param metrics the {@link GeneratorMetrics} the generator counts its activity in.
+     * @return Returns the new options.
+     * @throws IllegalArgumentException Thrown when {@code metrics} is null.
+     */
+    public GeneratorOptions withMetrics(GeneratorMetrics metrics) {
+        return new GeneratorOptions(sequenceOverflowStrategy, highWaterMark, metrics);
+    }
+}
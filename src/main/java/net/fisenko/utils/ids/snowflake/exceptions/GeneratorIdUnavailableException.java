@@ -0,0 +1,36 @@
+package net.fisenko.utils.ids.snowflake.exceptions;
+
+/**
+ * The exception that is thrown when no generator-id can be leased because all of them are held by other generators.
+ */
+public class GeneratorIdUnavailableException extends RuntimeException {
+
+    /**
+     * Initializes a new instance of the {@link GeneratorIdUnavailableException} class with a message that describes the error.
+     *
+     * @param message The message that describes the exception. The caller of this constructor is required to ensure that this string has been localized for the current system
+     *                culture.
+     */
+    public GeneratorIdUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Initializes a new instance of the {@link GeneratorIdUnavailableException} class.
+     */
+    public GeneratorIdUnavailableException() {
+        super("No generator-id available");
+    }
+
+    /**
+     * Initializes a new instance of the {@link GeneratorIdUnavailableException} class with a message that describes the error and underlying exception.
+     *
+     * @param message        The message that describes the exception. The caller of this constructor is required to ensure that this string has been localized for the current
+     *                       system culture.
+     * @param innerException The exception that is the cause of the current {@link GeneratorIdUnavailableException}. If the innerException parameter is not null, the current
+     *                       exception is raised in a catch block that handles the inner exception.
+     */
+    public GeneratorIdUnavailableException(String message, Exception innerException) {
+        super(message, innerException);
+    }
+}
@@ -3,7 +3,7 @@ package net.fisenko.utils.ids.snowflake.exceptions;
 /**
  * The exception that is thrown when a clock going backwards is detected.
  */
-public class InvalidSystemClockException extends Exception {
+public class InvalidSystemClockException extends RuntimeException {
 
     /**
      * Initializes a new instance of the {@link InvalidSystemClockException} class with a message that describes the error.
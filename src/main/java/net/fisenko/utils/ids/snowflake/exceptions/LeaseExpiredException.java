@@ -0,0 +1,36 @@
+package net.fisenko.utils.ids.snowflake.exceptions;
+
+/**
+ * The exception that is thrown when a generator is asked for Id's after the lease on its generator-id expired or was lost.
+ */
+public class LeaseExpiredException extends RuntimeException {
+
+    /**
+     * Initializes a new instance of the {@link LeaseExpiredException} class with a message that describes the error.
+     *
+     * @param message The message that describes the exception. The caller of this constructor is required to ensure that this string has been localized for the current system
+     *                culture.
+     */
+    public LeaseExpiredException(String message) {
+        super(message);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LeaseExpiredException} class.
+     */
+    public LeaseExpiredException() {
+        super("Lease expired");
+    }
+
+    /**
+     * Initializes a new instance of the {@link LeaseExpiredException} class with a message that describes the error and underlying exception.
+     *
+     * @param message        The message that describes the exception. The caller of this constructor is required to ensure that this string has been localized for the current
+     *                       system culture.
+     * @param innerException The exception that is the cause of the current {@link LeaseExpiredException}. If the innerException parameter is not null, the current exception is
+     *                       raised in a catch block that handles the inner exception.
+     */
+    public LeaseExpiredException(String message, Exception innerException) {
+        super(message, innerException);
+    }
+}
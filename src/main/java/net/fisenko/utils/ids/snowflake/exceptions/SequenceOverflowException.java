@@ -3,7 +3,7 @@ package net.fisenko.utils.ids.snowflake.exceptions;
 /**
  * The exception that is thrown when a sequence overflows (e.g. too many Id's generated within the same timespan (ms)).
  */
-public class SequenceOverflowException extends Exception {
+public class SequenceOverflowException extends RuntimeException {
 
     /**
      * Initializes a new instance of the {@link SequenceOverflowException} class with a message that describes the error.
@@ -0,0 +1,28 @@
+package net.fisenko.utils.ids.snowflake.highWaterMark;
+
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+
+/**
+ * Provides the interface for a record of the highest tick a {@link SnowflakeIdGenerator} has issued Id's for, kept across restarts.
+ * <p>
+ * A generator calls {@link #advance(long)} for every tick it issues Id's in, before the Id's are returned, and reads {@link #get()} once when it's created: it then issues Id's
+ * only in ticks after the mark, even when the clock stepped back while the process was down. {@link #advance(long)} is on the hot path of every generated Id, so implementations
+ * should only do real work when the tick passes the mark.
+ * </p>
+ */
+public interface HighWaterMark {
+
+    /**
+     * Gets the mark; every Id issued so far has a tick at or below it.
+     *
+     * @return Returns the highest tick that may have been issued, or -1 when no Id's have been issued.
+     */
+    long get();
+
+    /**
+     * Raises the mark to at least {@code ticks}; the mark never moves backwards.
+     *
+     * @param ticks the tick the generator is about to issue Id's in.
+     */
+    void advance(long ticks);
+}
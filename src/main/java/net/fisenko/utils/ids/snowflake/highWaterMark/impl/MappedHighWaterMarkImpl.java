@@ -0,0 +1,268 @@
+package net.fisenko.utils.ids.snowflake.highWaterMark.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.fisenko.utils.ids.snowflake.highWaterMark.HighWaterMark;
+
+/**
+ * A {@link HighWaterMark} kept in a small memory-mapped file.
+ * <p>
+ * The file holds two ticks. The last tick issued is stored whenever the generator moves to a new tick, so a restarted generator resumes right after it, or at the clock when
+ * that's later. The reservation is a durable bound above it: when a tick passes the reservation, the reservation is raised to that tick plus {@code window} with a
+ * compare-and-set on the mapped memory, and a daemon thread forces it to the storage device in the background. Until the clock moves to a new tick, {@link #advance(long)} is a
+ * single read of a volatile field.
+ * </p>
+ * <p>
+ * A store to mapped memory survives a crash of the process, but not necessarily a crash of the operating system. The last tick issued is trusted when the file was closed
+ * cleanly, or when it was last opened since the host booted (read from {@code /proc/sys/kernel/random/boot_id} on Linux). Otherwise, e.g. after a crash of the operating
+ * system, the generator resumes after the reservation; that's up to {@code window} ticks ahead of the clock, so Id's are stamped ahead of time and the generator waits for the
+ * clock once that tick is exhausted.
+ * </p>
+ * <p>
+ * The file belongs to a single generator (generator-id, epoch and tick duration); generators must not share a file, and the file must be deleted when the epoch or tick
+ * duration changes. Call {@link #close()} when the generator is no longer used.
+ * </p>
+ */
+public final class MappedHighWaterMarkImpl implements HighWaterMark, AutoCloseable {
+
+    /**
+     * Default number of ticks reserved ahead whenever the reservation is raised; a second with the default tick of 1 millisecond.
+     */
+    public static final long DEFAULT_WINDOW = 1000;
+    // Identifies a high-water mark file: "SFHWM" and the version of the layout
+    private static final long MAGIC = 0x5346_4857_4D00_0002L;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int RESERVED_OFFSET = Long.BYTES;
+    private static final int ISSUED_OFFSET = 2 * Long.BYTES;
+    // CLEAN after close() forced the file, OPEN while it's used
+    private static final int STATE_OFFSET = 3 * Long.BYTES;
+    private static final int BOOT_ID_OFFSET = 4 * Long.BYTES;
+    private static final int FILE_SIZE = 6 * Long.BYTES;
+    private static final long OPEN = 1;
+    private static final long CLEAN = 2;
+    private static final Path BOOT_ID = Paths.get("/proc/sys/kernel/random/boot_id");
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final long window;
+    // The mark the file was opened with; the last tick issued when it's trusted, the reservation otherwise
+    private final long restored;
+    private final AtomicBoolean flushPending = new AtomicBoolean();
+    private final Thread flusher;
+    // The reservation and the last tick issued as last read from or written to the file; they only ever lag behind the file
+    private volatile long reserved;
+    private volatile long issued;
+    private volatile boolean closed;
+
+    /**
+     * Initializes a new instance of the {@link MappedHighWaterMarkImpl} class that reserves {@value #DEFAULT_WINDOW} ticks ahead.
+     *
+     * @param file the file to keep the mark in; created when it doesn't exist.
+     * @throws IllegalArgumentException Thrown when {@code file} is null or is not a high-water mark file.
+     * @throws UncheckedIOException     Thrown when the file can't be opened or mapped.
+     */
+    public MappedHighWaterMarkImpl(Path file) {
+        this(file, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Initializes a new instance of the {@link MappedHighWaterMarkImpl} class.
+     *
+     * @param file   the file to keep the mark in; created when it doesn't exist.
+     * @param window the number of ticks to reserve ahead whenever the reservation is raised; larger windows force the file less often, but a generator restarted after a
+     *               crash of the operating system stamps its first Id's up to {@code window} ticks ahead.
+     * @throws IllegalArgumentException Thrown when {@code file} is null or is not a high-water mark file, or {@code window} is negative.
+     * @throws UncheckedIOException     Thrown when the file can't be opened or mapped.
+     */
+    public MappedHighWaterMarkImpl(Path file, long window) {
+        this(file, window, readBootId());
+    }
+
+    /**
+     * Initializes a new instance of the {@link MappedHighWaterMarkImpl} class with the given boot id of the host, or null when it's unknown.
+     */
+    MappedHighWaterMarkImpl(Path file, long window, UUID bootId) {
+        if (file == null) {
+            throw new IllegalArgumentException("'file' could not be null.");
+        }
+
+        if (window < 0) {
+            throw new IllegalArgumentException("'window' could not be negative.");
+        }
+
+        boolean created;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            created = channel.size() == 0;
+            if (!created && channel.size() != FILE_SIZE) {
+                channel.close();
+                throw new IllegalArgumentException(String.format("'%s' is not a high-water mark file.", file));
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Mapping grows a new file to FILE_SIZE zeros; a crash before MAGIC was stored leaves it that way, and it never held a mark
+        created |= isZeroed(buffer);
+
+        if (created) {
+            LONGS.setVolatile(buffer, RESERVED_OFFSET, -1L);
+            LONGS.setVolatile(buffer, ISSUED_OFFSET, -1L);
+            LONGS.setVolatile(buffer, STATE_OFFSET, CLEAN);
+            LONGS.setVolatile(buffer, MAGIC_OFFSET, MAGIC);
+        } else if ((long) LONGS.getVolatile(buffer, MAGIC_OFFSET) != MAGIC) {
+            close();
+            throw new IllegalArgumentException(String.format("'%s' is not a high-water mark file.", file));
+        }
+
+        long mostSignificantBits = bootId == null ? 0 : bootId.getMostSignificantBits();
+        long leastSignificantBits = bootId == null ? 0 : bootId.getLeastSignificantBits();
+        boolean sameBoot = bootId != null
+                && (long) LONGS.getVolatile(buffer, BOOT_ID_OFFSET) == mostSignificantBits
+                && (long) LONGS.getVolatile(buffer, BOOT_ID_OFFSET + Long.BYTES) == leastSignificantBits;
+        boolean trusted = sameBoot || (long) LONGS.getVolatile(buffer, STATE_OFFSET) == CLEAN;
+        long reservation = (long) LONGS.getVolatile(buffer, RESERVED_OFFSET);
+        long lastIssued = (long) LONGS.getVolatile(buffer, ISSUED_OFFSET);
+        this.restored = trusted ? lastIssued : Math.max(reservation, lastIssued);
+
+        // The last tick issued may only lag behind the restored mark from now on
+        LONGS.setVolatile(buffer, ISSUED_OFFSET, restored);
+        LONGS.setVolatile(buffer, BOOT_ID_OFFSET, mostSignificantBits);
+        LONGS.setVolatile(buffer, BOOT_ID_OFFSET + Long.BYTES, leastSignificantBits);
+        LONGS.setVolatile(buffer, STATE_OFFSET, OPEN);
+        buffer.force();
+
+        this.window = window;
+        this.reserved = reservation;
+        this.issued = restored;
+        this.flusher = new Thread(this::flushLoop, "high-water-mark-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Gets the mark: the last tick issued when the file was opened after a clean close or within the same boot of the host, and the reservation otherwise; afterwards the last
+     * tick issued.
+     *
+     * @return Returns the highest tick that may have been issued, or -1 when no Id's have been issued.
+     */
+    @Override
+    public long get() {
+        return Math.max(restored, (long) LONGS.getVolatile(buffer, ISSUED_OFFSET));
+    }
+
+    @Override
+    public void advance(long ticks) {
+        if (ticks > issued) {
+            issue(ticks);
+        }
+    }
+
+    /**
+     * Stops the background flushing, forces the mark to the storage device a last time and marks the file as closed cleanly. The mark must not be advanced afterwards.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (flusher != null) {
+            flusher.interrupt();
+        }
+        try {
+            if (flusher != null) {
+                buffer.force();
+                LONGS.setVolatile(buffer, STATE_OFFSET, CLEAN);
+            }
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void issue(long ticks) {
+        if (closed) {
+            throw new IllegalStateException("The high-water mark is closed.");
+        }
+
+        // The reservation covers the tick before it's recorded as issued
+        if (ticks > reserved) {
+            raise(ticks);
+        }
+
+        // Threads may report ticks out of order; the file keeps the highest
+        long current;
+        do {
+            current = (long) LONGS.getVolatile(buffer, ISSUED_OFFSET);
+            if (current >= ticks) {
+                break;
+            }
+        } while (!LONGS.compareAndSet(buffer, ISSUED_OFFSET, current, ticks));
+        issued = Math.max(current, ticks);
+    }
+
+    private void raise(long ticks) {
+        long target = ticks + window;
+        long current;
+        do {
+            current = (long) LONGS.getVolatile(buffer, RESERVED_OFFSET);
+            if (current >= ticks) {
+                // Another thread raised the reservation far enough already
+                reserved = current;
+                return;
+            }
+        } while (!LONGS.compareAndSet(buffer, RESERVED_OFFSET, current, target));
+
+        reserved = target;
+        if (flushPending.compareAndSet(false, true)) {
+            synchronized (flushPending) {
+                flushPending.notifyAll();
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            synchronized (flushPending) {
+                while (!flushPending.get() && !closed) {
+                    try {
+                        flushPending.wait();
+                    } catch (InterruptedException e) {
+                        // Woken up by close()
+                    }
+                }
+            }
+            if (flushPending.getAndSet(false) && !closed) {
+                buffer.force();
+            }
+        }
+    }
+
+    private static boolean isZeroed(MappedByteBuffer buffer) {
+        for (int offset = 0; offset < FILE_SIZE; offset += Long.BYTES) {
+            if ((long) LONGS.getVolatile(buffer, offset) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static UUID readBootId() {
+        try {
+            return UUID.fromString(Files.readString(BOOT_ID).trim());
+        } catch (IOException | RuntimeException e) {
+            // Not Linux; the last tick issued is only trusted after a clean close
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package net.fisenko.utils.ids.snowflake.highWaterMark.impl;
+
+import net.fisenko.utils.ids.snowflake.highWaterMark.HighWaterMark;
+
+/**
+ * A {@link HighWaterMark} that records nothing; a restarted generator only relies on the clock. This is the default.
+ */
+public final class NoHighWaterMarkImpl implements HighWaterMark {
+
+    /**
+     * Gets the mark.
+     *
+     * @return Returns -1.
+     */
+    @Override
+    public long get() {
+        return -1;
+    }
+
+    /**
+     * Does nothing.
+     *
+     * @param ticks the tick the generator is about to issue Id's in.
+     */
+    @Override
+    public void advance(long ticks) {
+    }
+}
@@ -0,0 +1,334 @@
+package net.fisenko.utils.ids.snowflake.lease;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+
+/**
+ * Hands out generator-id's to the processes of a single host through a shared memory-mapped file, without a coordination service.
+ * <p>
+ * The file holds one slot per generator-id. A slot is a single {@code long} packing the owner of the lease (a random token) and the time the lease expires; an empty slot is
+ * 0. {@link #acquire()} takes the first slot that is empty or expired with a compare-and-set on the mapped memory, which is atomic across all processes that map the file. Every
+ * lease is renewed by a heartbeat thread at a third of its time-to-live, so the slot of a process that crashed or hangs becomes free once its lease expires. The file is created
+ * and checked under an exclusive file lock; leasing itself takes no locks.
+ * </p>
+ * <p>
+ * All processes must use the same slot count and should use the same time-to-live, and the hosts' clocks are assumed to be shared (the leases' expiry is wall-clock time). A
+ * process that is paused for longer than the time-to-live loses its lease; check {@link Lease#isValid()} before generating Id's.
+ * </p>
+ * <p>
+ * Several tables may share a file within one JVM as well, e.g. one per class loader; they lease from the same slots as tables of other processes do. Code that locks the file
+ * itself while a table is being created makes the constructor fail with an {@link java.nio.channels.OverlappingFileLockException}.
+ * </p>
+ */
+public final class MappedGeneratorIdLeaseTable implements AutoCloseable {
+
+    /**
+     * Default time-to-live of a lease.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(10);
+
+    /**
+     * The maximum number of slots; limits the size of the file to 512 KiB.
+     */
+    public static final int MAX_SLOTS = 1 << 16;
+    // Identifies a lease table file: "SFLEASE" and the version of the layout
+    private static final long MAGIC = 0x5346_4C45_4153_4501L;
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+    // A slot is the owner token in the high bits and the expiry (milliseconds since the Unix epoch) in the low bits
+    private static final int EXPIRY_BITS = 44;
+    private static final long MASK_EXPIRY = (1L << EXPIRY_BITS) - 1;
+    private static final int MAX_TOKEN = 1 << (Long.SIZE - EXPIRY_BITS - 1);
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    // Serializes the file locks taken by the tables of this JVM
+    private static final Object FILE_LOCK = new Object();
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int slots;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final ScheduledExecutorService heartbeats;
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * Initializes a new instance of the {@link MappedGeneratorIdLeaseTable} class with a slot for every generator-id of {@code maskConfig} (at most {@value #MAX_SLOTS}) and
+     * leases that expire after {@link #DEFAULT_TTL}.
+     *
+     * @param file       the file shared by all processes; created when it doesn't exist.
+     * @param maskConfig the {@link MaskConfig} of the generators.
+     * @throws IllegalArgumentException Thrown when {@code file} or {@code maskConfig} is null, or {@code file} is not a lease table with the same number of slots.
+     * @throws UncheckedIOException     Thrown when the file can't be opened, locked or mapped.
+     */
+    public MappedGeneratorIdLeaseTable(Path file, MaskConfig maskConfig) {
+        this(file, requireMaskConfig(maskConfig), DEFAULT_TTL);
+    }
+
+    /**
+     * Initializes a new instance of the {@link MappedGeneratorIdLeaseTable} class.
+     *
+     * @param file  the file shared by all processes; created when it doesn't exist.
+     * @param slots the number of generator-id's; slot {@code i} is generator-id {@code i}.
+     * @param ttl   the time after which a lease that isn't renewed expires.
+     * @throws IllegalArgumentException Thrown when {@code file} or {@code ttl} is null, {@code slots} is not between 1 and {@value #MAX_SLOTS}, {@code ttl} is shorter than 3
+     *                                  milliseconds, or {@code file} is not a lease table with the same number of slots.
+     * @throws UncheckedIOException     Thrown when the file can't be opened, locked or mapped.
+     */
+    public MappedGeneratorIdLeaseTable(Path file, int slots, Duration ttl) {
+        this(file, slots, ttl, Clock.systemUTC());
+    }
+
+    /**
+     * Initializes a new instance of the {@link MappedGeneratorIdLeaseTable} class.
+     *
+     * @param file  the file shared by all processes; created when it doesn't exist.
+     * @param slots the number of generator-id's; slot {@code i} is generator-id {@code i}.
+     * @param ttl   the time after which a lease that isn't renewed expires.
+     * @param clock the clock the expiry of leases is based on.
+     * @throws IllegalArgumentException Thrown when {@code file}, {@code ttl} or {@code clock} is null, {@code slots} is not between 1 and {@value #MAX_SLOTS}, {@code ttl} is
+     *                                  shorter than 3 milliseconds, or {@code file} is not a lease table with the same number of slots.
+     * @throws UncheckedIOException     Thrown when the file can't be opened, locked or mapped.
+     */
+    public MappedGeneratorIdLeaseTable(Path file, int slots, Duration ttl, Clock clock) {
+        if (file == null) {
+            throw new IllegalArgumentException("'file' could not be null.");
+        }
+
+        if (slots < 1 || slots > MAX_SLOTS) {
+            throw new IllegalArgumentException(String.format("'slots' must be between 1 and %d (inclusive).", MAX_SLOTS));
+        }
+
+        if (ttl == null || ttl.toMillis() < 3) {
+            throw new IllegalArgumentException("'ttl' must be at least 3 milliseconds.");
+        }
+
+        if (clock == null) {
+            throw new IllegalArgumentException("'clock' could not be null.");
+        }
+
+        this.slots = slots;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+
+        long size = HEADER_SIZE + (long) slots * Long.BYTES;
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean valid = true;
+            // Other processes may be creating the file at the same time. File locks are held on behalf of the whole JVM, so tables of this JVM take turns instead of failing
+            // with an OverlappingFileLockException.
+            synchronized (FILE_LOCK) {
+                FileLock lock = channel.lock();
+                try {
+                    if (channel.size() == 0) {
+                        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putLong(MAGIC).putLong(slots).flip();
+                        channel.write(header, 0);
+                        // The slots start out empty (0)
+                        channel.write(ByteBuffer.allocate(Long.BYTES), size - Long.BYTES);
+                        channel.force(true);
+                    } else {
+                        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                        channel.read(header, 0);
+                        header.flip();
+                        valid = channel.size() == size && header.getLong() == MAGIC && header.getLong() == slots;
+                    }
+                } finally {
+                    lock.release();
+                }
+            }
+            if (!valid) {
+                channel.close();
+                throw new IllegalArgumentException(String.format("'%s' is not a lease table with %d slots.", file, slots));
+            }
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "generator-id-lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static int requireMaskConfig(MaskConfig maskConfig) {
+        if (maskConfig == null) {
+            throw new IllegalArgumentException("'maskConfig' could not be null.");
+        }
+        return (int) Math.min(maskConfig.getMaxGenerators(), MAX_SLOTS);
+    }
+
+    /**
+     * Gets the number of slots, i.e. generator-id's, of the table.
+     *
+     * @return Returns the number of slots.
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * Leases a free generator-id; the lease is renewed in the background until it's closed.
+     *
+     * @return Returns the lease.
+     * @throws GeneratorIdUnavailableException Thrown when every slot is held by an unexpired lease.
+     * @throws IllegalStateException           Thrown when the table is closed.
+     */
+    public Lease acquire() {
+        checkOpen();
+
+        int token = ThreadLocalRandom.current().nextInt(1, MAX_TOKEN);
+        // Start at a random slot so processes starting at the same time don't all race for slot 0
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        for (int i = 0; i < slots; i++) {
+            int slot = (start + i) % slots;
+            int offset = offsetOf(slot);
+            long word = (long) LONGS.getVolatile(buffer, offset);
+            long now = clock.millis();
+            if (word != 0 && (word & MASK_EXPIRY) > now) {
+                continue;
+            }
+
+            long expiry = now + ttlMillis;
+            if (LONGS.compareAndSet(buffer, offset, word, pack(token, expiry))) {
+                Lease lease = new Lease(slot, token, expiry);
+                leases.add(lease);
+                lease.heartbeat = heartbeats.scheduleAtFixedRate(lease::renew, ttlMillis / 3, ttlMillis / 3, TimeUnit.MILLISECONDS);
+                return lease;
+            }
+        }
+        throw new GeneratorIdUnavailableException(String.format("All %d generator-id's are leased.", slots));
+    }
+
+    /**
+     * Stops the heartbeats and releases all leases acquired from this table.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        heartbeats.shutdownNow();
+        for (Lease lease : leases) {
+            lease.close();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("The lease table is closed.");
+        }
+    }
+
+    private static int offsetOf(int slot) {
+        return HEADER_SIZE + slot * Long.BYTES;
+    }
+
+    private static long pack(int token, long expiry) {
+        return ((long) token << EXPIRY_BITS) | (expiry & MASK_EXPIRY);
+    }
+
+    /**
+     * A generator-id leased from a {@link MappedGeneratorIdLeaseTable}.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final int slot;
+        private final int token;
+        // The expiry stored in the slot; the slot holds pack(token, expiry) for as long as the lease is held
+        private volatile long expiry;
+        private volatile boolean lost;
+        private volatile ScheduledFuture<?> heartbeat;
+
+        private Lease(int slot, int token, long expiry) {
+            this.slot = slot;
+            this.token = token;
+            this.expiry = expiry;
+        }
+
+        /**
+         * Gets the leased generator-id.
+         *
+         * @return Returns the generator-id.
+         */
+        public int getGeneratorId() {
+            return slot;
+        }
+
+        /**
+         * Gets whether the lease is still held: it's neither released nor lost, and it hasn't expired since it was last renewed.
+         *
+         * @return Returns true when Id's may be generated with the generator-id.
+         */
+        public boolean isValid() {
+            return !lost && clock.millis() < expiry;
+        }
+
+        /**
+         * Extends the lease by the time-to-live of the table; called by the heartbeat thread, but may be called at any time.
+         *
+         * @return Returns true when the lease was extended; false when it's released or was taken over by another process after it expired.
+         */
+        public synchronized boolean renew() {
+            if (lost) {
+                return false;
+            }
+
+            long now = clock.millis();
+            long next = now + ttlMillis;
+            if (LONGS.compareAndSet(buffer, offsetOf(slot), pack(token, expiry), pack(token, next))) {
+                expiry = next;
+                return true;
+            }
+
+            lose();
+            return false;
+        }
+
+        /**
+         * Releases the generator-id so other processes can lease it right away; the generator-id must not be used afterwards.
+         */
+        @Override
+        public synchronized void close() {
+            if (lost) {
+                return;
+            }
+
+            LONGS.compareAndSet(buffer, offsetOf(slot), pack(token, expiry), 0L);
+            lose();
+        }
+
+        private void lose() {
+            lost = true;
+            if (heartbeat != null) {
+                heartbeat.cancel(false);
+            }
+            leases.remove(this);
+        }
+    }
+}
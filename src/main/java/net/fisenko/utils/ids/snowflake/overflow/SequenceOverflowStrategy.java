@@ -0,0 +1,20 @@
+package net.fisenko.utils.ids.snowflake.overflow;
+
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+
+/**
+ * Provides the interface for strategies that decide what a {@link SnowflakeIdGenerator} does when the sequence of the current tick is exhausted. The generator waits for the next
+ * tick itself, re-reading its clock and detecting a clock that moves backwards; the strategy only decides how to idle between two reads and when to give up.
+ */
+public interface SequenceOverflowStrategy {
+
+    /**
+     * Idles once while the generator waits for the tick after an exhausted one.
+     *
+     * @param iteration   the number of times the strategy idled while waiting for the current tick.
+     * @param waitedNanos the time waited for the current tick so far, in nanoseconds.
+     * @return true to keep waiting; false when the strategy gives up, in which case the generator throws a {@link
+     * net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException}.
+     */
+    boolean idle(int iteration, long waitedNanos);
+}
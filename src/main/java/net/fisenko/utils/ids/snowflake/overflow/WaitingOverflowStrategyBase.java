@@ -0,0 +1,41 @@
+package net.fisenko.utils.ids.snowflake.overflow;
+
+import java.time.Duration;
+
+/**
+ * Provides a baseclass for {@link SequenceOverflowStrategy}s that wait for the next tick, optionally up to a maximum wait time. Derived classes only decide how to idle between two
+ * reads of the clock.
+ */
+public abstract class WaitingOverflowStrategyBase implements SequenceOverflowStrategy {
+
+    private final long maxWaitNanos;
+
+    /**
+     * Initializes a new instance of the {@link WaitingOverflowStrategyBase} class.
+     *
+     * @param maxWait the maximum time to wait for the next tick; use null to wait without a limit.
+     * @throws IllegalArgumentException Thrown when {@code maxWait} is negative.
+     */
+    protected WaitingOverflowStrategyBase(Duration maxWait) {
+        if (maxWait != null && maxWait.isNegative()) {
+            throw new IllegalArgumentException("'maxWait' could not be negative.");
+        }
+        this.maxWaitNanos = maxWait == null ? Long.MAX_VALUE : maxWait.toNanos();
+    }
+
+    @Override
+    public final boolean idle(int iteration, long waitedNanos) {
+        if (waitedNanos >= maxWaitNanos) {
+            return false;
+        }
+        idle(iteration);
+        return true;
+    }
+
+    /**
+     * Idles between two reads of the clock.
+     *
+     * @param iteration the number of times the strategy idled while waiting for the current tick.
+     */
+    protected abstract void idle(int iteration);
+}
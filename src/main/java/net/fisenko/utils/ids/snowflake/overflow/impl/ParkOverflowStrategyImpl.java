@@ -0,0 +1,46 @@
+package net.fisenko.utils.ids.snowflake.overflow.impl;
+
+import java.time.Duration;
+import java.util.concurrent.locks.LockSupport;
+import net.fisenko.utils.ids.snowflake.overflow.WaitingOverflowStrategyBase;
+
+/**
+ * A {@link net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy} that parks the calling thread with {@link LockSupport#parkNanos(long)} until the next tick. Frees the
+ * processor while waiting; the latency depends on the timer resolution of the operating system.
+ */
+public final class ParkOverflowStrategyImpl extends WaitingOverflowStrategyBase {
+
+    /**
+     * Default duration to park between two reads of the time source
+     */
+    public static final Duration DEFAULT_PARK_DURATION = Duration.ofNanos(50_000);
+
+    private final long parkNanos;
+
+    /**
+     * Initializes a new instance of the {@link ParkOverflowStrategyImpl} class that parks for {@link #DEFAULT_PARK_DURATION} and waits without a limit.
+     */
+    public ParkOverflowStrategyImpl() {
+        this(DEFAULT_PARK_DURATION, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link ParkOverflowStrategyImpl} class.
+     *
+     * @param parkDuration the duration to park between two reads of the time source.
+     * @param maxWait      the maximum time to wait for the next tick; use null to wait without a limit.
+     * @throws IllegalArgumentException Thrown when {@code parkDuration} is null or not positive.
+     */
+    public ParkOverflowStrategyImpl(Duration parkDuration, Duration maxWait) {
+        super(maxWait);
+        if (parkDuration == null || parkDuration.isNegative() || parkDuration.isZero()) {
+            throw new IllegalArgumentException("'parkDuration' must be positive.");
+        }
+        this.parkNanos = parkDuration.toNanos();
+    }
+
+    @Override
+    protected void idle(int iteration) {
+        LockSupport.parkNanos(this, parkNanos);
+    }
+}
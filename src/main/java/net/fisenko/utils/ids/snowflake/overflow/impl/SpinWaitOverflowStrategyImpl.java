@@ -0,0 +1,31 @@
+package net.fisenko.utils.ids.snowflake.overflow.impl;
+
+import java.time.Duration;
+import net.fisenko.utils.ids.snowflake.overflow.WaitingOverflowStrategyBase;
+
+/**
+ * A {@link net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy} that busy-spins until the next tick. Gives the lowest latency at the cost of keeping a core busy.
+ */
+public final class SpinWaitOverflowStrategyImpl extends WaitingOverflowStrategyBase {
+
+    /**
+     * Initializes a new instance of the {@link SpinWaitOverflowStrategyImpl} class that waits without a limit.
+     */
+    public SpinWaitOverflowStrategyImpl() {
+        this(null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link SpinWaitOverflowStrategyImpl} class.
+     *
+     * @param maxWait the maximum time to wait for the next tick; use null to wait without a limit.
+     */
+    public SpinWaitOverflowStrategyImpl(Duration maxWait) {
+        super(maxWait);
+    }
+
+    @Override
+    protected void idle(int iteration) {
+        Thread.onSpinWait();
+    }
+}
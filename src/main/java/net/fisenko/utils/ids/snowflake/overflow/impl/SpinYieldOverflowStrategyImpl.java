@@ -0,0 +1,48 @@
+package net.fisenko.utils.ids.snowflake.overflow.impl;
+
+import java.time.Duration;
+import net.fisenko.utils.ids.snowflake.overflow.WaitingOverflowStrategyBase;
+
+/**
+ * A {@link net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy} that busy-spins for a number of iterations and then yields the processor until the next tick.
+ */
+public final class SpinYieldOverflowStrategyImpl extends WaitingOverflowStrategyBase {
+
+    /**
+     * Default number of iterations to spin before yielding
+     */
+    public static final int DEFAULT_SPINS = 100;
+
+    private final int spins;
+
+    /**
+     * Initializes a new instance of the {@link SpinYieldOverflowStrategyImpl} class that spins {@link #DEFAULT_SPINS} times and waits without a limit.
+     */
+    public SpinYieldOverflowStrategyImpl() {
+        this(DEFAULT_SPINS, null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link SpinYieldOverflowStrategyImpl} class.
+     *
+     * @param spins   the number of iterations to spin before yielding.
+     * @param maxWait the maximum time to wait for the next tick; use null to wait without a limit.
+     * @throws IllegalArgumentException Thrown when {@code spins} is negative.
+     */
+    public SpinYieldOverflowStrategyImpl(int spins, Duration maxWait) {
+        super(maxWait);
+        if (spins < 0) {
+            throw new IllegalArgumentException("'spins' could not be negative.");
+        }
+        this.spins = spins;
+    }
+
+    @Override
+    protected void idle(int iteration) {
+        if (iteration < spins) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package net.fisenko.utils.ids.snowflake.overflow.impl;
+
+import net.fisenko.utils.ids.snowflake.overflow.SequenceOverflowStrategy;
+
+/**
+ * A {@link SequenceOverflowStrategy} that never waits; the generator throws a {@link net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException} right away. This is the
+ * default strategy.
+ */
+public final class ThrowOverflowStrategyImpl implements SequenceOverflowStrategy {
+
+    /**
+     * Gives up immediately.
+     *
+     * @param iteration   the number of times the strategy idled while waiting for the current tick.
+     * @param waitedNanos the time waited for the current tick so far, in nanoseconds.
+     * @return Returns false.
+     */
+    @Override
+    public boolean idle(int iteration, long waitedNanos) {
+        return false;
+    }
+}
@@ -0,0 +1,206 @@
+package net.fisenko.utils.ids.snowflake.timeSource.impl;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+
+/**
+ * Provides time data to an {@link SnowflakeIdGenerator} from a cached tick count. A single daemon ticker thread reads an underlying {@link TimeSource} and publishes the tick count
+ * whenever it changes, so {@link #getTicks()} is a plain memory read.
+ * <p>
+ * The ticker is started with {@link #start()} and stopped with {@link #close()}, and can be started again after it was stopped; while it isn't running every call falls back to
+ * the underlying {@link TimeSource}. When the ticker stalls (e.g. it doesn't get scheduled) callers notice it on a small sample of the reads and read the underlying
+ * {@link TimeSource} instead until the ticker catches up again. The published tick count never moves backwards.
+ * </p>
+ */
+public final class CachedTimeSourceImpl implements TimeSource, AutoCloseable {
+
+    /**
+     * Default maximum time the ticker may go without publishing before callers fall back to the underlying time source
+     */
+    public static final Duration DEFAULT_MAX_STALL = Duration.ofMillis(10);
+    // Published instead of a tick count while the ticker isn't running
+    private static final long STOPPED = Long.MIN_VALUE;
+    // One in (STALL_CHECK_MASK + 1) reads checks whether the ticker stalled
+    private static final int STALL_CHECK_MASK = 63;
+    private final TimeSource timeSource;
+    private final long maxStallNanos;
+    private final long pollNanos;
+    private final AtomicLong ticks = new AtomicLong(STOPPED);
+    private volatile long heartbeatNanos;
+    private volatile boolean running;
+    private Thread ticker;
+
+    /**
+     * Initializes a new {@link CachedTimeSourceImpl} object on top of a {@link NanoTimeSourceImpl} with a tick duration of 1 millisecond.
+     *
+     * @param epoch The epoch to use as an offset from now.
+     */
+    public CachedTimeSourceImpl(OffsetDateTime epoch) {
+        this(new NanoTimeSourceImpl(epoch));
+    }
+
+    /**
+     * Initializes a new {@link CachedTimeSourceImpl} object.
+     *
+     * @param timeSource The {@link TimeSource} to read the ticks from.
+     */
+    public CachedTimeSourceImpl(TimeSource timeSource) {
+        this(timeSource, DEFAULT_MAX_STALL);
+    }
+
+    /**
+     * Initializes a new {@link CachedTimeSourceImpl} object.
+     *
+     * @param timeSource The {@link TimeSource} to read the ticks from.
+     * @param maxStall   The maximum time the ticker may go without publishing before callers fall back to {@code timeSource}.
+     * @throws IllegalArgumentException Thrown when either timeSource or maxStall is null, or maxStall is not positive.
+     */
+    public CachedTimeSourceImpl(TimeSource timeSource, Duration maxStall) {
+        if (timeSource == null) {
+            throw new IllegalArgumentException("'timeSource' could not be null.");
+        }
+        if (maxStall == null || maxStall.isNegative() || maxStall.isZero()) {
+            throw new IllegalArgumentException("'maxStall' must be positive.");
+        }
+        this.timeSource = timeSource;
+        this.maxStallNanos = maxStall.toNanos();
+        // Poll a few times per tick so a new tick is published shortly after it starts
+        this.pollNanos = Math.max(timeSource.getTickDuration().toNanos() / 10, 20_000);
+    }
+
+    /**
+     * Starts the ticker thread.
+     *
+     * @return Returns this time source.
+     * @throws IllegalStateException Thrown when the ticker has already been started and not been stopped since.
+     */
+    public synchronized CachedTimeSourceImpl start() {
+        if (ticker != null) {
+            throw new IllegalStateException("The ticker has already been started.");
+        }
+
+        heartbeatNanos = System.nanoTime();
+        ticks.set(timeSource.getTicks());
+        running = true;
+
+        ticker = new Thread(this::tick, "snowflake-ticker");
+        ticker.setDaemon(true);
+        ticker.start();
+        return this;
+    }
+
+    /**
+     * Stops the ticker thread and waits for it to end; from now on every call reads the underlying {@link TimeSource} until the ticker is started again.
+     */
+    @Override
+    public synchronized void close() {
+        running = false;
+        ticks.set(STOPPED);
+        if (ticker == null) {
+            return;
+        }
+
+        // The old ticker must have ended before a new one starts, or it could still publish or clear the tick count of the new one
+        LockSupport.unpark(ticker);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ticker.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        ticker = null;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the epoch of the {@link TimeSource}.
+     *
+     * @return Returns the offset;
+     */
+    @Override
+    public OffsetDateTime getEpoch() {
+        return timeSource.getEpoch();
+    }
+
+    /**
+     * Gets the duration of a single tick.
+     *
+     * @return Returns the duration.
+     */
+    @Override
+    public Duration getTickDuration() {
+        return timeSource.getTickDuration();
+    }
+
+    /**
+     * Returns the tick count published by the ticker, or the tick count of the underlying {@link TimeSource} while the ticker isn't running or has stalled.
+     *
+     * @return The current number of ticks to be used by an {@link SnowflakeIdGenerator} when creating an Id.
+     */
+    @Override
+    public long getTicks() {
+        long cached = ticks.get();
+        if (cached == STOPPED) {
+            return timeSource.getTicks();
+        }
+        if ((ThreadLocalRandom.current().nextInt() & STALL_CHECK_MASK) == 0 && System.nanoTime() - heartbeatNanos > maxStallNanos) {
+            // The ticker stalled; publish the current tick count ourselves
+            return publish(timeSource.getTicks());
+        }
+        return cached;
+    }
+
+    /**
+     * Gets a value indicating whether the ticker is running.
+     *
+     * @return Returns true when the ticker is running.
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void tick() {
+        try {
+            while (running) {
+                publish(timeSource.getTicks());
+                heartbeatNanos = System.nanoTime();
+                LockSupport.parkNanos(this, pollNanos);
+            }
+        } finally {
+            // Whatever stopped the ticker, callers must not keep reading a frozen tick count
+            running = false;
+            ticks.set(STOPPED);
+        }
+    }
+
+    /**
+     * Publishes the given tick count unless a later one has been published already or the ticker has been stopped.
+     *
+     * @param value the tick count to publish.
+     * @return Returns the published tick count, or {@code value} when the ticker has been stopped.
+     */
+    private long publish(long value) {
+        while (true) {
+            long current = ticks.get();
+            if (current == STOPPED) {
+                return value;
+            }
+            if (current >= value) {
+                return current;
+            }
+            if (ticks.compareAndSet(current, value)) {
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package net.fisenko.utils.ids.snowflake.timeSource.impl;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+
+/**
+ * Provides time data to an {@link SnowflakeIdGenerator} based on {@link System#nanoTime()}. Unless specified the duration of a tick is 1 millisecond.
+ * <p>
+ * The offset from the epoch and the duration of a tick are converted to nanoseconds once, so {@link #getTicks()} only does {@code long} arithmetic and doesn't allocate. Ticks of
+ * 1, 10, 100 and 1000 milliseconds are divided by a constant, which the JIT compiles to a multiplication.
+ * </p>
+ */
+public final class NanoTimeSourceImpl implements TimeSource {
+
+    private final OffsetDateTime epoch;
+    private final Duration tickDuration;
+    // System.nanoTime() when this time source was created
+    private final long originNanos;
+    // Nanoseconds between the epoch and the creation of this time source
+    private final long offsetNanos;
+    private final long tickNanos;
+    // 0, 1, 2 or 3 for ticks of 1, 10, 100 or 1000 milliseconds; -1 for any other tick
+    private final int tickMillisExponent;
+
+    /**
+     * Initializes a new {@link NanoTimeSourceImpl} object. Note: The default tick duration is 1 millisecond.
+     *
+     * @param epoch The epoch to use as an offset from now.
+     */
+    public NanoTimeSourceImpl(OffsetDateTime epoch) {
+        this(epoch, Duration.ofMillis(1));
+    }
+
+    /**
+     * Initializes a new {@link NanoTimeSourceImpl} object.
+     *
+     * @param epoch        The epoch to use as an offset from now.
+     * @param tickDuration The duration of a tick for this timesource.
+     * @throws IllegalArgumentException Thrown when either epoch or tickDuration is null, tickDuration is not positive or the epoch is more than ~292 years ago.
+     */
+    public NanoTimeSourceImpl(OffsetDateTime epoch, Duration tickDuration) {
+        if (epoch == null) {
+            throw new IllegalArgumentException("'epoch' could not be null.");
+        }
+        if (tickDuration == null || tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("'tickDuration' must be positive.");
+        }
+
+        this.epoch = epoch;
+        this.tickDuration = tickDuration;
+
+        long nowMillis = System.currentTimeMillis();
+        this.originNanos = System.nanoTime();
+        try {
+            this.offsetNanos = Math.multiplyExact(nowMillis - epoch.toInstant().toEpochMilli(), 1_000_000L);
+            this.tickNanos = tickDuration.toNanos();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("The epoch or tick duration can't be represented in nanoseconds.", e);
+        }
+
+        if (tickNanos == 1_000_000L) {
+            tickMillisExponent = 0;
+        } else if (tickNanos == 10_000_000L) {
+            tickMillisExponent = 1;
+        } else if (tickNanos == 100_000_000L) {
+            tickMillisExponent = 2;
+        } else if (tickNanos == 1_000_000_000L) {
+            tickMillisExponent = 3;
+        } else {
+            tickMillisExponent = -1;
+        }
+    }
+
+    /**
+     * Gets the epoch of the {@link TimeSource}.
+     *
+     * @return Returns the offset;
+     */
+    @Override
+    public OffsetDateTime getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * Gets the duration of a single tick.
+     *
+     * @return Returns the duration.
+     */
+    @Override
+    public Duration getTickDuration() {
+        return tickDuration;
+    }
+
+    /**
+     * Returns the current number of ticks for the {@link NanoTimeSourceImpl}.
+     *
+     * @return The current number of ticks to be used by an {@link SnowflakeIdGenerator} when creating an Id.
+     */
+    @Override
+    public long getTicks() {
+        long nanos = offsetNanos + (System.nanoTime() - originNanos);
+
+        switch (tickMillisExponent) {
+            case 0:
+                return Math.floorDiv(nanos, 1_000_000L);
+            case 1:
+                return Math.floorDiv(nanos, 10_000_000L);
+            case 2:
+                return Math.floorDiv(nanos, 100_000_000L);
+            case 3:
+                return Math.floorDiv(nanos, 1_000_000_000L);
+            default:
+                return Math.floorDiv(nanos, tickNanos);
+        }
+    }
+}
@@ -1,27 +1,49 @@
 package net.fisenko.utils.ids.ulid;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
-import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
 import net.fisenko.utils.ids.ulid.utils.Base32;
 import net.fisenko.utils.ids.utils.Time;
 
 public class Ulid implements Comparable<Ulid> {
 
-//    public final static Ulid MIN_VALUE = new Ulid(Time.UNIX_EPOCH, new byte[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0});
-//
-//    public final static Ulid MAX_VALUE = new Ulid(OffsetDateTime.MAX,
-//            new byte[]{(byte) 255, (byte) 255, (byte) 255, (byte) 255, (byte) 255, (byte) 255, (byte) 255, (byte) 255, (byte) 255, (byte) 255});
     /**
-     * Internal parts of ULID
+     * The lowest possible {@link Ulid}: the Unix epoch with a random part of all zeros.
      */
-    //@formatter:off
-    private final byte _a; private final byte _b; private final byte _c; private final byte _d;
-    private final byte _e; private final byte _f; private final byte _g; private final byte _h;
-    private final byte _i; private final byte _j; private final byte _k; private final byte _l;
-    private final byte _m; private final byte _n; private final byte _o; private final byte _p;
-    //@formatter:on
+    public static final Ulid MIN_VALUE = new Ulid(0L, 0L);
+
+    /**
+     * The highest possible {@link Ulid}: {@link #MAX_EPOCH_MILLIS} with a random part of all ones.
+     */
+    public static final Ulid MAX_VALUE = new Ulid(-1L, -1L);
+
+    /**
+     * The maximum number of milliseconds since the Unix epoch that fits into the 48 bit time part.
+     */
+    public static final long MAX_EPOCH_MILLIS = (1L << 48) - 1;
+
+    /**
+     * The number of characters in the string representation of a {@link Ulid}.
+     */
+    public static final int STRING_LENGTH = 26;
+
+    /**
+     * Per-thread scratch buffers the string representation is encoded into, so that {@link #toString()} only allocates the resulting string and {@link #appendTo(StringBuilder)}
+     * can append all characters at once.
+     */
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[STRING_LENGTH]);
+    private static final ThreadLocal<char[]> CHAR_SCRATCH = ThreadLocal.withInitial(() -> new char[STRING_LENGTH]);
+
+    /**
+     * Internal parts of ULID: the 16 bytes in network byte order (most significant byte first), i.e. the 48 bit time part followed by the 16 most significant bits of the random
+     * part in {@code msb} and the 64 least significant bits of the random part in {@code lsb}.
+     */
+    private final long msb;
+    private final long lsb;
 
     /**
      * Initializes a new instance of the {@link Ulid} by using the specified array of bytes.
@@ -37,12 +59,8 @@ public class Ulid implements Comparable<Ulid> {
             throw new IllegalArgumentException("An array of 16 elements is required");
         }
 
-        //@formatter:off
-        _a = bytes[0]; _b = bytes[1]; _c = bytes[2]; _d = bytes[3];
-        _e = bytes[4]; _f = bytes[5]; _g = bytes[6]; _h = bytes[7];
-        _i = bytes[8]; _j = bytes[9]; _k = bytes[10]; _l = bytes[11];
-        _m = bytes[12]; _n = bytes[13]; _o = bytes[14]; _p = bytes[15];
-        //@formatter:on
+        msb = readLong(bytes, 0, 8);
+        lsb = readLong(bytes, 8, 8);
     }
 
     /**
@@ -50,26 +68,102 @@ public class Ulid implements Comparable<Ulid> {
      *
      * @param timePart   an offset of the {@link Ulid}.
      * @param randomPart the random part of the {@link Ulid}.
-     * @throws IllegalArgumentException when {@code timePart} is before {@code Time.UNIX_EPOCH} or when the {@code randomPart} length is not equal to 10.
+     * @throws IllegalArgumentException when {@code timePart} is null, before {@code Time.UNIX_EPOCH} or past {@link #MAX_EPOCH_MILLIS}, or when the {@code randomPart} length is not equal to 10.
      */
     public Ulid(OffsetDateTime timePart, byte[] randomPart) {
-        if (timePart.isBefore(Time.UNIX_EPOCH)) {
-            throw new IllegalArgumentException("timePart is before " + Time.UNIX_EPOCH);
+        if (timePart == null) {
+            throw new IllegalArgumentException("'timePart' could not be null.");
+        }
+
+        Ulid ulid = of(Time.toUnixTimeMilli(timePart), randomPart);
+        msb = ulid.msb;
+        lsb = ulid.lsb;
+    }
+
+    /**
+     * Initializes a new instance of the {@link Ulid} from its 128 bits, like {@link java.util.UUID#UUID(long, long)}.
+     *
+     * @param mostSignificantBits  the 48 bit time part followed by the 16 most significant bits of the random part.
+     * @param leastSignificantBits the 64 least significant bits of the random part.
+     */
+    public Ulid(long mostSignificantBits, long leastSignificantBits) {
+        msb = mostSignificantBits;
+        lsb = leastSignificantBits;
+    }
+
+    /**
+     * Creates a {@link Ulid} from its parts without going through {@link OffsetDateTime}.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @param randHi      the 16 most significant bits of the random part; higher bits are ignored.
+     * @param randLo      the 64 least significant bits of the random part.
+     * @return a {@link Ulid} with the specified parts.
+     * @throws IllegalArgumentException when {@code epochMillis} is negative or exceeds {@link #MAX_EPOCH_MILLIS}.
+     */
+    public static Ulid of(long epochMillis, long randHi, long randLo) {
+        if (epochMillis < 0 || epochMillis > MAX_EPOCH_MILLIS) {
+            throw new IllegalArgumentException(String.format("'epochMillis' must be between 0 and %d (inclusive).", MAX_EPOCH_MILLIS));
         }
-        if (randomPart.length != 10) {
+
+        return new Ulid((epochMillis << 16) | (randHi & 0xFFFF), randLo);
+    }
+
+    /**
+     * Creates a {@link Ulid} from its parts without going through {@link OffsetDateTime}.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @param randomPart  the random part of the {@link Ulid}.
+     * @return a {@link Ulid} with the specified parts.
+     * @throws IllegalArgumentException when {@code epochMillis} is negative or exceeds {@link #MAX_EPOCH_MILLIS}, or when the {@code randomPart} length is not equal to 10.
+     */
+    public static Ulid of(long epochMillis, byte[] randomPart) {
+        if (randomPart == null || randomPart.length != 10) {
             throw new IllegalArgumentException("randomPart must be 10 bytes");
         }
 
-        byte[] d = offsetDateTimeToByteArray(timePart);
-        //@formatter:off
-        _a = d[0]; _b = d[1]; _c = d[2]; _d = d[3]; _e = d[4]; _f = d[5];
-        _g = randomPart[0]; _h = randomPart[1]; _i = randomPart[2]; _j = randomPart[3]; _k = randomPart[4];
-        _l = randomPart[5]; _m = randomPart[6]; _n = randomPart[7]; _o = randomPart[8]; _p = randomPart[9];
-        //@formatter:on
+        return of(epochMillis, readLong(randomPart, 0, 2), readLong(randomPart, 2, 8));
+    }
+
+    /**
+     * Gets the lowest {@link Ulid} of a millisecond; together with {@link #maxAt(long)} it turns a time window into a range of {@link Ulid}'s, e.g. for a primary-key range scan
+     * of the events between {@code from} and {@code to} (inclusive): {@code id >= Ulid.minAt(from) && id <= Ulid.maxAt(to)}.
+     *
+     * @param epochMillis the number of milliseconds since the Unix epoch.
+     * @return the {@link Ulid} of {@code epochMillis} with a random part of all zeros.
+     * @throws IllegalArgumentException when {@code epochMillis} is negative or exceeds {@link #MAX_EPOCH_MILLIS}.
+     */
+    public static Ulid minAt(long epochMillis) {
+        return of(epochMillis, 0L, 0L);
+    }
+
+    /**
+     * Gets the highest {@link Ulid} of a millisecond; see {@link #minAt(long)}.
+     *
+     * @param epochMillis the number of milliseconds since the Unix epoch.
+     * @return the {@link Ulid} of {@code epochMillis} with a random part of all ones.
+     * @throws IllegalArgumentException when {@code epochMillis} is negative or exceeds {@link #MAX_EPOCH_MILLIS}.
+     */
+    public static Ulid maxAt(long epochMillis) {
+        return of(epochMillis, 0xFFFFL, -1L);
+    }
+
+    /**
+     * Creates a {@link Ulid} with the same 128 bits as the specified {@link UUID}; the reverse of {@link #toUuid()}.
+     *
+     * @param uuid the {@link UUID} to convert.
+     * @return a {@link Ulid} with the bits of {@code uuid}.
+     * @throws IllegalArgumentException when {@code uuid} is null.
+     */
+    public static Ulid fromUuid(UUID uuid) {
+        if (uuid == null) {
+            throw new IllegalArgumentException("'uuid' could not be null.");
+        }
+
+        return new Ulid(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits());
     }
 
     /**
-     * Converts the string representation of a {@link Ulid} equivalent.
+     * Converts the string representation of a {@link Ulid} equivalent. Hyphens are ignored.
      *
      * @param s a string containing a {@link Ulid} to convert.
      * @return a {@link Ulid} equivalent to the value contained in {@code s}.
@@ -80,35 +174,174 @@ public class Ulid implements Comparable<Ulid> {
             throw new IllegalArgumentException("'s' is null or empty");
         }
 
-        String stripped = s.replace("-", "");
-        if (stripped.length() != 26) {
+        String stripped = s.length() == STRING_LENGTH ? s : s.replace("-", "");
+        if (stripped.length() != STRING_LENGTH) {
             throw new IllegalArgumentException("Invalid Base32 string");
         }
-        // Check if all chars are allowed by doing a lookup for each and seeing if we have an index < 32 for it
-        for (var i = 0; i < 26; i++) {
-            if (stripped.charAt(i) >= Base32.C2B32LEN || Base32.C2B32[stripped.charAt(i)] > 31) {
-                throw new IllegalArgumentException("Invalid Base32 string");
-            }
+        return parse(stripped, 0);
+    }
+
+    /**
+     * Converts the {@value #STRING_LENGTH} characters of {@code s} starting at {@code off} to the {@link Ulid} equivalent, without copying them.
+     *
+     * @param s   a sequence containing a {@link Ulid} to convert.
+     * @param off the position of the first character in {@code s}.
+     * @return a {@link Ulid} equivalent to the characters.
+     * @throws IllegalArgumentException  when {@code s} is null or the characters are not in the correct format.
+     * @throws IndexOutOfBoundsException when {@code s} has less than {@value #STRING_LENGTH} characters after {@code off}.
+     */
+    public static Ulid parse(CharSequence s, int off) {
+        if (s == null) {
+            throw new IllegalArgumentException("'s' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, STRING_LENGTH, s.length());
+
+        return orThrow(decode(s, off));
+    }
+
+    /**
+     * Converts the {@value #STRING_LENGTH} ASCII characters of {@code ascii} starting at {@code off} to the {@link Ulid} equivalent, without copying them.
+     *
+     * @param ascii an array containing a {@link Ulid} to convert.
+     * @param off   the position of the first character in {@code ascii}.
+     * @return a {@link Ulid} equivalent to the characters.
+     * @throws IllegalArgumentException  when {@code ascii} is null or the characters are not in the correct format.
+     * @throws IndexOutOfBoundsException when {@code ascii} has less than {@value #STRING_LENGTH} elements after {@code off}.
+     */
+    public static Ulid parse(byte[] ascii, int off) {
+        if (ascii == null) {
+            throw new IllegalArgumentException("'ascii' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, STRING_LENGTH, ascii.length);
+
+        return orThrow(decode(ascii, off));
+    }
+
+    /**
+     * Converts the {@value #STRING_LENGTH} ASCII characters of {@code ascii} starting at the absolute position {@code pos} to the {@link Ulid} equivalent, without copying them
+     * or changing the position of the buffer.
+     *
+     * @param ascii a buffer containing a {@link Ulid} to convert.
+     * @param pos   the position of the first character in {@code ascii}.
+     * @return a {@link Ulid} equivalent to the characters.
+     * @throws IllegalArgumentException  when {@code ascii} is null or the characters are not in the correct format.
+     * @throws IndexOutOfBoundsException when {@code ascii} has less than {@value #STRING_LENGTH} bytes between {@code pos} and its limit.
+     */
+    public static Ulid parse(ByteBuffer ascii, int pos) {
+        if (ascii == null) {
+            throw new IllegalArgumentException("'ascii' could not be null.");
+        }
+        Objects.checkFromIndexSize(pos, STRING_LENGTH, ascii.limit());
+
+        return orThrow(decode(ascii, pos));
+    }
+
+    /**
+     * Converts the string representation of a {@link Ulid} equivalent without throwing on invalid input. Unlike {@link #parse(String)} hyphens are not accepted.
+     *
+     * @param s a sequence containing a {@link Ulid} to convert.
+     * @return a {@link Ulid} equivalent to {@code s}, or null when {@code s} is null or not in the correct format.
+     */
+    public static Ulid tryParse(CharSequence s) {
+        return s == null || s.length() != STRING_LENGTH ? null : decode(s, 0);
+    }
+
+    /**
+     * Converts the {@value #STRING_LENGTH} characters of {@code s} starting at {@code off} to the {@link Ulid} equivalent without throwing on invalid input.
+     *
+     * @param s   a sequence containing a {@link Ulid} to convert.
+     * @param off the position of the first character in {@code s}.
+     * @return a {@link Ulid} equivalent to the characters, or null when {@code s} is null, too short or not in the correct format.
+     */
+    public static Ulid tryParse(CharSequence s, int off) {
+        return s == null || off < 0 || off > s.length() - STRING_LENGTH ? null : decode(s, off);
+    }
+
+    /**
+     * Converts the {@value #STRING_LENGTH} ASCII characters of {@code ascii} starting at {@code off} to the {@link Ulid} equivalent without throwing on invalid input.
+     *
+     * @param ascii an array containing a {@link Ulid} to convert.
+     * @param off   the position of the first character in {@code ascii}.
+     * @return a {@link Ulid} equivalent to the characters, or null when {@code ascii} is null, too short or not in the correct format.
+     */
+    public static Ulid tryParse(byte[] ascii, int off) {
+        return ascii == null || off < 0 || off > ascii.length - STRING_LENGTH ? null : decode(ascii, off);
+    }
+
+    /**
+     * Converts the {@value #STRING_LENGTH} ASCII characters of {@code ascii} starting at the absolute position {@code pos} to the {@link Ulid} equivalent without throwing on
+     * invalid input.
+     *
+     * @param ascii a buffer containing a {@link Ulid} to convert.
+     * @param pos   the position of the first character in {@code ascii}.
+     * @return a {@link Ulid} equivalent to the characters, or null when {@code ascii} is null, too short or not in the correct format.
+     */
+    public static Ulid tryParse(ByteBuffer ascii, int pos) {
+        return ascii == null || pos < 0 || pos > ascii.limit() - STRING_LENGTH ? null : decode(ascii, pos);
+    }
+
+    private static Ulid orThrow(Ulid ulid) {
+        if (ulid == null) {
+            throw new IllegalArgumentException("Invalid Base32 string");
         }
+        return ulid;
+    }
 
-        return new Ulid(byteArrayToOffsetDateTime(Base32.fromBase32(stripped.substring(0, 10))), Base32.fromBase32(stripped.substring(10, 26)));
+    // Decodes and validates in a single pass: every char is looked up once and the indexes are OR-ed together, so a single -1 (invalid char) makes the result negative. The first
+    // char only has 3 significant bits; anything above 7 would overflow 128 bits and counts as invalid. Char 13 is split between msb (1 bit) and lsb (4 bits).
+
+    private static Ulid decode(CharSequence s, int off) {
+        return decode(s::charAt, off);
     }
 
-    private static OffsetDateTime byteArrayToOffsetDateTime(byte... value) {
-        byte[] tmp = new byte[]{value[0], value[1], value[2], value[3], value[4], value[5], 0, 0};  // Pad with 2 "lost" bytes
+    private static Ulid decode(byte[] ascii, int off) {
+        return decode(i -> ascii[i], off);
+    }
 
-        ByteBuffer byteBuffer = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
-        byteBuffer.put(tmp);
-        byteBuffer.flip();
-        long milli = byteBuffer.getLong();
+    private static Ulid decode(ByteBuffer ascii, int pos) {
+        return decode(ascii::get, pos);
+    }
+
+    private static Ulid decode(CharAt chars, int off) {
+        int first = Base32.decode(chars.charAt(off));
+        int invalid = first > 7 ? -1 : first;
+        long msb = first;
+        for (int i = 1; i < 13; i++) {
+            int index = Base32.decode(chars.charAt(off + i));
+            invalid |= index;
+            msb = (msb << 5) | index;
+        }
+        int split = Base32.decode(chars.charAt(off + 13));
+        invalid |= split;
+        msb = (msb << 1) | (split >>> 4);
+        long lsb = split & 15;
+        for (int i = 14; i < STRING_LENGTH; i++) {
+            int index = Base32.decode(chars.charAt(off + i));
+            invalid |= index;
+            lsb = (lsb << 5) | index;
+        }
+        return invalid < 0 ? null : new Ulid(msb, lsb);
+    }
 
-        return Time.fromUnixTimeMilli(milli);
+    /**
+     * Reads {@code length} bytes starting at {@code offset} as a big-endian unsigned number.
+     */
+    private static long readLong(byte[] bytes, int offset, int length) {
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
     }
 
-    private static byte[] offsetDateTimeToByteArray(OffsetDateTime value) {
-        ByteBuffer byteBuffer = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
-        byteBuffer.putLong(Time.toUnixTimeMilli(value));
-        return byteBuffer.array();
+    /**
+     * Writes the {@code length} least significant bytes of {@code value} starting at {@code offset} in big-endian order.
+     */
+    private static void writeLong(long value, byte[] bytes, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
     }
 
     /**
@@ -117,7 +350,16 @@ public class Ulid implements Comparable<Ulid> {
      * @return date time offset.
      */
     public OffsetDateTime getTimestamp() {
-        return byteArrayToOffsetDateTime(_a, _b, _c, _d, _e, _f);
+        return Time.fromUnixTimeMilli(getEpochMillis());
+    }
+
+    /**
+     * Gets the "time part" of the {@link Ulid} as the number of milliseconds since the Unix epoch.
+     *
+     * @return milliseconds since the Unix epoch.
+     */
+    public long getEpochMillis() {
+        return msb >>> 16;
     }
 
     /**
@@ -126,7 +368,38 @@ public class Ulid implements Comparable<Ulid> {
      * @return random bytes.
      */
     public byte[] getRandomness() {
-        return new byte[]{_g, _h, _i, _j, _k, _l, _m, _n, _o, _p};
+        byte[] randomness = new byte[10];
+        writeLong(msb, randomness, 0, 2);
+        writeLong(lsb, randomness, 2, 8);
+        return randomness;
+    }
+
+    /**
+     * Gets the 64 most significant bits of the {@link Ulid}: the 48 bit time part followed by the 16 most significant bits of the random part.
+     *
+     * @return the 64 most significant bits.
+     */
+    public long getMostSignificantBits() {
+        return msb;
+    }
+
+    /**
+     * Gets the 64 least significant bits of the {@link Ulid}; all of them belong to the random part.
+     *
+     * @return the 64 least significant bits.
+     */
+    public long getLeastSignificantBits() {
+        return lsb;
+    }
+
+    /**
+     * Converts this instance to a {@link UUID} with the same 128 bits, e.g. to store it in a UUID-typed column. Note that the {@link UUID} is not a valid RFC 4122 UUID (its
+     * version and variant bits are random) and that {@link UUID#compareTo(UUID)} compares signed, so only the bytes of UUID's keep the order of the {@link Ulid}'s.
+     *
+     * @return a {@link UUID} with the bits of this instance.
+     */
+    public UUID toUuid() {
+        return new UUID(msb, lsb);
     }
 
     /**
@@ -135,11 +408,15 @@ public class Ulid implements Comparable<Ulid> {
      * @return a 16-element byte array.
      */
     public byte[] toByteArray() {
-        return new byte[]{_a, _b, _c, _d, _e, _f, _g, _h, _i, _j, _k, _l, _m, _n, _o, _p};
+        byte[] bytes = new byte[16];
+        writeLong(msb, bytes, 0, 8);
+        writeLong(lsb, bytes, 8, 8);
+        return bytes;
     }
 
     /**
-     * Compares this instance to a specified {@link Ulid} object and returns an indication of their relative
+     * Compares this instance to a specified {@link Ulid} object and returns an indication of their relative values. {@link Ulid}'s are compared as unsigned 128 bit numbers,
+     * which matches the order of their string representations.
      *
      * @param ulid a {@link Ulid} to compare to this instance.
      * @return a signed number indicating the relative values of this instance and other. A negative integer if this instance is less than other, zero if this instance is equal to
@@ -147,26 +424,25 @@ public class Ulid implements Comparable<Ulid> {
      */
     @Override
     public int compareTo(Ulid ulid) {
-        byte[] d = ulid.toByteArray();
-
-        //@formatter:off
-        if (_a != d[0]) return  Byte.compare(_a, d[0]); if (_b != d[1]) return Byte.compare(_b, d[1]);
-        if (_c != d[2]) return Byte.compare(_c, d[2]); if (_d != d[3]) return Byte.compare(_d, d[3]);
-        if (_e != d[4]) return Byte.compare(_e, d[4]); if (_f != d[5]) return Byte.compare(_f, d[5]);
-        if (_g != d[6]) return Byte.compare(_g, d[6]); if (_h != d[7]) return Byte.compare(_h, d[7]);
-        if (_i != d[8]) return Byte.compare(_i, d[8]); if (_j != d[9]) return Byte.compare(_j, d[9]);
-        if (_k != d[10]) return Byte.compare(_k, d[10]); if (_l != d[11]) return Byte.compare(_l, d[11]);
-        if (_m != d[12]) return Byte.compare(_m, d[12]); if (_n != d[13]) return Byte.compare(_n, d[13]);
-        if (_o != d[14]) return Byte.compare(_o, d[14]); if (_p != d[15]) return Byte.compare(_p, d[15]);
-        //@formatter:on
-
-        return 0;
+        int result = Long.compareUnsigned(msb, ulid.msb);
+        return result != 0 ? result : Long.compareUnsigned(lsb, ulid.lsb);
     }
 
+    /**
+     * Returns a hash code for this instance; the hash code equals {@code Arrays.hashCode(toByteArray())} but is calculated without allocating the array.
+     *
+     * @return a hash code.
+     */
     @Override
     public int hashCode() {
-        byte[] bytes = toByteArray();
-        return Arrays.hashCode(bytes);
+        int result = 1;
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            result = 31 * result + (byte) (msb >>> shift);
+        }
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            result = 31 * result + (byte) (lsb >>> shift);
+        }
+        return result;
     }
 
     @Override
@@ -179,19 +455,105 @@ public class Ulid implements Comparable<Ulid> {
         }
         Ulid ulid = (Ulid) that;
 
-        byte[] a = toByteArray();
-        byte[] b = ulid.toByteArray();
+        return msb == ulid.msb && lsb == ulid.lsb;
+    }
+
+    /**
+     * Appends the string representation of this instance to {@code sb} without creating intermediate objects.
+     *
+     * @param sb the {@link StringBuilder} to append to.
+     * @return the {@code sb}.
+     * @throws IllegalArgumentException when {@code sb} is null.
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        if (sb == null) {
+            throw new IllegalArgumentException("'sb' could not be null.");
+        }
+
+        char[] scratch = CHAR_SCRATCH.get();
+        Base32.encode(msb, lsb, scratch, 0);
+        return sb.append(scratch, 0, STRING_LENGTH);
+    }
+
+    /**
+     * Writes the {@value #STRING_LENGTH} characters of the string representation of this instance to {@code dst} starting at {@code off}.
+     *
+     * @param dst the array to write to.
+     * @param off the position of the first character in {@code dst}.
+     * @return the position after the last written character.
+     * @throws IllegalArgumentException  when {@code dst} is null.
+     * @throws IndexOutOfBoundsException when {@code dst} has less than {@value #STRING_LENGTH} elements after {@code off}.
+     */
+    public int encodeTo(char[] dst, int off) {
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, STRING_LENGTH, dst.length);
+
+        Base32.encode(msb, lsb, dst, off);
+        return off + STRING_LENGTH;
+    }
 
-        for (var i = 0; i < 16; i++) {
-            if (a[i] != b[i]) {
-                return false;
-            }
+    /**
+     * Writes the {@value #STRING_LENGTH} characters of the string representation of this instance to {@code dst} as ASCII, starting at {@code off}.
+     *
+     * @param dst the array to write to.
+     * @param off the position of the first character in {@code dst}.
+     * @return the position after the last written character.
+     * @throws IllegalArgumentException  when {@code dst} is null.
+     * @throws IndexOutOfBoundsException when {@code dst} has less than {@value #STRING_LENGTH} elements after {@code off}.
+     */
+    public int encodeTo(byte[] dst, int off) {
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
         }
-        return true;
+        Objects.checkFromIndexSize(off, STRING_LENGTH, dst.length);
+
+        Base32.encode(msb, lsb, dst, off);
+        return off + STRING_LENGTH;
+    }
+
+    /**
+     * Writes the {@value #STRING_LENGTH} characters of the string representation of this instance to {@code dst} as ASCII, starting at its current position, and advances the
+     * position.
+     *
+     * @param dst the buffer to write to.
+     * @return the {@code dst}.
+     * @throws IllegalArgumentException when {@code dst} is null.
+     * @throws BufferOverflowException  when {@code dst} has less than {@value #STRING_LENGTH} bytes remaining.
+     */
+    public ByteBuffer encodeTo(ByteBuffer dst) {
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        if (dst.remaining() < STRING_LENGTH) {
+            throw new BufferOverflowException();
+        }
+
+        if (dst.hasArray()) {
+            Base32.encode(msb, lsb, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + STRING_LENGTH);
+        } else {
+            byte[] scratch = SCRATCH.get();
+            Base32.encode(msb, lsb, scratch, 0);
+            dst.put(scratch, 0, STRING_LENGTH);
+        }
+        return dst;
     }
 
     @Override
     public String toString() {
-        return Base32.toBase32(new byte[]{_a, _b, _c, _d, _e, _f}) + Base32.toBase32(new byte[]{_g, _h, _i, _j, _k, _l, _m, _n, _o, _p});
+        byte[] scratch = SCRATCH.get();
+        Base32.encode(msb, lsb, scratch, 0);
+        return new String(scratch, 0, STRING_LENGTH, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Reads the char (or ASCII byte) at an index of a {@link CharSequence}, array or buffer; the source is captured by a lambda that the JIT inlines into {@link #decode(CharAt,
+     * int)}.
+     */
+    private interface CharAt {
+
+        int charAt(int index);
     }
 }
@@ -4,4 +4,32 @@ import net.fisenko.utils.ids.IdGenerator;
 
 public interface UlidIdGenerator extends IdGenerator<Ulid> {
 
+    /**
+     * Creates a batch of new {@link Ulid}'s. The batch shares a single time part and random base and is strictly ascending.
+     *
+     * @param count the number of {@link Ulid}'s to create.
+     * @return the new {@link Ulid}'s.
+     */
+    Ulid[] nextBatch(int count);
+
+    /**
+     * Fills {@code len} elements of {@code dst} starting at {@code off} with new {@link Ulid}'s. The {@link Ulid}'s share a single time part and random base and are strictly
+     * ascending.
+     *
+     * @param dst the array to fill.
+     * @param off the position of the first {@link Ulid} in {@code dst}.
+     * @param len the number of {@link Ulid}'s to create.
+     */
+    void fill(Ulid[] dst, int off, int len);
+
+    /**
+     * Fills {@code len} elements of {@code msb} and {@code lsb} starting at {@code off} with the bits of new {@link Ulid}'s (see {@link Ulid#getMostSignificantBits()} and
+     * {@link Ulid#getLeastSignificantBits()}) without creating {@link Ulid} objects. The {@link Ulid}'s share a single time part and random base and are strictly ascending.
+     *
+     * @param msb the array to fill with the most significant bits.
+     * @param lsb the array to fill with the least significant bits.
+     * @param off the position of the first {@link Ulid} in both arrays.
+     * @param len the number of {@link Ulid}'s to create.
+     */
+    void fill(long[] msb, long[] lsb, int off, int len);
 }
@@ -1,37 +1,179 @@
 package net.fisenko.utils.ids.ulid;
 
+import java.time.Clock;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
+import java.util.Objects;
+import net.fisenko.utils.ids.metrics.GeneratorMetrics;
+import net.fisenko.utils.ids.metrics.impl.NoGeneratorMetricsImpl;
 import net.fisenko.utils.ids.ulid.random.UlidRandom;
 import net.fisenko.utils.ids.ulid.random.impl.MonotonicUlidRandomImpl;
+import net.fisenko.utils.ids.utils.Time;
 
 public class UlidIdGeneratorImpl implements UlidIdGenerator {
 
     private final UlidRandom rng;
 
-    private final OffsetDateTime time;
+    private final Clock clock;
+
+    private final GeneratorMetrics metrics;
 
     /**
-     * Creates and returns a new {@link UlidIdGeneratorImpl} based on the specified time and using the specified random.
+     * Creates and returns a new {@link UlidIdGeneratorImpl} based on the specified time and using the specified random. Every {@link Ulid} gets the same time part; use
+     * {@link #UlidIdGeneratorImpl(Clock, UlidRandom)} for a live clock.
      *
      * @param time the {@link OffsetDateTime} to use for the time-part of the {@link UlidIdGeneratorImpl}.
      * @param rng  the {@link UlidRandom} to use for random number generation.
-     * @throws IllegalArgumentException when {@code rnd} is null.
+     * @throws IllegalArgumentException when {@code time} or {@code rng} is null, or when {@code time} is before {@code Time.UNIX_EPOCH}.
      */
     public UlidIdGeneratorImpl(OffsetDateTime time, UlidRandom rng) {
+        this(fixedClock(time), rng);
+    }
+
+    /**
+     * Creates and returns a new {@link UlidIdGeneratorImpl} that takes the time part of every {@link Ulid} from the specified clock.
+     *
+     * @param clock the {@link Clock} to use for the time-part of the {@link Ulid}'s.
+     * @param rng   the {@link UlidRandom} to use for random number generation.
+     * @throws IllegalArgumentException when {@code clock} or {@code rng} is null.
+     */
+    public UlidIdGeneratorImpl(Clock clock, UlidRandom rng) {
+        this(clock, rng, new NoGeneratorMetricsImpl());
+    }
+
+    /**
+     * Creates and returns a new {@link UlidIdGeneratorImpl} that takes the time part of every {@link Ulid} from the specified clock and counts the {@link Ulid}'s it hands out,
+     * and the overflows of the random part of a monotonic {@link UlidRandom}, in the specified metrics.
+     *
+     * @param clock   the {@link Clock} to use for the time-part of the {@link Ulid}'s.
+     * @param rng     the {@link UlidRandom} to use for random number generation.
+     * @param metrics the {@link GeneratorMetrics} to count in.
+     * @throws IllegalArgumentException when {@code clock}, {@code rng} or {@code metrics} is null.
+     */
+    public UlidIdGeneratorImpl(Clock clock, UlidRandom rng, GeneratorMetrics metrics) {
+        if (clock == null) {
+            throw new IllegalArgumentException("'clock' could not be null.");
+        }
         if (rng == null) {
             throw new IllegalArgumentException("'rng' could not be null.");
         }
-        this.time = time;
+        if (metrics == null) {
+            throw new IllegalArgumentException("'metrics' could not be null.");
+        }
+        this.clock = clock;
         this.rng = rng;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Creates and returns a new {@link UlidIdGeneratorImpl} that takes the time part of every {@link Ulid} from the system clock.
+     *
+     * @param rng the {@link UlidRandom} to use for random number generation.
+     * @throws IllegalArgumentException when {@code rng} is null.
+     */
+    public UlidIdGeneratorImpl(UlidRandom rng) {
+        this(Clock.systemUTC(), rng);
     }
 
+    /**
+     * Creates and returns a new {@link UlidIdGeneratorImpl} that takes the time part of every {@link Ulid} from the system clock and uses a {@link MonotonicUlidRandomImpl}.
+     */
     public UlidIdGeneratorImpl() {
-        this(OffsetDateTime.now(ZoneOffset.UTC), new MonotonicUlidRandomImpl());
+        this(new MonotonicUlidRandomImpl());
+    }
+
+    private static Clock fixedClock(OffsetDateTime time) {
+        if (time == null) {
+            throw new IllegalArgumentException("'time' could not be null.");
+        }
+        if (time.isBefore(Time.UNIX_EPOCH)) {
+            throw new IllegalArgumentException("time is before " + Time.UNIX_EPOCH);
+        }
+        return Clock.fixed(time.toInstant(), time.getOffset());
     }
 
     @Override
     public Ulid next() throws Exception {
-        return new Ulid(this.time, this.rng.getRandomBytes());
+        Ulid ulid;
+        try {
+            ulid = this.rng.nextUlid(this.clock.millis());
+        } catch (IndexOutOfBoundsException e) {
+            metrics.recordSequenceOverflow();
+            throw e;
+        }
+        metrics.recordIssued(1);
+        return ulid;
+    }
+
+    @Override
+    public Ulid[] nextBatch(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("'count' could not be negative.");
+        }
+
+        Ulid[] ulids = new Ulid[count];
+        fill(ulids, 0, count);
+        return ulids;
+    }
+
+    @Override
+    public void fill(Ulid[] dst, int off, int len) {
+        if (dst == null) {
+            throw new IllegalArgumentException("'dst' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, dst.length);
+        if (len == 0) {
+            return;
+        }
+
+        Ulid first = nextUlidBlock(len);
+        long msb = first.getMostSignificantBits();
+        long lsb = first.getLeastSignificantBits();
+        dst[off] = first;
+        for (int i = off + 1; i < off + len; i++) {
+            // Increment the 128 bits; the random reserved the block so the carry never reaches the time part
+            if (++lsb == 0) {
+                msb++;
+            }
+            dst[i] = new Ulid(msb, lsb);
+        }
+    }
+
+    @Override
+    public void fill(long[] msb, long[] lsb, int off, int len) {
+        if (msb == null) {
+            throw new IllegalArgumentException("'msb' could not be null.");
+        }
+        if (lsb == null) {
+            throw new IllegalArgumentException("'lsb' could not be null.");
+        }
+        Objects.checkFromIndexSize(off, len, msb.length);
+        Objects.checkFromIndexSize(off, len, lsb.length);
+        if (len == 0) {
+            return;
+        }
+
+        Ulid first = nextUlidBlock(len);
+        long hi = first.getMostSignificantBits();
+        long lo = first.getLeastSignificantBits();
+        for (int i = off; i < off + len; i++) {
+            msb[i] = hi;
+            lsb[i] = lo;
+            // Increment the 128 bits; the random reserved the block so the carry never reaches the time part
+            if (++lo == 0) {
+                hi++;
+            }
+        }
+    }
+
+    private Ulid nextUlidBlock(int count) {
+        Ulid first;
+        try {
+            first = this.rng.nextUlidBlock(this.clock.millis(), count);
+        } catch (IndexOutOfBoundsException e) {
+            metrics.recordSequenceOverflow();
+            throw e;
+        }
+        metrics.recordIssued(count);
+        return first;
     }
 }
@@ -1,5 +1,7 @@
 package net.fisenko.utils.ids.ulid.random;
 
+import net.fisenko.utils.ids.ulid.Ulid;
+
 /**
  * Defines the interface for ulid Random Number Generators.
  */
@@ -11,4 +13,29 @@ public interface UlidRandom {
      * @return random bytes
      */
     byte[] getRandomBytes();
+
+    /**
+     * Creates a {@link Ulid} with the specified time part and a random part from this random. Implementations that keep their state in primitives can override this method to
+     * avoid the intermediate random bytes.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @return a new {@link Ulid}.
+     */
+    default Ulid nextUlid(long epochMillis) {
+        return Ulid.of(epochMillis, getRandomBytes());
+    }
+
+    /**
+     * Reserves a block of {@code count} consecutive {@link Ulid}'s: the returned {@link Ulid} and the {@code count - 1} {@link Ulid}'s that follow it (incrementing the random
+     * part by 1 each). None of them is returned by this random again. By default the most significant bit of the random part is set to 0 to leave room for the increments;
+     * monotonic randoms override this method to continue their sequence.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @param count       the number of {@link Ulid}'s to reserve; must be positive.
+     * @return the first {@link Ulid} of the block.
+     */
+    default Ulid nextUlidBlock(long epochMillis, int count) {
+        Ulid ulid = nextUlid(epochMillis);
+        return new Ulid(ulid.getMostSignificantBits() & ~0x8000L, ulid.getLeastSignificantBits());
+    }
 }
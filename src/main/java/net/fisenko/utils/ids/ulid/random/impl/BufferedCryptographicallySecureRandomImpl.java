@@ -0,0 +1,162 @@
+package net.fisenko.utils.ids.ulid.random.impl;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import net.fisenko.utils.ids.ulid.Ulid;
+import net.fisenko.utils.ids.ulid.random.UlidRandomBase;
+
+/**
+ * A cryptographically secure random for the random part of ulid's that draws random bytes in blocks.
+ * <p>
+ * Every thread has its own {@link SecureRandom} and block buffer; the random part of a ulid is a 10-byte slice of the block, and the block is refilled with a single {@link
+ * SecureRandom#nextBytes(byte[])} call once it's used up. This spreads the per-call overhead of the {@link SecureRandom} (provider dispatch and locking) over many ulid's.
+ * Bytes are never handed out twice, but note that every block stays in the memory of its thread until it's refilled.
+ * </p>
+ * <p>
+ * After a thread has drawn {@code reseedInterval} bytes its {@link SecureRandom} is reseeded from the entropy source ({@link SecureRandom#reseed()}, or a new instance when
+ * the algorithm doesn't support reseeding).
+ * </p>
+ */
+public class BufferedCryptographicallySecureRandomImpl extends UlidRandomBase {
+
+    /**
+     * Default {@link SecureRandom} algorithm; the NIST SP 800-90Ar1 DRBG generates large blocks much cheaper per byte than the platform's default (on Linux {@code NativePRNG},
+     * which mixes every requested byte with the operating system's random source).
+     */
+    public static final String DEFAULT_ALGORITHM = "DRBG";
+
+    /**
+     * Default size of the per-thread blocks
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    /**
+     * Default number of bytes a thread draws before its {@link SecureRandom} is reseeded
+     */
+    public static final long DEFAULT_RESEED_INTERVAL = 1 << 20;
+
+    private final String algorithm;
+    private final int blockSize;
+    private final long reseedInterval;
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(this::newBlock);
+
+    /**
+     * Initializes a new instance of the {@link BufferedCryptographicallySecureRandomImpl} class with the {@value #DEFAULT_ALGORITHM} algorithm.
+     */
+    public BufferedCryptographicallySecureRandomImpl() {
+        this(DEFAULT_ALGORITHM, DEFAULT_BLOCK_SIZE, DEFAULT_RESEED_INTERVAL);
+    }
+
+    /**
+     * Initializes a new instance of the {@link BufferedCryptographicallySecureRandomImpl} class.
+     *
+     * @param algorithm      the {@link SecureRandom} algorithm (e.g. {@code "DRBG"} or {@code "SHA1PRNG"}); use null for the platform's default.
+     * @param blockSize      the number of bytes every thread draws at once; rounded down to a multiple of the random part's length.
+     * @param reseedInterval the number of bytes a thread draws before its {@link SecureRandom} is reseeded; use 0 to never reseed.
+     * @throws IllegalArgumentException when {@code algorithm} is not available, {@code blockSize} is less than the random part's length or {@code reseedInterval} is negative.
+     */
+    public BufferedCryptographicallySecureRandomImpl(String algorithm, int blockSize, long reseedInterval) {
+        if (blockSize < RANDOM_LENGTH) {
+            throw new IllegalArgumentException(String.format("'blockSize' must be at least %d.", RANDOM_LENGTH));
+        }
+
+        if (reseedInterval < 0) {
+            throw new IllegalArgumentException("'reseedInterval' could not be negative.");
+        }
+
+        this.algorithm = algorithm;
+        this.blockSize = blockSize - blockSize % RANDOM_LENGTH;
+        this.reseedInterval = reseedInterval;
+        // Fail fast on an unknown algorithm rather than on the first use of every thread
+        newSecureRandom();
+    }
+
+    /**
+     * Creates and returns cryptographically secure random bytes.
+     *
+     * @return random bytes
+     */
+    @Override
+    public byte[] getRandomBytes() {
+        Block block = blocks.get();
+        byte[] buffer = new byte[RANDOM_LENGTH];
+        System.arraycopy(block.bytes, block.next(), buffer, 0, RANDOM_LENGTH);
+        return buffer;
+    }
+
+    @Override
+    public Ulid nextUlid(long epochMillis) {
+        Block block = blocks.get();
+        int position = block.next();
+        return Ulid.of(epochMillis, block.view.getShort(position), block.view.getLong(position + 2));
+    }
+
+    private Block newBlock() {
+        return new Block(newSecureRandom(), blockSize);
+    }
+
+    private SecureRandom newSecureRandom() {
+        if (algorithm == null) {
+            return new SecureRandom();
+        }
+
+        try {
+            return SecureRandom.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException(String.format("SecureRandom algorithm '%s' is not available.", algorithm), e);
+        }
+    }
+
+    /**
+     * The block of random bytes of a single thread.
+     */
+    private final class Block {
+
+        private final byte[] bytes;
+        private final ByteBuffer view;
+        private SecureRandom random;
+        private int position;
+        private long drawn;
+
+        private Block(SecureRandom random, int size) {
+            this.random = random;
+            this.bytes = new byte[size];
+            this.view = ByteBuffer.wrap(bytes);
+            // Start exhausted so the first call fills the block
+            this.position = size;
+        }
+
+        /**
+         * Reserves the next random part, refilling the block when it's used up.
+         *
+         * @return the position of the random part in the block.
+         */
+        private int next() {
+            if (position == bytes.length) {
+                fill();
+            }
+            int result = position;
+            position += RANDOM_LENGTH;
+            return result;
+        }
+
+        private void fill() {
+            if (reseedInterval > 0 && drawn >= reseedInterval) {
+                reseed();
+                drawn = 0;
+            }
+            random.nextBytes(bytes);
+            drawn += bytes.length;
+            position = 0;
+        }
+
+        private void reseed() {
+            try {
+                random.reseed();
+            } catch (UnsupportedOperationException e) {
+                random = newSecureRandom();
+            }
+        }
+    }
+}
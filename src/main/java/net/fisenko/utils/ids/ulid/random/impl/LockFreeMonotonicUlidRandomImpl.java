@@ -0,0 +1,131 @@
+package net.fisenko.utils.ids.ulid.random.impl;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import net.fisenko.utils.ids.ulid.Ulid;
+import net.fisenko.utils.ids.ulid.random.UlidRandomBase;
+
+/**
+ * A lock-free variant of {@link MonotonicUlidRandomImpl}: within the same millisecond the random part is incremented by 1 for every requested value.
+ * <p>
+ * The state for a millisecond is an immutable block holding the millisecond and the initial 80 bit random value (as 16 + 64 bits), plus a counter. Requesting a value only
+ * increments the counter of the current block and adds it to the initial value; a new block is created, and published with a CAS, once per millisecond. No mutable array is
+ * shared between threads, so concurrent callers never see each other's values.
+ * </p>
+ * <p>
+ * Like {@link MonotonicUlidRandomImpl} the most significant bit of the initial random value is set to 0 to leave room for increments. When the requested millisecond is not
+ * newer than the current block (the same millisecond, or the clock went backwards) the values continue from the current block and keep its millisecond, so {@link
+ * #nextUlid(long)} never returns a value lower than one it returned before on the same thread.
+ * </p>
+ */
+public class LockFreeMonotonicUlidRandomImpl extends UlidRandomBase {
+
+    /**
+     * Internal random to base initial values for the current millisecond on
+     */
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * Contains the block of the most recent millisecond
+     */
+    private final AtomicReference<Block> current;
+
+    /**
+     * Initializes a new instance of the {@link LockFreeMonotonicUlidRandomImpl} class.
+     */
+    public LockFreeMonotonicUlidRandomImpl() {
+        this(null);
+    }
+
+    /**
+     * Initializes a new instance of the {@link LockFreeMonotonicUlidRandomImpl}
+     *
+     * @param lastValue the last value to 'continue from'; use null for defaults
+     */
+    public LockFreeMonotonicUlidRandomImpl(Ulid lastValue) {
+        Block block = lastValue == null
+                ? new Block(-1, 0, 0)
+                : new Block(lastValue.getEpochMillis(), lastValue.getMostSignificantBits() & 0xFFFF, lastValue.getLeastSignificantBits());
+        // The last value itself has been used already
+        block.sequence.set(1);
+        current = new AtomicReference<>(block);
+    }
+
+    /**
+     * Creates and returns random bytes for the current time.
+     *
+     * @return random bytes; the array is never shared.
+     * @throws IndexOutOfBoundsException when the random part overflows within a single millisecond.
+     */
+    @Override
+    public byte[] getRandomBytes() {
+        return nextUlid(System.currentTimeMillis()).getRandomness();
+    }
+
+    /**
+     * Creates a {@link Ulid} whose random part is one higher than the previous one when {@code epochMillis} is not newer than the previous call.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @return a new {@link Ulid}.
+     * @throws IndexOutOfBoundsException when the random part overflows within a single millisecond.
+     */
+    @Override
+    public Ulid nextUlid(long epochMillis) {
+        return nextUlidBlock(epochMillis, 1);
+    }
+
+    /**
+     * Reserves {@code count} consecutive values of the current millisecond's sequence with a single atomic add.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @param count       the number of {@link Ulid}'s to reserve; must be positive.
+     * @return the first {@link Ulid} of the block.
+     * @throws IndexOutOfBoundsException when the random part overflows within a single millisecond.
+     */
+    @Override
+    public Ulid nextUlidBlock(long epochMillis, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("'count' must be positive.");
+        }
+
+        Block block = current.get();
+        while (epochMillis > block.millis) {
+            Block next = new Block(epochMillis, random.nextInt() & 0x7FFF, random.nextLong());
+            if (current.compareAndSet(block, next)) {
+                block = next;
+                break;
+            }
+            // Another thread started a new block; use it unless it's still older
+            block = current.get();
+        }
+
+        long increment = block.sequence.getAndAdd(count);
+        long lo = block.lo + increment;
+        long hi = block.hi + (Long.compareUnsigned(lo, block.lo) < 0 ? 1 : 0);
+        // The last value of the block must fit as well
+        long lastLo = lo + (count - 1);
+        long lastHi = hi + (Long.compareUnsigned(lastLo, lo) < 0 ? 1 : 0);
+        if (lastHi > 0xFFFF) {
+            throw new IndexOutOfBoundsException();
+        }
+        return Ulid.of(block.millis, hi, lo);
+    }
+
+    /**
+     * The initial random value of a millisecond and the number of values handed out since.
+     */
+    private static final class Block {
+
+        private final long millis;
+        private final long hi;
+        private final long lo;
+        private final AtomicLong sequence = new AtomicLong();
+
+        private Block(long millis, long hi, long lo) {
+            this.millis = millis;
+            this.hi = hi;
+            this.lo = lo;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package net.fisenko.utils.ids.ulid.random.impl;
 
 import java.security.SecureRandom;
+import net.fisenko.utils.ids.jfr.ClockRegressionEvent;
+import net.fisenko.utils.ids.jfr.LockWaitEvent;
+import net.fisenko.utils.ids.jfr.SequenceOverflowEvent;
 import net.fisenko.utils.ids.ulid.Ulid;
 import net.fisenko.utils.ids.ulid.UlidIdGeneratorImpl;
 import net.fisenko.utils.ids.ulid.random.UlidRandom;
@@ -11,7 +14,7 @@ import net.fisenko.utils.ids.utils.Time;
  * A random that increments the random part by 1 bit each time a random value is requested within the same millisecond.
  * <p>
  * This 'wrapper' random generates random bytes based on a specified random (which can be any random that implements {@link UlidIdGeneratorImpl}. However, when {@link
- * #getRandomBytes()} is called within the same millisecond, the last generated value + 1 will be returned instead. This causes "monotonic increasing" values.
+ * #nextUlid(long)} is called for the same millisecond, the last generated value + 1 will be returned instead. This causes "monotonic increasing" values.
  * </p>
  * <p>
  * To ensure there are enough values *within* the same millisecond the generated initial random value for a given millisecond will have a specified of (most significant) bits set
@@ -35,7 +38,7 @@ public class MonotonicUlidRandomImpl extends UlidRandomBase {
      */
     private final byte[] lastValue;
     /**
-     * Contains the timestamp of when the {@link #getRandomBytes()} method was last called
+     * Contains the newest timestamp values were generated for
      */
     private long lastGen;
 
@@ -63,33 +66,124 @@ public class MonotonicUlidRandomImpl extends UlidRandomBase {
      * uses {@code System.currentTimeMillis()} an offset for which the random bytes need to be generated; this value is used to determine whether a sequence needs to be incremented
      * (same timestamp with millisecond resolution) or reset to a new random value.
      *
-     * @return random bytes
+     * @return random bytes; the array is never shared.
      * @throws IndexOutOfBoundsException when the specified {@code dateTime} is before the last time this method was called.
      */
     @Override
     public byte[] getRandomBytes() {
+        return nextRandomBytes(System.currentTimeMillis(), 1);
+    }
+
+    /**
+     * Creates a {@link Ulid} whose random part is one higher than the previous one when {@code epochMillis} is not newer than the previous call.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @return a new {@link Ulid}.
+     * @throws IndexOutOfBoundsException when the random part overflows.
+     */
+    @Override
+    public Ulid nextUlid(long epochMillis) {
+        return nextUlidBlock(epochMillis, 1);
+    }
+
+    /**
+     * Reserves {@code count} consecutive values: the value {@link #nextUlid(long)} would return, followed by the next {@code count - 1} increments.
+     *
+     * @param epochMillis the time part; the number of milliseconds since the Unix epoch.
+     * @param count       the number of {@link Ulid}'s to reserve; must be positive.
+     * @return the first {@link Ulid} of the block.
+     * @throws IndexOutOfBoundsException when the random part overflows.
+     */
+    @Override
+    public Ulid nextUlidBlock(long epochMillis, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("'count' must be positive.");
+        }
+
+        return Ulid.of(epochMillis, nextRandomBytes(epochMillis, count));
+    }
+
+    /**
+     * Takes the lock, once per call and inside a single {@link LockWaitEvent}, and reserves {@code count} values of the sequence for {@code timestamp}.
+     *
+     * @return the first reserved value; a copy, since the last value keeps changing under the lock.
+     */
+    private byte[] nextRandomBytes(long timestamp, int count) {
+        LockWaitEvent event = LockWaitEvent.beginIfEnabled();
         synchronized (lock) {
-            // Get unix time for given datetime
-            long timestamp = System.currentTimeMillis();
-
-            // Same or earlier timestamp as last time we generated random values?
-            if (timestamp <= lastGen) {
-                // Increment our random value by one.
-                var i = RANDOM_LENGTH;
-                while (--i >= 0 && ++lastValue[i] == 0) {
-                }
-                // If I made it all the way to -1 we have an overflow and we throw
-                if (i < 0) {
-                    throw new IndexOutOfBoundsException();
-                }
-            } else // New(er) timestamp, so generate a new random value and store the new(er) timestamp
-            {
-                random.nextBytes(lastValue);
-                lastValue[0] = (byte) (lastValue[0] & 0x7F);// Mask out bit 0 of the random part
-
-                lastGen = timestamp;   // Store last timestamp
+            if (event != null) {
+                event.end();
+                commit(event, timestamp);
             }
-            return lastValue;
+            return advance(timestamp, count);
+        }
+    }
+
+    // Called while holding the lock
+    private byte[] advance(long timestamp, int count) {
+        // Same or earlier timestamp as last time we generated random values?
+        if (timestamp <= lastGen) {
+            if (timestamp < lastGen) {
+                commitClockRegression(timestamp);
+            }
+            // Increment our random value by one.
+            var i = RANDOM_LENGTH;
+            while (--i >= 0 && ++lastValue[i] == 0) {
+            }
+            // If I made it all the way to -1 we have an overflow and we throw
+            if (i < 0) {
+                commitOverflow();
+                throw new IndexOutOfBoundsException();
+            }
+        } else // New(er) timestamp, so generate a new random value and store the new(er) timestamp
+        {
+            random.nextBytes(lastValue);
+            lastValue[0] = (byte) (lastValue[0] & 0x7F);// Mask out bit 0 of the random part
+
+            lastGen = timestamp;   // Store last timestamp
+        }
+        byte[] first = lastValue.clone();
+
+        // Skip the rest of the block by adding count - 1 to the last value, carrying from the least significant byte
+        long carry = count - 1;
+        var i = RANDOM_LENGTH;
+        while (--i >= 0 && carry != 0) {
+            long sum = (lastValue[i] & 0xFF) + carry;
+            lastValue[i] = (byte) sum;
+            carry = sum >>> 8;
+        }
+        if (carry != 0) {
+            commitOverflow();
+            throw new IndexOutOfBoundsException();
+        }
+        return first;
+    }
+
+    // Called while holding the lock, so lastGen is current
+    private void commit(LockWaitEvent event, long timestamp) {
+        if (event.shouldCommit()) {
+            event.generatorId = -1;
+            event.tick = timestamp;
+            event.commit();
+        }
+    }
+
+    private void commitClockRegression(long timestamp) {
+        ClockRegressionEvent event = new ClockRegressionEvent();
+        if (event.shouldCommit()) {
+            event.generatorId = -1;
+            event.tick = timestamp;
+            event.lastTick = lastGen;
+            event.commit();
+        }
+    }
+
+    private void commitOverflow() {
+        SequenceOverflowEvent event = new SequenceOverflowEvent();
+        if (event.shouldCommit()) {
+            event.generatorId = -1;
+            event.tick = lastGen;
+            event.commit();
         }
     }
-}
\ No newline at end of file
+}
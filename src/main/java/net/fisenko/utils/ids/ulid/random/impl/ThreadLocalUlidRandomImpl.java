@@ -0,0 +1,33 @@
+package net.fisenko.utils.ids.ulid.random.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+import net.fisenko.utils.ids.ulid.Ulid;
+import net.fisenko.utils.ids.ulid.random.UlidRandomBase;
+
+/**
+ * A fast, non-cryptographic random for the random part of ulid's that shares no state between threads.
+ * <p>
+ * Every thread draws from its own {@link ThreadLocalRandom}, so unlike {@link SimpleUlidRandomImpl} there is no shared seed to contend on. {@link #nextUlid(long)} takes the random
+ * part straight from two random longs instead of going through a byte array.
+ * </p>
+ */
+public class ThreadLocalUlidRandomImpl extends UlidRandomBase {
+
+    /**
+     * Creates and returns random bytes
+     *
+     * @return random bytes
+     */
+    @Override
+    public byte[] getRandomBytes() {
+        byte[] buffer = new byte[RANDOM_LENGTH];
+        ThreadLocalRandom.current().nextBytes(buffer);
+        return buffer;
+    }
+
+    @Override
+    public Ulid nextUlid(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Ulid.of(epochMillis, random.nextInt(), random.nextLong());
+    }
+}
@@ -1,5 +1,7 @@
 package net.fisenko.utils.ids.ulid.utils;
 
+import java.nio.charset.StandardCharsets;
+
 public class Base32 {
 
     /**
@@ -20,10 +22,23 @@ public class Base32 {
             (byte) 25, (byte) 26, (byte) 255, (byte) 27, (byte) 28, (byte) 29, (byte) 30, (byte) 31
     };
     public final static int C2B32LEN = C2B32.length;
+    /**
+     * Char to index lookup array like {@link #C2B32}, but with -1 as 'sentinel' value so invalid chars can be detected by OR-ing the indexes together.
+     */
+    private final static int[] DECODE = new int[C2B32LEN];
+
+    static {
+        for (int i = 0; i < C2B32LEN; i++) {
+            int index = C2B32[i] & 0xFF;
+            DECODE[i] = index <= 31 ? index : -1;
+        }
+    }
     /**
      * Base32 "alphabet"
      */
     private final static String BASE32 = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private final static char[] BASE32_CHARS = BASE32.toCharArray();
+    private final static byte[] BASE32_BYTES = BASE32.getBytes(StandardCharsets.US_ASCII);
 
     public static String toBase32(byte[] value) {
         // Hand-optimized unrolled loops ahead
@@ -55,6 +70,69 @@ public class Base32 {
         throw new IllegalStateException("Invalid length");
     }
 
+    /**
+     * Encodes 128 bits as 26 Base32 characters; the first character holds the 3 most significant bits and every following one the next 5 bits. The caller is responsible for
+     * the bounds of {@code dst}.
+     *
+     * @param msb the 64 most significant bits.
+     * @param lsb the 64 least significant bits.
+     * @param dst the array to write the characters to.
+     * @param off the position of the first character in {@code dst}.
+     */
+    public static void encode(long msb, long lsb, char[] dst, int off) {
+        // Hand-optimized unrolled loops ahead; only character 13 takes bits from both longs
+        final char[] a = BASE32_CHARS;
+        /* 0  */ dst[off] = a[(int) (msb >>> 61)];                                     /* 1  */ dst[off + 1] = a[(int) (msb >>> 56) & 31];
+        /* 2  */ dst[off + 2] = a[(int) (msb >>> 51) & 31];                            /* 3  */ dst[off + 3] = a[(int) (msb >>> 46) & 31];
+        /* 4  */ dst[off + 4] = a[(int) (msb >>> 41) & 31];                            /* 5  */ dst[off + 5] = a[(int) (msb >>> 36) & 31];
+        /* 6  */ dst[off + 6] = a[(int) (msb >>> 31) & 31];                            /* 7  */ dst[off + 7] = a[(int) (msb >>> 26) & 31];
+        /* 8  */ dst[off + 8] = a[(int) (msb >>> 21) & 31];                            /* 9  */ dst[off + 9] = a[(int) (msb >>> 16) & 31];
+        /* 10 */ dst[off + 10] = a[(int) (msb >>> 11) & 31];                           /* 11 */ dst[off + 11] = a[(int) (msb >>> 6) & 31];
+        /* 12 */ dst[off + 12] = a[(int) (msb >>> 1) & 31];                            /* 13 */ dst[off + 13] = a[(int) (((msb & 1) << 4) | (lsb >>> 60))];
+        /* 14 */ dst[off + 14] = a[(int) (lsb >>> 55) & 31];                           /* 15 */ dst[off + 15] = a[(int) (lsb >>> 50) & 31];
+        /* 16 */ dst[off + 16] = a[(int) (lsb >>> 45) & 31];                           /* 17 */ dst[off + 17] = a[(int) (lsb >>> 40) & 31];
+        /* 18 */ dst[off + 18] = a[(int) (lsb >>> 35) & 31];                           /* 19 */ dst[off + 19] = a[(int) (lsb >>> 30) & 31];
+        /* 20 */ dst[off + 20] = a[(int) (lsb >>> 25) & 31];                           /* 21 */ dst[off + 21] = a[(int) (lsb >>> 20) & 31];
+        /* 22 */ dst[off + 22] = a[(int) (lsb >>> 15) & 31];                           /* 23 */ dst[off + 23] = a[(int) (lsb >>> 10) & 31];
+        /* 24 */ dst[off + 24] = a[(int) (lsb >>> 5) & 31];                            /* 25 */ dst[off + 25] = a[(int) lsb & 31];
+    }
+
+    /**
+     * Encodes 128 bits as 26 ASCII Base32 characters; see {@link #encode(long, long, char[], int)}.
+     *
+     * @param msb the 64 most significant bits.
+     * @param lsb the 64 least significant bits.
+     * @param dst the array to write the ASCII characters to.
+     * @param off the position of the first character in {@code dst}.
+     */
+    public static void encode(long msb, long lsb, byte[] dst, int off) {
+        // Hand-optimized unrolled loops ahead; only character 13 takes bits from both longs
+        final byte[] a = BASE32_BYTES;
+        /* 0  */ dst[off] = a[(int) (msb >>> 61)];                                     /* 1  */ dst[off + 1] = a[(int) (msb >>> 56) & 31];
+        /* 2  */ dst[off + 2] = a[(int) (msb >>> 51) & 31];                            /* 3  */ dst[off + 3] = a[(int) (msb >>> 46) & 31];
+        /* 4  */ dst[off + 4] = a[(int) (msb >>> 41) & 31];                            /* 5  */ dst[off + 5] = a[(int) (msb >>> 36) & 31];
+        /* 6  */ dst[off + 6] = a[(int) (msb >>> 31) & 31];                            /* 7  */ dst[off + 7] = a[(int) (msb >>> 26) & 31];
+        /* 8  */ dst[off + 8] = a[(int) (msb >>> 21) & 31];                            /* 9  */ dst[off + 9] = a[(int) (msb >>> 16) & 31];
+        /* 10 */ dst[off + 10] = a[(int) (msb >>> 11) & 31];                           /* 11 */ dst[off + 11] = a[(int) (msb >>> 6) & 31];
+        /* 12 */ dst[off + 12] = a[(int) (msb >>> 1) & 31];                            /* 13 */ dst[off + 13] = a[(int) (((msb & 1) << 4) | (lsb >>> 60))];
+        /* 14 */ dst[off + 14] = a[(int) (lsb >>> 55) & 31];                           /* 15 */ dst[off + 15] = a[(int) (lsb >>> 50) & 31];
+        /* 16 */ dst[off + 16] = a[(int) (lsb >>> 45) & 31];                           /* 17 */ dst[off + 17] = a[(int) (lsb >>> 40) & 31];
+        /* 18 */ dst[off + 18] = a[(int) (lsb >>> 35) & 31];                           /* 19 */ dst[off + 19] = a[(int) (lsb >>> 30) & 31];
+        /* 20 */ dst[off + 20] = a[(int) (lsb >>> 25) & 31];                           /* 21 */ dst[off + 21] = a[(int) (lsb >>> 20) & 31];
+        /* 22 */ dst[off + 22] = a[(int) (lsb >>> 15) & 31];                           /* 23 */ dst[off + 23] = a[(int) (lsb >>> 10) & 31];
+        /* 24 */ dst[off + 24] = a[(int) (lsb >>> 5) & 31];                            /* 25 */ dst[off + 25] = a[(int) lsb & 31];
+    }
+
+    /**
+     * Gets the index of a Base32 char; lower case chars and the Crockford aliases I, L and O are accepted as well.
+     *
+     * @param c the char (or ASCII byte) to look up.
+     * @return the index of the char (0-31), or -1 when the char is not a valid Base32 char.
+     */
+    public static int decode(int c) {
+        return c >= 0 && c < C2B32LEN ? DECODE[c] : -1;
+    }
+
     public static byte[] fromBase32(String v) {
         // Hand-optimized unrolled loops ahead
         switch (v.length()) {
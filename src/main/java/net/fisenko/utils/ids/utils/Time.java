@@ -9,11 +9,35 @@ public class Time {
 
     public final static OffsetDateTime UNIX_EPOCH = OffsetDateTime.of(LocalDateTime.of(1970, 1, 1, 0, 0, 0), ZoneOffset.UTC);
 
+    public final static long MILLIS_PER_HOUR = 60 * 60 * 1000;
+
+    public final static long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
     public static long toUnixTimeMilli(OffsetDateTime offsetDateTime) {
-        return offsetDateTime.toEpochSecond() * 1000;
+        return offsetDateTime.toInstant().toEpochMilli();
     }
 
     public static OffsetDateTime fromUnixTimeMilli(long milli) {
         return Instant.ofEpochMilli(milli).atOffset(ZoneOffset.ofTotalSeconds(0));
     }
+
+    /**
+     * Gets the number of whole hours since the Unix epoch (UTC), e.g. as an hourly partition key.
+     *
+     * @param epochMillis the number of milliseconds since the Unix epoch.
+     * @return the hour bucket; times before the epoch give negative buckets.
+     */
+    public static long hourBucket(long epochMillis) {
+        return Math.floorDiv(epochMillis, MILLIS_PER_HOUR);
+    }
+
+    /**
+     * Gets the number of whole days since the Unix epoch (UTC), e.g. as a daily partition key.
+     *
+     * @param epochMillis the number of milliseconds since the Unix epoch.
+     * @return the day bucket; times before the epoch give negative buckets.
+     */
+    public static long dayBucket(long epochMillis) {
+        return Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+    }
 }
@@ -0,0 +1,163 @@
+package net.fisenko.utils.ids.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+import net.fisenko.utils.ids.ulid.Ulid;
+import org.junit.Test;
+
+public class IdCodecTest {
+
+    private static final int COUNT = 100;
+    // Written at a non-zero position, so relative and absolute positions differ
+    private static final int START = 3;
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void longIdsRoundTripThroughHeapAndDirectBuffers() {
+        long[] ids = randomLongIds();
+
+        for (ByteBuffer buffer : buffers(COUNT * IdCodec.LONG_ID_BYTES)) {
+            IdCodec.writeLongIds(ids, 0, COUNT, buffer);
+            assertThat(buffer.position()).isEqualTo(START + COUNT * IdCodec.LONG_ID_BYTES);
+            assertThat(buffer.order()).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+
+            long[] read = new long[COUNT + 2];
+            IdCodec.readLongIds(buffer.position(START), read, 1, COUNT);
+            assertThat(Arrays.copyOfRange(read, 1, COUNT + 1)).isEqualTo(ids);
+            assertThat(buffer.position()).isEqualTo(START + COUNT * IdCodec.LONG_ID_BYTES);
+            assertThat(buffer.order()).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    @Test
+    public void ulidsRoundTripThroughHeapAndDirectBuffers() {
+        Ulid[] ulids = randomUlids();
+        long[] msb = new long[COUNT];
+        long[] lsb = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            msb[i] = ulids[i].getMostSignificantBits();
+            lsb[i] = ulids[i].getLeastSignificantBits();
+        }
+
+        for (ByteBuffer buffer : buffers(2 * COUNT * IdCodec.ULID_BYTES)) {
+            IdCodec.writeUlids(ulids, 0, COUNT, buffer);
+            IdCodec.writeUlids(msb, lsb, 0, COUNT, buffer);
+            assertThat(buffer.position()).isEqualTo(START + 2 * COUNT * IdCodec.ULID_BYTES);
+            assertThat(buffer.order()).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+
+            Ulid[] read = new Ulid[COUNT];
+            long[] readMsb = new long[COUNT];
+            long[] readLsb = new long[COUNT];
+            buffer.position(START);
+            IdCodec.readUlids(buffer, read, 0, COUNT);
+            IdCodec.readUlids(buffer, readMsb, readLsb, 0, COUNT);
+            assertThat(read).isEqualTo(ulids);
+            assertThat(readMsb).isEqualTo(msb);
+            assertThat(readLsb).isEqualTo(lsb);
+            assertThat(buffer.position()).isEqualTo(START + 2 * COUNT * IdCodec.ULID_BYTES);
+            assertThat(buffer.order()).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    @Test
+    public void encodedIdsCompareInTheOrderOfTheIds() {
+        // Id's are never negative; ULID's are compared unsigned, so include ones with the highest bit set
+        long[] ids = randomLongIds();
+        Ulid[] ulids = randomUlids();
+        ulids[0] = Ulid.MAX_VALUE;
+        ulids[1] = Ulid.MIN_VALUE;
+        ByteBuffer longBytes = ByteBuffer.allocate(COUNT * IdCodec.LONG_ID_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer ulidBytes = ByteBuffer.allocate(COUNT * IdCodec.ULID_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        IdCodec.writeLongIds(ids, 0, COUNT, longBytes);
+        IdCodec.writeUlids(ulids, 0, COUNT, ulidBytes);
+
+        for (int i = 1; i < COUNT; i++) {
+            assertThat(Integer.signum(compareUnsigned(longBytes, i - 1, i, IdCodec.LONG_ID_BYTES))).isEqualTo(Integer.signum(Long.compare(ids[i - 1], ids[i])));
+            assertThat(Integer.signum(compareUnsigned(ulidBytes, i - 1, i, IdCodec.ULID_BYTES))).isEqualTo(Integer.signum(ulids[i - 1].compareTo(ulids[i])));
+            // The same bytes as Ulid.toByteArray()
+            byte[] bytes = new byte[IdCodec.ULID_BYTES];
+            ulidBytes.duplicate().position(i * IdCodec.ULID_BYTES).get(bytes);
+            assertThat(bytes).isEqualTo(ulids[i].toByteArray());
+        }
+    }
+
+    @Test
+    public void ulidsRoundTripThroughUuids() {
+        for (Ulid ulid : randomUlids()) {
+            UUID uuid = ulid.toUuid();
+
+            assertThat(Ulid.fromUuid(uuid)).isEqualTo(ulid);
+            assertThat(Ulid.fromUuid(uuid).toUuid()).isEqualTo(uuid);
+        }
+        assertThat(Ulid.fromUuid(Ulid.MAX_VALUE.toUuid())).isEqualTo(Ulid.MAX_VALUE);
+    }
+
+    @Test
+    public void leavesTheBufferAsItIsWhenTheIdsDoNotFit() {
+        ByteBuffer buffer = ByteBuffer.allocate(START + IdCodec.ULID_BYTES - 1).position(START);
+
+        assertThatThrownBy(() -> IdCodec.writeLongIds(new long[2], 0, 2, buffer)).isInstanceOf(BufferOverflowException.class);
+        assertThatThrownBy(() -> IdCodec.writeUlids(new Ulid[]{Ulid.MIN_VALUE}, 0, 1, buffer)).isInstanceOf(BufferOverflowException.class);
+        assertThatThrownBy(() -> IdCodec.readUlids(buffer, new Ulid[1], 0, 1)).isInstanceOf(BufferUnderflowException.class);
+        assertThatThrownBy(() -> IdCodec.readLongIds(buffer, new long[2], 0, 2)).isInstanceOf(BufferUnderflowException.class);
+        assertThat(buffer.position()).isEqualTo(START);
+    }
+
+    @Test
+    public void rejectsNullArguments() {
+        ByteBuffer buffer = ByteBuffer.allocate(IdCodec.ULID_BYTES);
+        long[] longs = new long[1];
+
+        assertThatThrownBy(() -> IdCodec.writeLongIds(null, 0, 1, buffer)).isInstanceOf(IllegalArgumentException.class).hasMessage("'ids' could not be null.");
+        assertThatThrownBy(() -> IdCodec.writeLongIds(longs, 0, 1, null)).isInstanceOf(IllegalArgumentException.class).hasMessage("'dst' could not be null.");
+        assertThatThrownBy(() -> IdCodec.readLongIds(null, longs, 0, 1)).isInstanceOf(IllegalArgumentException.class).hasMessage("'src' could not be null.");
+        assertThatThrownBy(() -> IdCodec.readLongIds(buffer, null, 0, 1)).isInstanceOf(IllegalArgumentException.class).hasMessage("'ids' could not be null.");
+        assertThatThrownBy(() -> IdCodec.writeUlids(null, 0, 1, buffer)).isInstanceOf(IllegalArgumentException.class).hasMessage("'ulids' could not be null.");
+        assertThatThrownBy(() -> IdCodec.writeUlids(longs, null, 0, 1, buffer)).isInstanceOf(IllegalArgumentException.class).hasMessage("'lsb' could not be null.");
+        assertThatThrownBy(() -> IdCodec.readUlids(buffer, (Ulid[]) null, 0, 1)).isInstanceOf(IllegalArgumentException.class).hasMessage("'ulids' could not be null.");
+        assertThatThrownBy(() -> IdCodec.readUlids(buffer, null, longs, 0, 1)).isInstanceOf(IllegalArgumentException.class).hasMessage("'msb' could not be null.");
+    }
+
+    private long[] randomLongIds() {
+        long[] ids = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            ids[i] = random.nextLong() >>> 1;
+        }
+        return ids;
+    }
+
+    private Ulid[] randomUlids() {
+        Ulid[] ulids = new Ulid[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            ulids[i] = new Ulid(random.nextLong(), random.nextLong());
+        }
+        return ulids;
+    }
+
+    // A little-endian heap and direct buffer, positioned at START, so the codec has to write big-endian regardless
+    private static ByteBuffer[] buffers(int capacity) {
+        return new ByteBuffer[]{
+                ByteBuffer.allocate(START + capacity).order(ByteOrder.LITTLE_ENDIAN).position(START),
+                ByteBuffer.allocateDirect(START + capacity).order(ByteOrder.LITTLE_ENDIAN).position(START)
+        };
+    }
+
+    private static int compareUnsigned(ByteBuffer buffer, int a, int b, int length) {
+        for (int i = 0; i < length; i++) {
+            int cmp = Integer.compare(buffer.get(a * length + i) & 0xFF, buffer.get(b * length + i) & 0xFF);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+}
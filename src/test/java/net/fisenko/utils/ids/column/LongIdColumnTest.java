@@ -0,0 +1,104 @@
+package net.fisenko.utils.ids.column;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdDecoder;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.junit.Test;
+
+public class LongIdColumnTest {
+
+    private static final long EPOCH_MILLIS = SnowflakeIdGeneratorImpl.DefaultEpoch.toInstant().toEpochMilli();
+
+    private final Random random = new Random(42);
+    private final SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(MaskConfig.Default, new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch, Duration.ofMillis(1)));
+
+    @Test
+    public void sortsLikeArraysSort() {
+        for (int size : new int[]{0, 1, 63, 64, 65, 5_000}) {
+            long[] ids = new long[size];
+            for (int i = 0; i < size; i++) {
+                ids[i] = random.nextLong();
+            }
+            LongIdColumn column = new LongIdColumn();
+            column.addAll(ids, 0, size);
+            Arrays.sort(ids);
+
+            column.sort();
+
+            assertThat(column.isSorted()).isTrue();
+            assertThat(toArray(column)).as("size %d", size).isEqualTo(ids);
+        }
+    }
+
+    @Test
+    public void tracksWhetherAppendedIdsAreSorted() {
+        LongIdColumn column = new LongIdColumn();
+        column.addAll(new long[]{1, 2, 3}, 0, 3);
+        column.add(3);
+        assertThat(column.isSorted()).isTrue();
+
+        column.addAll(new long[]{2}, 0, 1);
+        assertThat(column.isSorted()).isFalse();
+        assertThatThrownBy(() -> column.binarySearch(2)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> column.slice(decoder, 0, 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void sliceIncludesBothEndsOfTheWindow() {
+        long t = EPOCH_MILLIS + 1_000;
+        LongIdColumn column = column(decoder.maxIdAt(t - 1), decoder.minIdAt(t), decoder.minIdAt(t) + 42, decoder.maxIdAt(t + 1), decoder.minIdAt(t + 2));
+
+        assertThat(toArray(column.slice(decoder, t, t + 1))).containsExactly(decoder.minIdAt(t), decoder.minIdAt(t) + 42, decoder.maxIdAt(t + 1));
+        assertThat(toArray(column.slice(decoder, t, t))).containsExactly(decoder.minIdAt(t), decoder.minIdAt(t) + 42);
+        assertThat(toArray(column.slice(decoder, Long.MIN_VALUE, Long.MAX_VALUE))).isEqualTo(toArray(column));
+    }
+
+    @Test
+    public void sliceOfAnEmptyOrInvertedWindowIsEmpty() {
+        long t = EPOCH_MILLIS + 1_000;
+        LongIdColumn column = column(decoder.minIdAt(EPOCH_MILLIS), decoder.maxIdAt(t));
+
+        assertThat(column.slice(decoder, t, t - 1).size()).isZero();
+        assertThat(column.slice(decoder, Long.MIN_VALUE, EPOCH_MILLIS - 1).size()).isZero();
+        assertThat(column.slice(decoder, EPOCH_MILLIS + 1, t - 1).size()).isZero();
+        assertThat(new LongIdColumn().slice(decoder, EPOCH_MILLIS, t).size()).isZero();
+    }
+
+    @Test
+    public void sliceClampsTheWindowToTheTimestampRange() {
+        long firstId = decoder.minIdAt(EPOCH_MILLIS);
+        long lastId = Long.MAX_VALUE;
+        LongIdColumn column = column(firstId, firstId + 1, lastId - 1, lastId);
+
+        assertThat(toArray(column.slice(decoder, EPOCH_MILLIS - 5, EPOCH_MILLIS))).containsExactly(firstId, firstId + 1);
+        assertThat(toArray(column.slice(decoder, decoder.epochMillisOf(lastId), Long.MAX_VALUE))).containsExactly(lastId - 1, lastId);
+    }
+
+    @Test
+    public void sliceRequiresADecoder() {
+        assertThatThrownBy(() -> new LongIdColumn().slice(null, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static LongIdColumn column(long... ids) {
+        LongIdColumn column = new LongIdColumn();
+        for (long id : ids) {
+            column.add(id);
+        }
+        return column;
+    }
+
+    private static long[] toArray(LongIdColumn column) {
+        long[] ids = new long[column.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = column.get(i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,140 @@
+package net.fisenko.utils.ids.column;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import net.fisenko.utils.ids.ulid.Ulid;
+import org.junit.Test;
+
+public class RadixSortTest {
+
+    // Around the insertion sort threshold of 64, and well above it
+    private static final int[] SIZES = {0, 1, 2, 63, 64, 65, 1_000, 10_000};
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void sortsSignedKeysLikeArraysSort() {
+        for (int size : SIZES) {
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = random.nextLong();
+            }
+            if (size >= 4) {
+                keys[0] = Long.MIN_VALUE;
+                keys[1] = Long.MAX_VALUE;
+                keys[2] = -1;
+                keys[3] = 0;
+            }
+
+            assertSortedLikeArraysSort(keys, size);
+        }
+    }
+
+    @Test
+    public void sortsKeysThatShareTheirHighBytes() {
+        for (int size : SIZES) {
+            long[] keys = new long[size];
+            long base = 1_600_000_000_000L << 22;
+            for (int i = 0; i < size; i++) {
+                keys[i] = base + random.nextInt(1 << 20);
+            }
+
+            assertSortedLikeArraysSort(keys, size);
+        }
+    }
+
+    @Test
+    public void sortsEqualKeys() {
+        for (int size : SIZES) {
+            long[] keys = new long[size];
+            Arrays.fill(keys, -42);
+
+            assertSortedLikeArraysSort(keys, size);
+        }
+    }
+
+    @Test
+    public void sortsOnlyTheFirstSizeKeys() {
+        long[] keys = new long[200];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = keys.length - i;
+        }
+        long[] tail = Arrays.copyOfRange(keys, 100, keys.length);
+
+        RadixSort.sort(keys, 100);
+
+        long[] expected = Arrays.copyOf(keys, 100);
+        Arrays.sort(expected);
+        assertThat(Arrays.copyOf(keys, 100)).isEqualTo(expected);
+        assertThat(Arrays.copyOfRange(keys, 100, keys.length)).isEqualTo(tail);
+    }
+
+    @Test
+    public void sortsUnsignedKeysLikeCollectionsSort() {
+        for (int size : SIZES) {
+            long[] msb = new long[size];
+            long[] lsb = new long[size];
+            for (int i = 0; i < size; i++) {
+                msb[i] = random.nextLong();
+                lsb[i] = random.nextLong();
+            }
+            if (size >= 4) {
+                // Keys with the top bit set are the highest, not the lowest
+                msb[0] = Long.MIN_VALUE;
+                lsb[0] = 0;
+                msb[1] = -1;
+                lsb[1] = -1;
+                msb[2] = 0;
+                lsb[2] = Long.MIN_VALUE;
+                msb[3] = 0;
+                lsb[3] = 0;
+            }
+
+            assertSortedLikeCollectionsSort(msb, lsb, size);
+        }
+    }
+
+    @Test
+    public void sortsUnsignedKeysThatDifferOnlyInTheirLeastSignificantBits() {
+        for (int size : SIZES) {
+            long[] msb = new long[size];
+            long[] lsb = new long[size];
+            for (int i = 0; i < size; i++) {
+                msb[i] = 0x0123_4567_89AB_CDEFL;
+                lsb[i] = random.nextLong();
+            }
+
+            assertSortedLikeCollectionsSort(msb, lsb, size);
+        }
+    }
+
+    private static void assertSortedLikeArraysSort(long[] keys, int size) {
+        long[] expected = keys.clone();
+        Arrays.sort(expected);
+
+        RadixSort.sort(keys, size);
+
+        assertThat(keys).as("size %d", size).isEqualTo(expected);
+    }
+
+    private static void assertSortedLikeCollectionsSort(long[] msb, long[] lsb, int size) {
+        List<Ulid> expected = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            expected.add(new Ulid(msb[i], lsb[i]));
+        }
+        Collections.sort(expected);
+
+        RadixSort.sort(msb, lsb, size);
+
+        List<Ulid> actual = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            actual.add(new Ulid(msb[i], lsb[i]));
+        }
+        assertThat(actual).as("size %d", size).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,102 @@
+package net.fisenko.utils.ids.column;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import net.fisenko.utils.ids.ulid.Ulid;
+import org.junit.Test;
+
+public class UlidColumnTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void sortsLikeCollectionsSort() {
+        for (int size : new int[]{0, 1, 63, 64, 65, 5_000}) {
+            UlidColumn column = new UlidColumn();
+            List<Ulid> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Ulid ulid = Ulid.of(random.nextLong() & Ulid.MAX_EPOCH_MILLIS, random.nextInt(1 << 16), random.nextLong());
+                column.add(ulid);
+                expected.add(ulid);
+            }
+            Collections.sort(expected);
+
+            column.sort();
+
+            assertThat(column.isSorted()).isTrue();
+            assertThat(toList(column)).as("size %d", size).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void tracksWhetherAppendedUlidsAreSorted() {
+        UlidColumn column = new UlidColumn();
+        column.add(Ulid.minAt(1));
+        column.add(Ulid.maxAt(1));
+        assertThat(column.isSorted()).isTrue();
+
+        column.add(Ulid.minAt(0));
+        assertThat(column.isSorted()).isFalse();
+        assertThatThrownBy(() -> column.binarySearch(Ulid.minAt(0))).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> column.slice(0, 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void binarySearchFindsUlidsOrTheirInsertionPoint() {
+        UlidColumn column = column(Ulid.minAt(10), Ulid.maxAt(10), Ulid.minAt(20));
+
+        assertThat(column.binarySearch(Ulid.maxAt(10))).isEqualTo(1);
+        assertThat(column.binarySearch(Ulid.minAt(15))).isEqualTo(-3);
+        assertThat(column.binarySearch(Ulid.minAt(5))).isEqualTo(-1);
+        assertThat(column.binarySearch(Ulid.maxAt(20))).isEqualTo(-4);
+    }
+
+    @Test
+    public void sliceIncludesBothEndsOfTheWindow() {
+        UlidColumn column = column(Ulid.maxAt(999), Ulid.minAt(1_000), Ulid.of(1_000, 0x1234, 42), Ulid.maxAt(1_001), Ulid.minAt(1_002));
+
+        assertThat(toList(column.slice(1_000, 1_001))).containsExactly(Ulid.minAt(1_000), Ulid.of(1_000, 0x1234, 42), Ulid.maxAt(1_001));
+        assertThat(toList(column.slice(1_000, 1_000))).containsExactly(Ulid.minAt(1_000), Ulid.of(1_000, 0x1234, 42));
+        assertThat(toList(column.slice(Long.MIN_VALUE, Long.MAX_VALUE))).isEqualTo(toList(column));
+    }
+
+    @Test
+    public void sliceOfAnEmptyOrInvertedWindowIsEmpty() {
+        UlidColumn column = column(Ulid.minAt(0), Ulid.maxAt(1_000));
+
+        assertThat(column.slice(1_000, 999).size()).isZero();
+        assertThat(column.slice(Long.MIN_VALUE, -1).size()).isZero();
+        assertThat(column.slice(Ulid.MAX_EPOCH_MILLIS + 1, Long.MAX_VALUE).size()).isZero();
+        assertThat(column.slice(1, 999).size()).isZero();
+        assertThat(new UlidColumn().slice(0, 1_000).size()).isZero();
+    }
+
+    @Test
+    public void sliceClampsTheWindowToTheUlidTimeRange() {
+        UlidColumn column = column(Ulid.minAt(0), Ulid.maxAt(0), Ulid.minAt(Ulid.MAX_EPOCH_MILLIS), Ulid.maxAt(Ulid.MAX_EPOCH_MILLIS));
+
+        assertThat(toList(column.slice(-5, 0))).containsExactly(Ulid.minAt(0), Ulid.maxAt(0));
+        assertThat(toList(column.slice(Ulid.MAX_EPOCH_MILLIS, Long.MAX_VALUE))).containsExactly(Ulid.minAt(Ulid.MAX_EPOCH_MILLIS), Ulid.maxAt(Ulid.MAX_EPOCH_MILLIS));
+    }
+
+    private static UlidColumn column(Ulid... ulids) {
+        UlidColumn column = new UlidColumn();
+        for (Ulid ulid : ulids) {
+            column.add(ulid);
+        }
+        return column;
+    }
+
+    private static List<Ulid> toList(UlidColumn column) {
+        List<Ulid> ulids = new ArrayList<>();
+        for (int i = 0; i < column.size(); i++) {
+            ulids.add(column.get(i));
+        }
+        return ulids;
+    }
+}
@@ -0,0 +1,133 @@
+package net.fisenko.utils.ids.metrics.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+public class StripedGeneratorMetricsImplTest {
+
+    private static final int RECORDS_PER_THREAD = 10_000;
+
+    @Test
+    public void countsIssuedIdsOfConcurrentThreads() throws InterruptedException {
+        StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+        // More threads than cells, so some of them share a cell index
+        int threads = 256;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                    metrics.recordIssued(2);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(metrics.getIssued()).isEqualTo(threads * RECORDS_PER_THREAD * 2L);
+        assertThat(metrics.snapshot().getIssued()).isEqualTo(threads * RECORDS_PER_THREAD * 2L);
+    }
+
+    @Test
+    public void keepsCountsOfEndedThreads() throws InterruptedException {
+        StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+        // Threads that run one after the other take over the cells of those that have ended
+        int threads = 100;
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                    metrics.recordIssued(1);
+                }
+            });
+            worker.start();
+            worker.join();
+        }
+        metrics.recordIssued(5);
+
+        assertThat(metrics.getIssued()).isEqualTo(threads * RECORDS_PER_THREAD + 5L);
+    }
+
+    @Test
+    public void issuedNeverGoesDownWhileCellsAreTakenOver() throws InterruptedException {
+        StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong decreases = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            long last = 0;
+            while (!done.get()) {
+                long issued = metrics.getIssued();
+                if (issued < last) {
+                    decreases.incrementAndGet();
+                }
+                last = issued;
+            }
+        });
+        reader.start();
+        int threads = 200;
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> metrics.recordIssued(1));
+            worker.start();
+            worker.join();
+        }
+        done.set(true);
+        reader.join();
+
+        assertThat(decreases.get()).isZero();
+        assertThat(metrics.getIssued()).isEqualTo(threads);
+    }
+
+    @Test
+    public void doesNotKeepEndedThreadsReachable() throws InterruptedException {
+        StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+        Thread worker = new Thread(() -> metrics.recordIssued(1));
+        worker.start();
+        worker.join();
+        WeakReference<Thread> ended = new WeakReference<>(worker);
+        worker = null;
+
+        for (int i = 0; i < 50 && ended.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(ended.get()).isNull();
+        assertThat(metrics.getIssued()).isEqualTo(1);
+    }
+
+    @Test
+    public void countsOtherEvents() {
+        StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+
+        metrics.recordSequenceOverflow();
+        metrics.recordClockRegression();
+        metrics.recordClockRegression();
+        metrics.recordTickWait(1_000);
+        metrics.recordContention();
+
+        assertThat(metrics.getSequenceOverflows()).isEqualTo(1);
+        assertThat(metrics.getClockRegressions()).isEqualTo(2);
+        assertThat(metrics.getTickWaitNanos()).isEqualTo(1_000);
+        assertThat(metrics.getContentionRetries()).isEqualTo(1);
+        assertThat(metrics.getIssued()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
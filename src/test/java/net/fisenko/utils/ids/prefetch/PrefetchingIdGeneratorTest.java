@@ -0,0 +1,144 @@
+package net.fisenko.utils.ids.prefetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import net.fisenko.utils.ids.IdGenerator;
+import org.junit.Test;
+
+public class PrefetchingIdGeneratorTest {
+
+    private static final int CAPACITY = 64;
+    private static final int LOW = 16;
+    private static final int HIGH = 48;
+
+    private final CountingIdGenerator generator = new CountingIdGenerator();
+
+    @Test(timeout = 10_000)
+    public void refillsFromTheLowUpToTheHighWatermark() throws Exception {
+        try (PrefetchingIdGenerator<Long> prefetching = new PrefetchingIdGenerator<>(generator, CAPACITY, LOW, HIGH).start()) {
+            awaitBuffered(prefetching, HIGH);
+            Thread.sleep(20);
+            assertThat(generator.count()).isEqualTo(HIGH);
+
+            // Above the low watermark the producer keeps sleeping
+            for (int i = 0; i < HIGH - LOW - 1; i++) {
+                assertThat(prefetching.next()).isEqualTo(i);
+            }
+            Thread.sleep(20);
+            assertThat(prefetching.getBufferedCount()).isEqualTo(LOW + 1);
+            assertThat(generator.count()).isEqualTo(HIGH);
+
+            // Reaching it wakes the producer, which tops the buffer up to the high watermark again
+            prefetching.next();
+            awaitBuffered(prefetching, HIGH);
+            Thread.sleep(20);
+            assertThat(prefetching.getBufferedCount()).isEqualTo(HIGH);
+            assertThat(generator.count()).isEqualTo(HIGH + HIGH - LOW);
+        }
+    }
+
+    @Test(timeout = 10_000)
+    public void fallsBackToTheGeneratorWhenTheBufferIsEmpty() throws Exception {
+        PrefetchingIdGenerator<Long> prefetching = new PrefetchingIdGenerator<>(generator, CAPACITY, LOW, HIGH);
+
+        // Not started: every Id comes straight from the generator
+        assertThat(prefetching.next()).isEqualTo(0);
+        assertThat(prefetching.next()).isEqualTo(1);
+        assertThat(prefetching.getBufferedCount()).isZero();
+
+        prefetching.start();
+        awaitBuffered(prefetching, HIGH);
+        prefetching.close();
+        Thread.sleep(20);
+
+        // Closed: the buffered Id's are handed out first, then the generator takes over
+        for (long i = 2; i < HIGH + 2; i++) {
+            assertThat(prefetching.next()).isEqualTo(i);
+        }
+        assertThat(prefetching.getBufferedCount()).isZero();
+        assertThat(prefetching.next()).isEqualTo(HIGH + 2);
+        assertThat(prefetching.next()).isEqualTo(HIGH + 3);
+    }
+
+    @Test(timeout = 60_000)
+    public void concurrentConsumersGetEveryIdExactlyOnce() throws Exception {
+        int consumers = 4;
+        int perConsumer = 50_000;
+        PrefetchingIdGenerator<Long> prefetching = new PrefetchingIdGenerator<>(generator, CAPACITY, LOW, HIGH).start();
+        ExecutorService executor = Executors.newFixedThreadPool(consumers);
+        List<Long> ids = new ArrayList<>();
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int c = 0; c < consumers; c++) {
+                futures.add(executor.submit(() -> {
+                    long[] taken = new long[perConsumer];
+                    for (int i = 0; i < perConsumer; i++) {
+                        taken[i] = prefetching.next();
+                    }
+                    return taken;
+                }));
+            }
+            for (Future<long[]> future : futures) {
+                for (long id : future.get()) {
+                    ids.add(id);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        prefetching.close();
+        Thread.sleep(50);
+        // Drain what's left, so every Id the generator created must have been handed out
+        for (int left = prefetching.getBufferedCount(); left > 0; left--) {
+            ids.add(prefetching.next());
+        }
+
+        BitSet seen = new BitSet();
+        for (long id : ids) {
+            assertThat(seen.get((int) id)).as("%d handed out twice", id).isFalse();
+            seen.set((int) id);
+        }
+        assertThat(seen.cardinality()).isEqualTo((int) generator.count());
+        assertThat(seen.nextClearBit(0)).isEqualTo((int) generator.count());
+    }
+
+    @Test
+    public void rejectsInvalidWatermarks() {
+        assertThatThrownBy(() -> new PrefetchingIdGenerator<>(null, CAPACITY)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PrefetchingIdGenerator<>(generator, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PrefetchingIdGenerator<>(generator, CAPACITY, HIGH, HIGH)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PrefetchingIdGenerator<>(generator, CAPACITY, LOW, CAPACITY + 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PrefetchingIdGenerator<>(generator, CAPACITY, -1, HIGH)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitBuffered(PrefetchingIdGenerator<?> prefetching, int count) throws InterruptedException {
+        while (prefetching.getBufferedCount() != count) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Creates 0, 1, 2, ... and counts the Id's created.
+     */
+    private static final class CountingIdGenerator implements IdGenerator<Long> {
+
+        private final AtomicLong next = new AtomicLong();
+
+        @Override
+        public Long next() {
+            return next.getAndIncrement();
+        }
+
+        private long count() {
+            return next.get();
+        }
+    }
+}
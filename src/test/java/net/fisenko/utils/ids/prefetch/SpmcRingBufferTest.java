@@ -0,0 +1,87 @@
+package net.fisenko.utils.ids.prefetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+public class SpmcRingBufferTest {
+
+    private static final int CONSUMERS = 4;
+    private static final int ELEMENTS = 200_000;
+
+    @Test
+    public void pollsInTheOrderOfOfferAndWrapsAround() {
+        SpmcRingBuffer<Integer> buffer = new SpmcRingBuffer<>(4);
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 4; i++) {
+                assertThat(buffer.offer(round * 4 + i)).isTrue();
+            }
+            assertThat(buffer.offer(-1)).isFalse();
+            assertThat(buffer.size()).isEqualTo(4);
+            for (int i = 0; i < 4; i++) {
+                assertThat(buffer.poll()).isEqualTo(round * 4 + i);
+            }
+            assertThat(buffer.poll()).isNull();
+            assertThat(buffer.size()).isZero();
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void concurrentConsumersGetEveryElementExactlyOnce() throws Exception {
+        // A small buffer, so the producer keeps wrapping around while the consumers race for the head
+        SpmcRingBuffer<Integer> buffer = new SpmcRingBuffer<>(64);
+        AtomicInteger consumed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(CONSUMERS + 1);
+        try {
+            List<Future<List<Integer>>> consumers = new ArrayList<>();
+            for (int c = 0; c < CONSUMERS; c++) {
+                consumers.add(executor.submit(() -> {
+                    List<Integer> values = new ArrayList<>();
+                    while (consumed.get() < ELEMENTS) {
+                        Integer value = buffer.poll();
+                        if (value == null) {
+                            Thread.yield();
+                            continue;
+                        }
+                        values.add(value);
+                        consumed.incrementAndGet();
+                    }
+                    return values;
+                }));
+            }
+            executor.submit(() -> {
+                for (int i = 0; i < ELEMENTS; i++) {
+                    while (!buffer.offer(i)) {
+                        Thread.yield();
+                    }
+                }
+            }).get();
+
+            BitSet seen = new BitSet(ELEMENTS);
+            for (Future<List<Integer>> consumer : consumers) {
+                List<Integer> values = consumer.get();
+                for (int i = 0; i < values.size(); i++) {
+                    int value = values.get(i);
+                    assertThat(seen.get(value)).as("%d delivered twice", value).isFalse();
+                    seen.set(value);
+                    // A consumer takes elements in the order they were offered
+                    if (i > 0) {
+                        assertThat(value).isGreaterThan(values.get(i - 1));
+                    }
+                }
+            }
+            assertThat(seen.cardinality()).isEqualTo(ELEMENTS);
+            assertThat(buffer.poll()).isNull();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package net.fisenko.utils.ids.snowflake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.fisenko.utils.ids.metrics.impl.StripedGeneratorMetricsImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.junit.Test;
+
+public class LockFreeSnowflakeIdGeneratorImplTest {
+
+    private static final int THREADS = 4;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    private final StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+
+    @Test(timeout = 60_000)
+    public void concurrentThreadsGetUniqueIncreasingIds() throws Exception {
+        // Waits for the next tick on overflow, so every call gets an Id
+        GeneratorOptions options = GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl()).withMetrics(metrics);
+        LockFreeSnowflakeIdGeneratorImpl generator = new LockFreeSnowflakeIdGeneratorImpl(7, MaskConfig.Default, new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch),
+                options);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(generate(generator, start)));
+            }
+            start.countDown();
+
+            Set<Long> unique = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                for (int i = 0; i < ids.length; i++) {
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    assertThat(new SnowflakeIdDecoder(generator).generatorIdOf(ids[i])).isEqualTo(7);
+                    unique.add(ids[i]);
+                }
+            }
+            assertThat(unique).hasSize(THREADS * IDS_PER_THREAD);
+            assertThat(metrics.getIssued()).isEqualTo(THREADS * IDS_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void generatesTheSameIdsAsSnowflakeIdGeneratorImpl() {
+        // Two ticks' worth of sequence numbers in tick 100, then tick 101
+        MaskConfig maskConfig = new MaskConfig((byte) 41, (byte) 10, (byte) 12);
+        long[] ticks = new long[20];
+        for (int i = 0; i < ticks.length; i++) {
+            ticks[i] = i < 10 ? 100 : 101;
+        }
+        LockFreeSnowflakeIdGeneratorImpl lockFree = new LockFreeSnowflakeIdGeneratorImpl(42, maskConfig, new ScriptedTimeSource(ticks), GeneratorOptions.Default);
+        SnowflakeIdGeneratorImpl lock = new SnowflakeIdGeneratorImpl(42, maskConfig, new ScriptedTimeSource(ticks), GeneratorOptions.Default);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(lockFree.nextLong()).isEqualTo(lock.nextLong());
+        }
+        assertThat(lockFree.nextRange(1_000)).isEqualTo(lock.nextRange(1_000));
+        assertThat(lockFree.tryNextRange(5_000)).isEqualTo(lock.tryNextRange(5_000));
+        // Tick 100 is exhausted
+        assertThat(lockFree.tryNextRange(1)).isNull();
+        assertThat(lock.tryNextRange(1)).isNull();
+        long[] fromLockFree = new long[100];
+        long[] fromLock = new long[100];
+        lockFree.fill(fromLockFree, 0, 100);
+        lock.fill(fromLock, 0, 100);
+        assertThat(fromLockFree).isEqualTo(fromLock);
+        assertThat(lockFree.fromId(fromLockFree[0])).isEqualTo(lock.fromId(fromLock[0]));
+    }
+
+    @Test
+    public void throwsWhenTheClockMovesBackwards() {
+        LockFreeSnowflakeIdGeneratorImpl generator = new LockFreeSnowflakeIdGeneratorImpl(0, MaskConfig.Default, new ScriptedTimeSource(100, 99, 100),
+                GeneratorOptions.Default.withMetrics(metrics));
+        generator.nextLong();
+
+        assertThatThrownBy(generator::nextLong).isInstanceOf(InvalidSystemClockException.class);
+        assertThat(metrics.getClockRegressions()).isEqualTo(1);
+        // Once the clock is back, Id's continue where they left off
+        assertThat(new SnowflakeIdDecoder(generator).sequenceOf(generator.nextLong())).isEqualTo(1);
+    }
+
+    private static Callable<long[]> generate(SnowflakeIdGenerator generator, CountDownLatch start) {
+        return () -> {
+            start.await();
+            long[] ids = new long[IDS_PER_THREAD];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = generator.nextLong();
+            }
+            return ids;
+        };
+    }
+
+    /**
+     * Returns the scripted ticks one read at a time, then keeps returning the last one.
+     */
+    private static final class ScriptedTimeSource implements TimeSource {
+
+        private final long[] ticks;
+        private int reads;
+
+        private ScriptedTimeSource(long... ticks) {
+            this.ticks = ticks;
+        }
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            return ticks[Math.min(reads++, ticks.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package net.fisenko.utils.ids.snowflake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.Random;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.junit.Test;
+
+public class SnowflakeIdDecoderTest {
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void agreesWithFromIdForMillisecondTicks() {
+        assertAgreesWithFromId(Duration.ofMillis(1));
+    }
+
+    @Test
+    public void agreesWithFromIdForSecondTicks() {
+        assertAgreesWithFromId(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void agreesWithFromIdForSubMillisecondTicks() {
+        assertAgreesWithFromId(Duration.ofNanos(100_000));
+        assertAgreesWithFromId(Duration.ofNanos(300_000));
+    }
+
+    @Test
+    public void decodeAgreesWithFromIdInParallel() {
+        SnowflakeIdGeneratorImpl generator = generator(Duration.ofNanos(100_000));
+        SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(generator);
+        long[] ids = randomIds(SnowflakeIdDecoder.PARALLEL_THRESHOLD * 2 + 1);
+        long[] millis = new long[ids.length];
+        int[] gens = new int[ids.length];
+        int[] seqs = new int[ids.length];
+
+        decoder.decode(ids, millis, gens, seqs);
+
+        for (int i = 0; i < ids.length; i++) {
+            IdInfo info = generator.fromId(ids[i]);
+            assertThat(millis[i]).isEqualTo(info.getDateTimeOffset().toInstant().toEpochMilli());
+            assertThat(gens[i]).isEqualTo(info.getGeneratorId());
+            assertThat(seqs[i]).isEqualTo(info.getSequenceNumber());
+        }
+    }
+
+    @Test
+    public void decodeSkipsNullColumns() {
+        SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(generator(Duration.ofMillis(1)));
+        long[] ids = randomIds(100);
+        int[] seqs = new int[ids.length];
+
+        decoder.decode(ids, null, null, seqs);
+
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(seqs[i]).isEqualTo(decoder.sequenceOf(ids[i]));
+        }
+    }
+
+    @Test
+    public void decodeRejectsNullIdsAndShortColumns() {
+        SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(generator(Duration.ofMillis(1)));
+
+        assertThatThrownBy(() -> decoder.decode(null, new long[1], null, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> decoder.decode(new long[2], new long[1], null, null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> decoder.decode(new long[2], null, new int[1], null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> decoder.decode(new long[2], null, null, new int[1])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SnowflakeIdDecoder(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertAgreesWithFromId(Duration tick) {
+        SnowflakeIdGeneratorImpl generator = generator(tick);
+        SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(generator);
+        long[] ids = randomIds(1_000);
+        // Freshly generated Id's too, not just arbitrary bit patterns
+        generator.fill(ids, 0, 10);
+        long[] millis = new long[ids.length];
+        int[] gens = new int[ids.length];
+        int[] seqs = new int[ids.length];
+
+        decoder.decode(ids, millis, gens, seqs);
+
+        for (int i = 0; i < ids.length; i++) {
+            IdInfo info = generator.fromId(ids[i]);
+            long expectedMillis = info.getDateTimeOffset().toInstant().toEpochMilli();
+            assertThat(decoder.epochMillisOf(ids[i])).as("tick %s, id %d", tick, ids[i]).isEqualTo(expectedMillis);
+            assertThat(decoder.generatorIdOf(ids[i])).isEqualTo(info.getGeneratorId());
+            assertThat(decoder.sequenceOf(ids[i])).isEqualTo(info.getSequenceNumber());
+            assertThat(millis[i]).isEqualTo(expectedMillis);
+            assertThat(gens[i]).isEqualTo(info.getGeneratorId());
+            assertThat(seqs[i]).isEqualTo(info.getSequenceNumber());
+        }
+    }
+
+    private static SnowflakeIdGeneratorImpl generator(Duration tick) {
+        return new SnowflakeIdGeneratorImpl(42, new NanoTimeSourceImpl(SnowflakeIdGeneratorBase.DefaultEpoch, tick));
+    }
+
+    private long[] randomIds(int count) {
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            // Id's are positive; the default mask config uses 63 bits
+            ids[i] = random.nextLong() >>> 1;
+        }
+        return ids;
+    }
+}
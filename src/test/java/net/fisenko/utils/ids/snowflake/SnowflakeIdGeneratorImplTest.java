@@ -0,0 +1,137 @@
+package net.fisenko.utils.ids.snowflake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import net.fisenko.utils.ids.metrics.impl.StripedGeneratorMetricsImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import org.junit.Test;
+
+public class SnowflakeIdGeneratorImplTest {
+
+    // More than the 4096 sequence numbers of a tick of the default mask config
+    private static final int BATCH = 5_000;
+
+    private final StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+
+    @Test(timeout = 10_000)
+    public void fillThrowsWhenTheClockMovesBackwardsWhileWaitingForTheNextTick() {
+        // Tick 100 runs out of sequence numbers, then the clock steps back while fill waits for tick 101
+        SnowflakeIdGeneratorImpl generator = generator(new ScriptedTimeSource(100, 100, 99));
+
+        assertThatThrownBy(() -> generator.fill(new long[BATCH], 0, BATCH)).isInstanceOf(InvalidSystemClockException.class);
+        assertThat(metrics.getClockRegressions()).isEqualTo(1);
+    }
+
+    @Test(timeout = 10_000)
+    public void fillContinuesInTheNextTick() {
+        SnowflakeIdGeneratorImpl generator = generator(new ScriptedTimeSource(100, 100, 100, 101));
+        SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(generator);
+        long[] ids = new long[BATCH];
+
+        generator.fill(ids, 0, BATCH);
+
+        int perTick = (int) MaskConfig.Default.getMaxSequenceIds();
+        assertThat(decoder.ticksOf(ids[0])).isEqualTo(100);
+        assertThat(decoder.ticksOf(ids[perTick - 1])).isEqualTo(100);
+        assertThat(decoder.ticksOf(ids[perTick])).isEqualTo(101);
+        assertThat(decoder.sequenceOf(ids[perTick])).isZero();
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+        assertThat(metrics.getClockRegressions()).isZero();
+    }
+
+    @Test(timeout = 10_000)
+    public void countsWaitsForTheLockAsContention() throws Exception {
+        BlockingTimeSource timeSource = new BlockingTimeSource();
+        SnowflakeIdGeneratorImpl generator = generator(timeSource);
+        FutureTask<Long> holder = new FutureTask<>(generator::nextLong);
+        FutureTask<Long> waiter = new FutureTask<>(generator::nextLong);
+
+        // The first thread holds the lock while it reads the clock
+        new Thread(holder).start();
+        timeSource.entered.await();
+        new Thread(waiter).start();
+        while (metrics.getContentionRetries() == 0) {
+            Thread.sleep(1);
+        }
+        timeSource.release.countDown();
+
+        assertThat(waiter.get()).isGreaterThan(holder.get());
+        assertThat(metrics.getContentionRetries()).isEqualTo(1);
+        generator.nextLong();
+        assertThat(metrics.getContentionRetries()).isEqualTo(1);
+    }
+
+    private SnowflakeIdGeneratorImpl generator(TimeSource timeSource) {
+        return new SnowflakeIdGeneratorImpl(1, MaskConfig.Default, timeSource, GeneratorOptions.Default.withMetrics(metrics));
+    }
+
+    /**
+     * Returns the scripted ticks one read at a time, then keeps returning the last one.
+     */
+    private static final class ScriptedTimeSource implements TimeSource {
+
+        private final long[] ticks;
+        private int reads;
+
+        private ScriptedTimeSource(long... ticks) {
+            this.ticks = ticks;
+        }
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            return ticks[Math.min(reads++, ticks.length - 1)];
+        }
+    }
+
+    /**
+     * Blocks the first read of the clock until released.
+     */
+    private static final class BlockingTimeSource implements TimeSource {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            if (entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return 100;
+        }
+    }
+}
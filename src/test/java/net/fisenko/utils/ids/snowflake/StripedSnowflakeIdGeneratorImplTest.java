@@ -0,0 +1,87 @@
+package net.fisenko.utils.ids.snowflake;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.junit.Test;
+
+public class StripedSnowflakeIdGeneratorImplTest {
+
+    private static final int FIRST_GENERATOR_ID = 100;
+    private static final int STRIPES = 4;
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 20_000;
+
+    @Test(timeout = 60_000)
+    public void concurrentThreadsOnDifferentStripesNeverProduceDuplicates() throws Exception {
+        // Waits for the next tick on overflow, so every call gets an Id
+        GeneratorOptions options = GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl());
+        StripedSnowflakeIdGeneratorImpl generator = new StripedSnowflakeIdGeneratorImpl(FIRST_GENERATOR_ID, STRIPES, MaskConfig.Default,
+                new NanoTimeSourceImpl(SnowflakeIdGeneratorBase.DefaultEpoch), options);
+        SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(generator);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    // The last element is the stripe the thread should use
+                    long[] ids = new long[IDS_PER_THREAD + 1];
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids[i] = generator.nextLong();
+                    }
+                    ids[IDS_PER_THREAD] = Thread.currentThread().getId() % STRIPES;
+                    return ids;
+                }));
+            }
+            start.countDown();
+
+            Set<Long> unique = new HashSet<>();
+            Set<Integer> generatorIds = new HashSet<>();
+            for (Future<long[]> future : futures) {
+                long[] ids = future.get();
+                int expectedGeneratorId = FIRST_GENERATOR_ID + (int) ids[IDS_PER_THREAD];
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    if (i > 0) {
+                        assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                    }
+                    assertThat(decoder.generatorIdOf(ids[i])).isEqualTo(expectedGeneratorId);
+                    unique.add(ids[i]);
+                }
+                generatorIds.add(expectedGeneratorId);
+            }
+            assertThat(unique).hasSize(THREADS * IDS_PER_THREAD);
+            // Threads of a pool have consecutive thread id's, so they spread over the stripes
+            assertThat(generatorIds).hasSizeGreaterThan(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void rejectsGeneratorIdsOutsideTheMaskConfig() {
+        long maxGenerators = MaskConfig.Default.getMaxGenerators();
+
+        for (int firstGeneratorId : new int[]{-1, (int) maxGenerators}) {
+            assertThatThrownBy(() -> new StripedSnowflakeIdGeneratorImpl(firstGeneratorId))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("GeneratorId must be between 0 and %d (inclusive).", maxGenerators - 1);
+        }
+        assertThatThrownBy(() -> new StripedSnowflakeIdGeneratorImpl((int) maxGenerators - 1, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new StripedSnowflakeIdGeneratorImpl(0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(new StripedSnowflakeIdGeneratorImpl((int) maxGenerators - 1).getStripes()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,170 @@
+package net.fisenko.utils.ids.snowflake.allocator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.LeaseExpiredException;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import org.junit.After;
+import org.junit.Test;
+
+public class LeasedSnowflakeIdGeneratorImplTest {
+
+    private static final int SHIFT_TIME = MaskConfig.Default.getGeneratorIdBits() + MaskConfig.Default.getSequenceBits();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final FakeTimeSource timeSource = new FakeTimeSource(1_000);
+    private final FakeAllocator allocator = new FakeAllocator();
+
+    @After
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void issuesIdsWhileTheLeaseIsHeldAndReleasesItOnClose() {
+        LeasedSnowflakeIdGeneratorImpl generator = leased(Duration.ofMinutes(1));
+
+        long id = generator.nextLong();
+
+        assertThat(id >>> SHIFT_TIME).isEqualTo(1_000);
+        assertThat((id >> MaskConfig.Default.getSequenceBits()) & 1023).isEqualTo(FakeAllocator.GENERATOR_ID);
+        generator.close();
+        assertThat(allocator.released).isTrue();
+        assertThatThrownBy(generator::nextLong).isInstanceOf(LeaseExpiredException.class);
+    }
+
+    @Test
+    public void discardsAnIdWhoseTickIsPastTheDeadline() {
+        LeasedSnowflakeIdGeneratorImpl generator = leased(Duration.ofMinutes(1));
+
+        // The clock moved a minute ahead within the call, e.g. while the process was paused
+        timeSource.ticks = 1_000 + Duration.ofMinutes(1).toMillis();
+
+        assertThatThrownBy(generator::nextLong).isInstanceOf(LeaseExpiredException.class);
+        assertThatThrownBy(() -> generator.nextRange(10)).isInstanceOf(LeaseExpiredException.class);
+        assertThatThrownBy(() -> generator.tryNextRange(10)).isInstanceOf(LeaseExpiredException.class);
+    }
+
+    @Test
+    public void stopsFillingOnceTheTicksPassTheDeadline() {
+        LeasedSnowflakeIdGeneratorImpl generator = leased(Duration.ofMinutes(1));
+        // Every read of the clock moves it 10 seconds ahead, so the batch spans the deadline
+        timeSource.step = 10_000;
+
+        long[] ids = new long[(int) MaskConfig.Default.getMaxSequenceIds() * 10];
+        assertThatThrownBy(() -> generator.fill(ids, 0, ids.length)).isInstanceOf(LeaseExpiredException.class);
+    }
+
+    @Test
+    public void fillsInChunksWithinTheDeadline() {
+        LeasedSnowflakeIdGeneratorImpl generator = leased(Duration.ofMinutes(1));
+        timeSource.step = 1;
+
+        long[] ids = new long[(int) MaskConfig.Default.getMaxSequenceIds() * 10];
+        generator.fill(ids, 0, ids.length);
+
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+    }
+
+    @Test
+    public void stopsOnceTheAllocatorAnswersThatTheLeaseWasLost() throws InterruptedException {
+        allocator.lost = true;
+        LeasedSnowflakeIdGeneratorImpl generator = leased(Duration.ofMillis(30));
+
+        Thread.sleep(200);
+
+        assertThat(generator.isValid()).isFalse();
+        assertThatThrownBy(generator::nextLong).isInstanceOf(LeaseExpiredException.class);
+    }
+
+    @Test
+    public void stopsAtTheDeadlineWhenTheAllocatorCantBeReached() throws InterruptedException {
+        allocator.unreachable = true;
+        LeasedSnowflakeIdGeneratorImpl generator = leased(Duration.ofMillis(100));
+        generator.nextLong();
+
+        Thread.sleep(300);
+
+        assertThat(generator.isValid()).isFalse();
+        assertThatThrownBy(generator::nextLong).isInstanceOf(LeaseExpiredException.class);
+    }
+
+    private LeasedSnowflakeIdGeneratorImpl leased(Duration ttl) {
+        allocator.ttl = ttl;
+        GeneratorOptions options = GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl());
+        return new LeasedSnowflakeIdGeneratorImpl(allocator, id -> generator(id, options), scheduler);
+    }
+
+    private SnowflakeIdGenerator generator(int generatorId, GeneratorOptions options) {
+        return new SnowflakeIdGeneratorImpl(generatorId, MaskConfig.Default, timeSource, options);
+    }
+
+    private static class FakeAllocator implements GeneratorIdAllocator {
+
+        static final int GENERATOR_ID = 7;
+
+        volatile Duration ttl;
+        volatile boolean lost;
+        volatile boolean unreachable;
+        volatile boolean released;
+
+        @Override
+        public GeneratorIdLease acquire() {
+            return new GeneratorIdLease(GENERATOR_ID, 1, ttl);
+        }
+
+        @Override
+        public GeneratorIdLease renew(GeneratorIdLease lease) {
+            if (unreachable) {
+                throw new UncheckedIOException(new IOException("Unreachable"));
+            }
+            return lost ? null : lease;
+        }
+
+        @Override
+        public void release(GeneratorIdLease lease) {
+            released = true;
+        }
+    }
+
+    private static class FakeTimeSource implements TimeSource {
+
+        volatile long ticks;
+        volatile long step;
+
+        FakeTimeSource(long ticks) {
+            this.ticks = ticks;
+        }
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            long current = ticks;
+            ticks = current + step;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package net.fisenko.utils.ids.snowflake.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncSnowflakeIdGeneratorImplTest {
+
+    private ScheduledExecutorService scheduler;
+    private AsyncSnowflakeIdGeneratorImpl generator;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        generator = new AsyncSnowflakeIdGeneratorImpl(new SnowflakeIdGeneratorImpl(1), scheduler);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void emitsNoMoreThanRequested() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        generator.publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(10);
+
+        assertThat(subscriber.ids).hasSize(10);
+        assertThat(subscriber.ids).isSorted();
+        assertThat(subscriber.error).isNull();
+    }
+
+    @Test
+    public void invalidRequestFromOnNextIsSignalledAfterOnNextReturns() {
+        RecordingSubscriber subscriber = new RecordingSubscriber() {
+            @Override
+            void received(Long item) {
+                subscription.request(0);
+            }
+        };
+        generator.publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(10);
+
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(subscriber.errorDuringOnNext).isFalse();
+        assertThat(subscriber.errors).isEqualTo(1);
+        assertThat(subscriber.ids).hasSize(1);
+    }
+
+    @Test
+    public void nothingIsSignalledAfterAnError() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        generator.publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(-1);
+        subscriber.subscription.request(-1);
+        subscriber.subscription.request(10);
+
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+        assertThat(subscriber.errors).isEqualTo(1);
+        assertThat(subscriber.ids).isEmpty();
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<Long> {
+
+        final List<Long> ids = new ArrayList<>();
+        Flow.Subscription subscription;
+        Throwable error;
+        int errors;
+        boolean errorDuringOnNext;
+        private boolean inOnNext;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Long item) {
+            inOnNext = true;
+            ids.add(item);
+            received(item);
+            inOnNext = false;
+        }
+
+        void received(Long item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            errors++;
+            errorDuringOnNext |= inOnNext;
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
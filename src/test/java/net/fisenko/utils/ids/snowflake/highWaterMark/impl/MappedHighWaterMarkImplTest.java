@@ -0,0 +1,198 @@
+package net.fisenko.utils.ids.snowflake.highWaterMark.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGenerator;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import net.fisenko.utils.ids.snowflake.timeSource.impl.NanoTimeSourceImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedHighWaterMarkImplTest {
+
+    private static final UUID BOOT = UUID.randomUUID();
+    private static final long WINDOW = 1000;
+
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("high-water-mark", ".bin");
+        Files.delete(file);
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void cleanRestartResumesAtTheClock() {
+        FakeTimeSource timeSource = new FakeTimeSource(1_000);
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            SnowflakeIdGenerator generator = generator(highWaterMark, timeSource);
+            for (; timeSource.ticks <= 1_005; timeSource.ticks++) {
+                generator.nextLong();
+            }
+        }
+
+        timeSource.ticks = 1_010;
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, UUID.randomUUID())) {
+            assertThat(highWaterMark.get()).isEqualTo(1_005);
+            SnowflakeIdGenerator generator = generator(highWaterMark, timeSource);
+            assertThat(ticksOf(generator.nextLong())).isEqualTo(1_010);
+        }
+    }
+
+    @Test
+    public void restartWithTheClockBehindResumesAfterTheLastTickIssued() {
+        FakeTimeSource timeSource = new FakeTimeSource(1_000);
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            generator(highWaterMark, timeSource).nextLong();
+        }
+
+        timeSource.ticks = 900;
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            assertThat(ticksOf(generator(highWaterMark, timeSource).nextLong())).isEqualTo(1_001);
+        }
+    }
+
+    @Test
+    public void processCrashResumesAfterTheLastTickIssued() {
+        FakeTimeSource timeSource = new FakeTimeSource(1_000);
+        // Never closed, like a process that crashed; the mapped memory survives
+        MappedHighWaterMarkImpl crashed = new MappedHighWaterMarkImpl(file, WINDOW, BOOT);
+        SnowflakeIdGenerator generator = generator(crashed, timeSource);
+        for (; timeSource.ticks <= 1_005; timeSource.ticks++) {
+            generator.nextLong();
+        }
+
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            assertThat(highWaterMark.get()).isEqualTo(1_005);
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void crashOfTheOperatingSystemFallsBackToTheReservation() {
+        FakeTimeSource timeSource = new FakeTimeSource(1_000);
+        MappedHighWaterMarkImpl crashed = new MappedHighWaterMarkImpl(file, WINDOW, BOOT);
+        generator(crashed, timeSource).nextLong();
+
+        // Another boot id: the last tick issued may not have reached the storage device
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, UUID.randomUUID())) {
+            assertThat(highWaterMark.get()).isEqualTo(1_000 + WINDOW);
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void keepsTheHighestTickWhenAdvancedOutOfOrder() {
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            highWaterMark.advance(10);
+            highWaterMark.advance(12);
+            highWaterMark.advance(11);
+            assertThat(highWaterMark.get()).isEqualTo(12);
+        }
+
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            assertThat(highWaterMark.get()).isEqualTo(12);
+        }
+    }
+
+    @Test
+    public void restartWithTheSystemClockNeitherStallsNorStampsAhead() {
+        NanoTimeSourceImpl timeSource = new NanoTimeSourceImpl(SnowflakeIdGeneratorImpl.DefaultEpoch);
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file)) {
+            SnowflakeIdGenerator generator = generator(highWaterMark, timeSource);
+            for (int i = 0; i < 10_000; i++) {
+                generator.nextLong();
+            }
+        }
+
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file)) {
+            SnowflakeIdGenerator generator = generator(highWaterMark, timeSource);
+            long started = System.nanoTime();
+            for (int i = 0; i < 10_000; i++) {
+                long ticks = ticksOf(generator.nextLong());
+                assertThat(ticks).isLessThanOrEqualTo(timeSource.getTicks());
+            }
+            // 10,000 Id's take at most a few ticks of 4,096 Id's each; a restart ahead of the clock waits for a whole window
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(WINDOW / 2));
+        }
+    }
+
+    @Test
+    public void fileGrownButNeverInitializedIsTreatedAsNew() throws IOException {
+        // A crash right after mapping grew the file, before the magic number was stored
+        Files.write(file, new byte[6 * Long.BYTES]);
+
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            assertThat(highWaterMark.get()).isEqualTo(-1);
+            highWaterMark.advance(10);
+        }
+
+        try (MappedHighWaterMarkImpl highWaterMark = new MappedHighWaterMarkImpl(file, WINDOW, BOOT)) {
+            assertThat(highWaterMark.get()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    public void rejectsFilesThatAreNotHighWaterMarkFiles() throws IOException {
+        byte[] bytes = new byte[6 * Long.BYTES];
+        bytes[bytes.length - 1] = 1;
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> new MappedHighWaterMarkImpl(file, WINDOW, BOOT)).isInstanceOf(IllegalArgumentException.class);
+
+        Files.write(file, new byte[7]);
+        assertThatThrownBy(() -> new MappedHighWaterMarkImpl(file, WINDOW, BOOT)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SnowflakeIdGenerator generator(MappedHighWaterMarkImpl highWaterMark, TimeSource timeSource) {
+        GeneratorOptions options = GeneratorOptions.Default.withSequenceOverflowStrategy(new SpinWaitOverflowStrategyImpl()).withHighWaterMark(highWaterMark);
+        return new SnowflakeIdGeneratorImpl(0, MaskConfig.Default, timeSource, options);
+    }
+
+    private static long ticksOf(long id) {
+        return id >>> (MaskConfig.Default.getGeneratorIdBits() + MaskConfig.Default.getSequenceBits());
+    }
+
+    private static class FakeTimeSource implements TimeSource {
+
+        private volatile long ticks;
+
+        FakeTimeSource(long ticks) {
+            this.ticks = ticks;
+        }
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            return ticks;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package net.fisenko.utils.ids.snowflake.lease;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.fisenko.utils.ids.snowflake.exceptions.GeneratorIdUnavailableException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MappedGeneratorIdLeaseTableTest {
+
+    private static final Duration TTL = Duration.ofSeconds(30);
+
+    private final FakeClock clock = new FakeClock(1_000_000);
+    private Path file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = Files.createTempFile("generator-ids", ".bin");
+        Files.delete(file);
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void tablesOnTheSameFileLeaseDifferentGeneratorIds() {
+        try (MappedGeneratorIdLeaseTable first = new MappedGeneratorIdLeaseTable(file, 2, TTL, clock);
+             MappedGeneratorIdLeaseTable second = new MappedGeneratorIdLeaseTable(file, 2, TTL, clock)) {
+            MappedGeneratorIdLeaseTable.Lease a = first.acquire();
+            MappedGeneratorIdLeaseTable.Lease b = second.acquire();
+
+            assertThat(a.getGeneratorId()).isNotEqualTo(b.getGeneratorId());
+            assertThat(a.isValid()).isTrue();
+            assertThat(b.isValid()).isTrue();
+            assertThatThrownBy(first::acquire).isInstanceOf(GeneratorIdUnavailableException.class);
+            assertThatThrownBy(second::acquire).isInstanceOf(GeneratorIdUnavailableException.class);
+        }
+    }
+
+    @Test
+    public void expiredLeaseIsTakenOverAndCannotBeRenewed() {
+        try (MappedGeneratorIdLeaseTable first = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock);
+             MappedGeneratorIdLeaseTable second = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock)) {
+            MappedGeneratorIdLeaseTable.Lease lease = first.acquire();
+            assertThatThrownBy(second::acquire).isInstanceOf(GeneratorIdUnavailableException.class);
+
+            // The first process hangs past the time-to-live, so its lease expires
+            clock.advance(TTL.toMillis());
+            assertThat(lease.isValid()).isFalse();
+            MappedGeneratorIdLeaseTable.Lease takeover = second.acquire();
+            assertThat(takeover.getGeneratorId()).isEqualTo(lease.getGeneratorId());
+
+            assertThat(lease.renew()).isFalse();
+            assertThat(lease.isValid()).isFalse();
+            assertThat(takeover.isValid()).isTrue();
+            // Releasing a lost lease leaves the new holder's slot alone
+            lease.close();
+            assertThatThrownBy(first::acquire).isInstanceOf(GeneratorIdUnavailableException.class);
+        }
+    }
+
+    @Test
+    public void renewedLeaseOutlivesTheTimeToLive() {
+        try (MappedGeneratorIdLeaseTable first = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock);
+             MappedGeneratorIdLeaseTable second = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock)) {
+            MappedGeneratorIdLeaseTable.Lease lease = first.acquire();
+
+            clock.advance(TTL.toMillis() - 1);
+            assertThat(lease.renew()).isTrue();
+            clock.advance(TTL.toMillis() - 1);
+
+            assertThat(lease.isValid()).isTrue();
+            assertThatThrownBy(second::acquire).isInstanceOf(GeneratorIdUnavailableException.class);
+        }
+    }
+
+    @Test
+    public void releasedLeaseIsAvailableRightAway() {
+        try (MappedGeneratorIdLeaseTable first = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock);
+             MappedGeneratorIdLeaseTable second = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock)) {
+            MappedGeneratorIdLeaseTable.Lease lease = first.acquire();
+            lease.close();
+
+            assertThat(lease.isValid()).isFalse();
+            assertThat(lease.renew()).isFalse();
+            assertThat(second.acquire().getGeneratorId()).isEqualTo(lease.getGeneratorId());
+        }
+    }
+
+    @Test
+    public void closingTheTableReleasesItsLeases() {
+        MappedGeneratorIdLeaseTable first = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock);
+        try (MappedGeneratorIdLeaseTable second = new MappedGeneratorIdLeaseTable(file, 1, TTL, clock)) {
+            MappedGeneratorIdLeaseTable.Lease lease = first.acquire();
+            first.close();
+
+            assertThat(lease.isValid()).isFalse();
+            assertThatThrownBy(first::acquire).isInstanceOf(IllegalStateException.class);
+            assertThat(second.acquire().getGeneratorId()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void rejectsAFileWithADifferentNumberOfSlots() {
+        try (MappedGeneratorIdLeaseTable table = new MappedGeneratorIdLeaseTable(file, 2, TTL, clock)) {
+            assertThat(table.getSlots()).isEqualTo(2);
+            assertThatThrownBy(() -> new MappedGeneratorIdLeaseTable(file, 3, TTL, clock)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void tablesOnTheSameFileCanBeOpenedConcurrently() throws Exception {
+        int tables = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(tables);
+        List<MappedGeneratorIdLeaseTable> opened = new ArrayList<>();
+        try {
+            List<Future<MappedGeneratorIdLeaseTable>> futures = new ArrayList<>();
+            for (int i = 0; i < tables; i++) {
+                futures.add(executor.submit(open(start)));
+            }
+            start.countDown();
+            for (Future<MappedGeneratorIdLeaseTable> future : futures) {
+                opened.add(future.get());
+            }
+
+            for (MappedGeneratorIdLeaseTable table : opened) {
+                table.acquire();
+            }
+            assertThatThrownBy(opened.get(0)::acquire).isInstanceOf(GeneratorIdUnavailableException.class);
+        } finally {
+            for (MappedGeneratorIdLeaseTable table : opened) {
+                table.close();
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<MappedGeneratorIdLeaseTable> open(CountDownLatch start) {
+        return () -> {
+            start.await();
+            return new MappedGeneratorIdLeaseTable(file, 8, TTL, clock);
+        };
+    }
+
+    private static final class FakeClock extends Clock {
+
+        private volatile long millis;
+
+        private FakeClock(long millis) {
+            this.millis = millis;
+        }
+
+        private void advance(long millis) {
+            this.millis += millis;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package net.fisenko.utils.ids.snowflake.overflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.fisenko.utils.ids.metrics.impl.StripedGeneratorMetricsImpl;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdDecoder;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.config.GeneratorOptions;
+import net.fisenko.utils.ids.snowflake.config.MaskConfig;
+import net.fisenko.utils.ids.snowflake.exceptions.InvalidSystemClockException;
+import net.fisenko.utils.ids.snowflake.exceptions.SequenceOverflowException;
+import net.fisenko.utils.ids.snowflake.overflow.impl.ParkOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinWaitOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.overflow.impl.SpinYieldOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.overflow.impl.ThrowOverflowStrategyImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import org.junit.Test;
+
+public class SequenceOverflowStrategyTest {
+
+    // 4 Id's per tick, so the fifth Id of a tick overflows
+    private static final MaskConfig MASK_CONFIG = new MaskConfig((byte) 41, (byte) 20, (byte) 2);
+    private static final int PER_TICK = 4;
+
+    private final StripedGeneratorMetricsImpl metrics = new StripedGeneratorMetricsImpl();
+
+    @Test
+    public void throwGivesUpRightAway() {
+        SnowflakeIdGeneratorImpl generator = generator(new ThrowOverflowStrategyImpl(), new ScriptedTimeSource(100));
+        exhaustTick(generator);
+
+        assertThatThrownBy(generator::nextLong).isInstanceOf(SequenceOverflowException.class);
+        assertThat(new ThrowOverflowStrategyImpl().idle(0, 0)).isFalse();
+        assertThat(metrics.getClockRegressions()).isZero();
+    }
+
+    @Test(timeout = 10_000)
+    public void spinWaitsForTheNextTick() {
+        assertWaitsForTheNextTick(new SpinWaitOverflowStrategyImpl());
+    }
+
+    @Test(timeout = 10_000)
+    public void spinYieldWaitsForTheNextTick() {
+        // Spins twice, then yields for the remaining reads
+        assertWaitsForTheNextTick(new SpinYieldOverflowStrategyImpl(2, null));
+    }
+
+    @Test(timeout = 10_000)
+    public void parkWaitsForTheNextTick() {
+        assertWaitsForTheNextTick(new ParkOverflowStrategyImpl(Duration.ofNanos(1_000), null));
+    }
+
+    @Test
+    public void waitingStrategiesIdleOncePerReadOfTheClock() {
+        RecordingStrategy strategy = new RecordingStrategy(null);
+
+        assertWaitsForTheNextTick(strategy);
+
+        assertThat(strategy.iterations).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test(timeout = 10_000)
+    public void waitingStrategiesGiveUpAfterTheMaximumWait() {
+        for (SequenceOverflowStrategy strategy : Arrays.asList(
+                new SpinWaitOverflowStrategyImpl(Duration.ofMillis(20)),
+                new SpinYieldOverflowStrategyImpl(2, Duration.ofMillis(20)),
+                new ParkOverflowStrategyImpl(Duration.ofNanos(50_000), Duration.ofMillis(20)))) {
+            SnowflakeIdGeneratorImpl generator = generator(strategy, new ScriptedTimeSource(100));
+            exhaustTick(generator);
+
+            long started = System.nanoTime();
+            assertThatThrownBy(generator::nextLong).as("%s", strategy).isInstanceOf(SequenceOverflowException.class);
+            assertThat(System.nanoTime() - started).as("%s", strategy).isGreaterThanOrEqualTo(Duration.ofMillis(20).toNanos());
+        }
+    }
+
+    @Test
+    public void maximumWaitIsInclusiveAndZeroGivesUpRightAway() {
+        RecordingStrategy strategy = new RecordingStrategy(Duration.ofNanos(1_000));
+
+        assertThat(strategy.idle(0, 999)).isTrue();
+        assertThat(strategy.idle(1, 1_000)).isFalse();
+        assertThat(strategy.iterations).containsExactly(0);
+        assertThat(new SpinWaitOverflowStrategyImpl(Duration.ZERO).idle(0, 0)).isFalse();
+        assertThatThrownBy(() -> new SpinWaitOverflowStrategyImpl(Duration.ofNanos(-1))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test(timeout = 10_000)
+    public void waitingStrategiesThrowWhenTheClockMovesBackwardsWhileWaiting() {
+        for (SequenceOverflowStrategy strategy : Arrays.asList(
+                new SpinWaitOverflowStrategyImpl(),
+                new SpinYieldOverflowStrategyImpl(2, null),
+                new ParkOverflowStrategyImpl(),
+                new RecordingStrategy(null))) {
+            // The clock steps back by a tick after the wait started; waiting without a limit would otherwise never end
+            assertThrowsWhenTheClockMovesBackwards(strategy, 3);
+        }
+    }
+
+    @Test
+    public void throwReportsAClockThatMovedBackwardsBeforeGivingUp() {
+        assertThrowsWhenTheClockMovesBackwards(new ThrowOverflowStrategyImpl(), 0);
+    }
+
+    private void assertThrowsWhenTheClockMovesBackwards(SequenceOverflowStrategy strategy, int readsBeforeRegression) {
+        long[] ticks = new long[PER_TICK + 2 + readsBeforeRegression];
+        Arrays.fill(ticks, 100);
+        ticks[ticks.length - 1] = 99;
+        SnowflakeIdGeneratorImpl generator = generator(strategy, new ScriptedTimeSource(ticks));
+        exhaustTick(generator);
+        long regressions = metrics.getClockRegressions();
+
+        assertThatThrownBy(generator::nextLong).as("%s", strategy).isInstanceOf(InvalidSystemClockException.class);
+        assertThat(metrics.getClockRegressions()).isEqualTo(regressions + 1);
+    }
+
+    private void assertWaitsForTheNextTick(SequenceOverflowStrategy strategy) {
+        // The clock stays at tick 100 for the claims of the first tick and five more reads, then moves on
+        long[] ticks = new long[PER_TICK + 7];
+        Arrays.fill(ticks, 100);
+        ticks[ticks.length - 1] = 101;
+        SnowflakeIdGeneratorImpl generator = generator(strategy, new ScriptedTimeSource(ticks));
+        SnowflakeIdDecoder decoder = new SnowflakeIdDecoder(generator);
+        exhaustTick(generator);
+
+        long id = generator.nextLong();
+
+        assertThat(decoder.ticksOf(id)).isEqualTo(101);
+        assertThat(decoder.sequenceOf(id)).isZero();
+        assertThat(metrics.getSequenceOverflows()).isEqualTo(1);
+        assertThat(metrics.getClockRegressions()).isZero();
+    }
+
+    private SnowflakeIdGeneratorImpl generator(SequenceOverflowStrategy strategy, TimeSource timeSource) {
+        return new SnowflakeIdGeneratorImpl(0, MASK_CONFIG, timeSource, GeneratorOptions.Default.withSequenceOverflowStrategy(strategy).withMetrics(metrics));
+    }
+
+    private static void exhaustTick(SnowflakeIdGeneratorImpl generator) {
+        for (int i = 0; i < PER_TICK; i++) {
+            generator.nextLong();
+        }
+    }
+
+    /**
+     * Records the iterations it idles for.
+     */
+    private static final class RecordingStrategy extends WaitingOverflowStrategyBase {
+
+        private final List<Integer> iterations = new ArrayList<>();
+
+        private RecordingStrategy(Duration maxWait) {
+            super(maxWait);
+        }
+
+        @Override
+        protected void idle(int iteration) {
+            iterations.add(iteration);
+        }
+    }
+
+    /**
+     * Returns the scripted ticks one read at a time, then keeps returning the last one.
+     */
+    private static final class ScriptedTimeSource implements TimeSource {
+
+        private final long[] ticks;
+        private int reads;
+
+        private ScriptedTimeSource(long... ticks) {
+            this.ticks = ticks;
+        }
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            return ticks[Math.min(reads++, ticks.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package net.fisenko.utils.ids.snowflake.timeSource.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import net.fisenko.utils.ids.snowflake.SnowflakeIdGeneratorImpl;
+import net.fisenko.utils.ids.snowflake.timeSource.TimeSource;
+import org.junit.Test;
+
+public class CachedTimeSourceImplTest {
+
+    @Test(timeout = 10_000)
+    public void canBeStartedAgainAfterItWasClosed() throws Exception {
+        StallingTimeSource timeSource = new StallingTimeSource(100);
+        CachedTimeSourceImpl cached = new CachedTimeSourceImpl(timeSource);
+        assertThat(cached.isRunning()).isFalse();
+        assertThat(cached.getTicks()).isEqualTo(100);
+
+        for (int run = 0; run < 3; run++) {
+            assertThat(cached.start()).isSameAs(cached);
+            assertThat(cached.isRunning()).isTrue();
+            assertThatThrownBy(cached::start).isInstanceOf(IllegalStateException.class);
+            timeSource.ticks = 200 + 10 * run;
+            awaitTicks(cached, 200 + 10 * run);
+
+            cached.close();
+            assertThat(cached.isRunning()).isFalse();
+            // Read straight from the underlying time source while stopped
+            timeSource.ticks = 205 + 10 * run;
+            assertThat(cached.getTicks()).isEqualTo(205 + 10 * run);
+        }
+        cached.close();
+    }
+
+    @Test(timeout = 10_000)
+    public void fallsBackToTheUnderlyingTimeSourceWhileTheTickerStalls() throws Exception {
+        StallingTimeSource timeSource = new StallingTimeSource(100);
+        try (CachedTimeSourceImpl cached = new CachedTimeSourceImpl(timeSource, Duration.ofMillis(1)).start()) {
+            timeSource.stall();
+            timeSource.ticks = 200;
+            Thread.sleep(20);
+
+            // One in 64 reads notices the stall; the tick count it reads is published for all later reads
+            awaitTicks(cached, 200);
+            assertThat(cached.getTicks()).isEqualTo(200);
+            assertThat(cached.isRunning()).isTrue();
+
+            timeSource.resume();
+            timeSource.ticks = 201;
+            awaitTicks(cached, 201);
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void publishedTicksNeverGoBackwards() throws Exception {
+        // The underlying time source jitters backwards now and then; every read of the ticker checks for a stall
+        JitteringTimeSource timeSource = new JitteringTimeSource();
+        try (CachedTimeSourceImpl cached = new CachedTimeSourceImpl(timeSource, Duration.ofNanos(1)).start()) {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    futures.add(executor.submit(() -> {
+                        long last = Long.MIN_VALUE;
+                        for (int i = 0; i < 200_000; i++) {
+                            long ticks = cached.getTicks();
+                            assertThat(ticks).isGreaterThanOrEqualTo(last);
+                            last = ticks;
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static void awaitTicks(CachedTimeSourceImpl cached, long expected) throws InterruptedException {
+        while (cached.getTicks() != expected) {
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Returns the ticks set by the test; blocks the ticker thread while stalled.
+     */
+    private static final class StallingTimeSource implements TimeSource {
+
+        private final CountDownLatch stalled = new CountDownLatch(1);
+        private volatile CountDownLatch resumed = new CountDownLatch(0);
+        private volatile long ticks;
+
+        private StallingTimeSource(long ticks) {
+            this.ticks = ticks;
+        }
+
+        private void stall() throws InterruptedException {
+            resumed = new CountDownLatch(1);
+            stalled.await();
+        }
+
+        private void resume() {
+            resumed.countDown();
+        }
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            CountDownLatch latch = resumed;
+            if (latch.getCount() > 0 && Thread.currentThread().getName().equals("snowflake-ticker")) {
+                stalled.countDown();
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return ticks;
+        }
+    }
+
+    /**
+     * Advances a tick every 8 reads, and reads a few ticks behind now and then.
+     */
+    private static final class JitteringTimeSource implements TimeSource {
+
+        private final AtomicLong reads = new AtomicLong();
+
+        @Override
+        public OffsetDateTime getEpoch() {
+            return SnowflakeIdGeneratorImpl.DefaultEpoch;
+        }
+
+        @Override
+        public Duration getTickDuration() {
+            return Duration.ofMillis(1);
+        }
+
+        @Override
+        public long getTicks() {
+            long ticks = reads.incrementAndGet() / 8;
+            return ThreadLocalRandom.current().nextInt(4) == 0 ? ticks - 3 : ticks;
+        }
+    }
+}
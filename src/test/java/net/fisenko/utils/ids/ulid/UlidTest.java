@@ -0,0 +1,173 @@
+package net.fisenko.utils.ids.ulid;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Random;
+import net.fisenko.utils.ids.utils.Time;
+import org.junit.Test;
+
+public class UlidTest {
+
+    private static final String MAX = "7ZZZZZZZZZZZZZZZZZZZZZZZZZ";
+
+    private final Random random = new Random(42);
+
+    @Test
+    public void parsesWhatToStringWrites() {
+        for (int i = 0; i < 1_000; i++) {
+            Ulid ulid = new Ulid(random.nextLong(), random.nextLong());
+            String s = ulid.toString();
+            byte[] ascii = s.getBytes(StandardCharsets.US_ASCII);
+
+            assertThat(Ulid.parse(s)).isEqualTo(ulid);
+            assertThat(Ulid.parse(new StringBuilder(s), 0)).isEqualTo(ulid);
+            assertThat(Ulid.parse(ascii, 0)).isEqualTo(ulid);
+            assertThat(Ulid.parse(ByteBuffer.wrap(ascii), 0)).isEqualTo(ulid);
+            assertThat(Ulid.tryParse(s)).isEqualTo(ulid);
+            assertThat(Ulid.tryParse(s, 0)).isEqualTo(ulid);
+            assertThat(Ulid.tryParse(ascii, 0)).isEqualTo(ulid);
+            assertThat(Ulid.tryParse(ByteBuffer.wrap(ascii), 0)).isEqualTo(ulid);
+        }
+    }
+
+    @Test
+    public void parsesTheLowestAndHighestUlid() {
+        assertThat(Ulid.parse("00000000000000000000000000")).isEqualTo(Ulid.MIN_VALUE);
+        assertThat(Ulid.parse(MAX)).isEqualTo(Ulid.MAX_VALUE);
+        assertThat(Ulid.tryParse(MAX.getBytes(StandardCharsets.US_ASCII), 0)).isEqualTo(Ulid.MAX_VALUE);
+    }
+
+    @Test
+    public void ignoresHyphensOnlyInParseOfAString() {
+        Ulid ulid = new Ulid(random.nextLong(), random.nextLong());
+        String hyphenated = ulid.toString().substring(0, 10) + "-" + ulid.toString().substring(10);
+
+        assertThat(Ulid.parse(hyphenated)).isEqualTo(ulid);
+        assertThat(Ulid.tryParse(hyphenated)).isNull();
+    }
+
+    @Test
+    public void rejectsAFirstCharacterAbove7() {
+        // 8 and up would need a 129th bit
+        for (char first : new char[]{'8', '9', 'A', 'Z'}) {
+            String s = first + MAX.substring(1);
+            byte[] ascii = s.getBytes(StandardCharsets.US_ASCII);
+
+            assertThatThrownBy(() -> Ulid.parse(s)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Ulid.parse(ascii, 0)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> Ulid.parse(ByteBuffer.wrap(ascii), 0)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(Ulid.tryParse(s)).isNull();
+            assertThat(Ulid.tryParse(ascii, 0)).isNull();
+            assertThat(Ulid.tryParse(ByteBuffer.wrap(ascii), 0)).isNull();
+        }
+    }
+
+    @Test
+    public void rejectsInvalidCharactersAtEveryPosition() {
+        String valid = new Ulid(random.nextLong(), random.nextLong()).toString();
+        // 'U' isn't in the Crockford alphabet, the others aren't Base32 at all; (char) 0xE9 and (byte) 0xE9 are beyond ASCII
+        for (char invalid : new char[]{'U', '!', ' ', 'é', 'Ā'}) {
+            for (int position = 0; position < Ulid.STRING_LENGTH; position++) {
+                String s = valid.substring(0, position) + invalid + valid.substring(position + 1);
+                byte[] ascii = s.getBytes(StandardCharsets.ISO_8859_1);
+
+                assertThatThrownBy(() -> Ulid.parse(s)).isInstanceOf(IllegalArgumentException.class);
+                assertThat(Ulid.tryParse(s)).as("%s", s).isNull();
+                assertThat(Ulid.tryParse(ascii, 0)).as("%s", s).isNull();
+                assertThat(Ulid.tryParse(ByteBuffer.wrap(ascii), 0)).as("%s", s).isNull();
+            }
+        }
+    }
+
+    @Test
+    public void parsesAtAnOffset() {
+        Ulid ulid = new Ulid(random.nextLong(), random.nextLong());
+        String line = "id=" + ulid + ";";
+        byte[] ascii = line.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(ascii.length).put(ascii).flip();
+
+        assertThat(Ulid.parse(line, 3)).isEqualTo(ulid);
+        assertThat(Ulid.parse(ascii, 3)).isEqualTo(ulid);
+        assertThat(Ulid.parse(direct, 3)).isEqualTo(ulid);
+        assertThat(Ulid.tryParse(line, 3)).isEqualTo(ulid);
+        assertThat(Ulid.tryParse(ascii, 3)).isEqualTo(ulid);
+        assertThat(Ulid.tryParse(direct, 3)).isEqualTo(ulid);
+        // Parsing reads at an absolute position
+        assertThat(direct.position()).isZero();
+        // One character off is a different or an invalid Ulid
+        assertThat(Ulid.tryParse(line, 2)).isNotEqualTo(ulid);
+    }
+
+    @Test
+    public void rejectsOffsetsOutsideTheInput() {
+        String s = new Ulid(random.nextLong(), random.nextLong()).toString();
+        byte[] ascii = s.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.wrap(ascii);
+
+        for (int off : new int[]{-1, 1, Ulid.STRING_LENGTH, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            assertThatThrownBy(() -> Ulid.parse(s, off)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> Ulid.parse(ascii, off)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThatThrownBy(() -> Ulid.parse(buffer, off)).isInstanceOf(IndexOutOfBoundsException.class);
+            assertThat(Ulid.tryParse(s, off)).isNull();
+            assertThat(Ulid.tryParse(ascii, off)).isNull();
+            assertThat(Ulid.tryParse(buffer, off)).isNull();
+        }
+        // The limit of a buffer bounds the input, not its capacity
+        buffer.limit(Ulid.STRING_LENGTH - 1);
+        assertThat(Ulid.tryParse(buffer, 0)).isNull();
+    }
+
+    @Test
+    public void rejectsInputOfTheWrongLength() {
+        String s = new Ulid(random.nextLong(), random.nextLong()).toString();
+
+        assertThatThrownBy(() -> Ulid.parse(s.substring(1))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ulid.parse(s + "0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ulid.parse("")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(Ulid.tryParse(s.substring(1))).isNull();
+        assertThat(Ulid.tryParse(s + "0")).isNull();
+        assertThat(Ulid.tryParse("")).isNull();
+    }
+
+    @Test
+    public void tryParseOfNullIsNull() {
+        assertThat(Ulid.tryParse((CharSequence) null)).isNull();
+        assertThat(Ulid.tryParse((CharSequence) null, 0)).isNull();
+        assertThat(Ulid.tryParse((byte[]) null, 0)).isNull();
+        assertThat(Ulid.tryParse((ByteBuffer) null, 0)).isNull();
+    }
+
+    @Test
+    public void parseOfNullThrows() {
+        assertThatThrownBy(() -> Ulid.parse(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ulid.parse((CharSequence) null, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ulid.parse((byte[]) null, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> Ulid.parse((ByteBuffer) null, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void constructorFromADateTimeAgreesWithOf() {
+        byte[] randomPart = new byte[10];
+        random.nextBytes(randomPart);
+        OffsetDateTime timePart = Time.fromUnixTimeMilli(Ulid.MAX_EPOCH_MILLIS);
+
+        assertThat(new Ulid(timePart, randomPart)).isEqualTo(Ulid.of(Ulid.MAX_EPOCH_MILLIS, randomPart));
+        assertThat(new Ulid(timePart, randomPart).getTimestamp()).isEqualTo(timePart);
+    }
+
+    @Test
+    public void constructorFromADateTimeRejectsTimesOutsideTheUlidTimeRange() {
+        byte[] randomPart = new byte[10];
+
+        // Past the 48 bit time part, which would otherwise silently lose its high bits
+        assertThatThrownBy(() -> new Ulid(Time.fromUnixTimeMilli(Ulid.MAX_EPOCH_MILLIS + 1), randomPart)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Ulid(Time.fromUnixTimeMilli(-1), randomPart)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Ulid(null, randomPart)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Ulid(Time.UNIX_EPOCH, new byte[9])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Ulid(Time.UNIX_EPOCH, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
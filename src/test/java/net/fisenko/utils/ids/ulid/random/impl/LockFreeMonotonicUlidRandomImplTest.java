@@ -0,0 +1,93 @@
+package net.fisenko.utils.ids.ulid.random.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import net.fisenko.utils.ids.ulid.Ulid;
+import org.junit.Test;
+
+public class LockFreeMonotonicUlidRandomImplTest {
+
+    private static final int THREADS = 8;
+    private static final int ULIDS_PER_THREAD = 100_000;
+
+    @Test
+    public void concurrentCallersGetUniqueAndPerThreadIncreasingUlids() throws Exception {
+        LockFreeMonotonicUlidRandomImpl random = new LockFreeMonotonicUlidRandomImpl();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Ulid[]>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(generate(random, start)));
+            }
+            start.countDown();
+
+            Set<Ulid> all = new HashSet<>(THREADS * ULIDS_PER_THREAD * 2);
+            for (Future<Ulid[]> future : futures) {
+                Ulid[] ulids = future.get();
+                for (int i = 0; i < ulids.length; i++) {
+                    if (i > 0) {
+                        assertThat(ulids[i]).isGreaterThan(ulids[i - 1]);
+                    }
+                    assertThat(all.add(ulids[i])).as("duplicate %s", ulids[i]).isTrue();
+                }
+            }
+            assertThat(all).hasSize(THREADS * ULIDS_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void incrementsRandomPartWithinTheSameMillisecond() {
+        LockFreeMonotonicUlidRandomImpl random = new LockFreeMonotonicUlidRandomImpl();
+
+        Ulid first = random.nextUlid(1_000);
+        Ulid second = random.nextUlid(1_000);
+        // The clock went backwards; values continue from the newest millisecond
+        Ulid third = random.nextUlid(999);
+
+        assertThat(first.getEpochMillis()).isEqualTo(1_000);
+        assertThat(second).isEqualTo(new Ulid(first.getMostSignificantBits(), first.getLeastSignificantBits() + 1));
+        assertThat(third).isEqualTo(new Ulid(first.getMostSignificantBits(), first.getLeastSignificantBits() + 2));
+    }
+
+    @Test
+    public void carriesIntoTheHighBitsOfTheRandomPart() {
+        Ulid last = Ulid.of(1_000, 0x1234, -1L);
+        LockFreeMonotonicUlidRandomImpl random = new LockFreeMonotonicUlidRandomImpl(last);
+
+        assertThat(random.nextUlid(1_000)).isEqualTo(Ulid.of(1_000, 0x1235, 0));
+    }
+
+    @Test
+    public void randomBytesAreNotShared() {
+        LockFreeMonotonicUlidRandomImpl random = new LockFreeMonotonicUlidRandomImpl();
+
+        byte[] first = random.getRandomBytes();
+        byte[] copy = first.clone();
+        random.getRandomBytes();
+
+        assertThat(first).isEqualTo(copy);
+    }
+
+    private static Callable<Ulid[]> generate(LockFreeMonotonicUlidRandomImpl random, CountDownLatch start) {
+        return () -> {
+            start.await();
+            Ulid[] ulids = new Ulid[ULIDS_PER_THREAD];
+            for (int i = 0; i < ULIDS_PER_THREAD; i++) {
+                ulids[i] = random.nextUlid(System.currentTimeMillis());
+            }
+            return ulids;
+        };
+    }
+}
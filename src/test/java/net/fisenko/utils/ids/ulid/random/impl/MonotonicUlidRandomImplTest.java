@@ -0,0 +1,84 @@
+package net.fisenko.utils.ids.ulid.random.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import net.fisenko.utils.ids.ulid.Ulid;
+import net.fisenko.utils.ids.ulid.UlidIdGeneratorImpl;
+import org.junit.Test;
+
+public class MonotonicUlidRandomImplTest {
+
+    @Test
+    public void incrementsRandomPartWithinTheSameMillisecond() {
+        MonotonicUlidRandomImpl random = new MonotonicUlidRandomImpl();
+
+        Ulid first = random.nextUlid(1_000);
+        Ulid second = random.nextUlid(1_000);
+        // The clock went backwards; values continue from the newest millisecond's sequence
+        Ulid third = random.nextUlid(999);
+
+        assertThat(first.getEpochMillis()).isEqualTo(1_000);
+        assertThat(second).isEqualTo(new Ulid(first.getMostSignificantBits(), first.getLeastSignificantBits() + 1));
+        assertThat(third.getLeastSignificantBits()).isEqualTo(first.getLeastSignificantBits() + 2);
+    }
+
+    @Test
+    public void blocksContinueTheSequenceOfTheCallersMillisecond() {
+        MonotonicUlidRandomImpl random = new MonotonicUlidRandomImpl();
+
+        Ulid first = random.nextUlidBlock(1_000, 10);
+        Ulid next = random.nextUlid(1_000);
+
+        assertThat(next).isEqualTo(new Ulid(first.getMostSignificantBits(), first.getLeastSignificantBits() + 10));
+    }
+
+    @Test
+    public void batchesFromAFixedClockAreIncreasing() {
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(1_000), ZoneOffset.UTC);
+        UlidIdGeneratorImpl generator = new UlidIdGeneratorImpl(clock, new MonotonicUlidRandomImpl());
+
+        Ulid previous = null;
+        for (int batch = 0; batch < 5; batch++) {
+            // Let the wall clock move on between batches; it must not reseed the sequence of the fixed millisecond
+            sleep(2);
+            for (Ulid ulid : generator.nextBatch(100)) {
+                if (previous != null) {
+                    assertThat(ulid).isGreaterThan(previous);
+                }
+                previous = ulid;
+            }
+        }
+    }
+
+    @Test
+    public void throwsWhenTheRandomPartOverflows() {
+        Ulid last = Ulid.of(1_000, 0xFFFF, -2L);
+        MonotonicUlidRandomImpl random = new MonotonicUlidRandomImpl(last);
+
+        assertThat(random.nextUlid(1_000)).isEqualTo(Ulid.of(1_000, 0xFFFF, -1L));
+        assertThatThrownBy(() -> random.nextUlid(1_000)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void randomBytesAreNotShared() {
+        MonotonicUlidRandomImpl random = new MonotonicUlidRandomImpl();
+
+        byte[] first = random.getRandomBytes();
+        byte[] copy = first.clone();
+        random.getRandomBytes();
+
+        assertThat(first).isEqualTo(copy);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}